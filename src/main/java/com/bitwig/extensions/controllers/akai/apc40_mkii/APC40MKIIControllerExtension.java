@@ -41,6 +41,9 @@ import com.bitwig.extension.controller.api.UserControlBank;
 import com.bitwig.extensions.framework.DebugUtilities;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.PaletteMapper;
+import com.bitwig.extensions.remoteconsole.RemoteConsole;
+import com.bitwig.extensions.remoteconsole.RemoteConsole.Level;
 
 public class APC40MKIIControllerExtension extends ControllerExtension
 {
@@ -244,14 +247,15 @@ public class APC40MKIIControllerExtension extends ControllerExtension
          for (int j = 0; j < 5; ++j)
          {
             final ClipLauncherSlot slot = clipLauncher.getItemAt(j);
-            slot.color().markInterested();
-            slot.isPlaybackQueued().markInterested();
-            slot.hasContent().markInterested();
-            slot.isPlaying().markInterested();
-            slot.isRecording().markInterested();
-            slot.isRecordingQueued().markInterested();
+            final long padBit = padBit(i, j);
+            slot.color().addValueObserver((red, green, blue) -> mDirtyPads |= padBit);
+            slot.isPlaybackQueued().addValueObserver(value -> mDirtyPads |= padBit);
+            slot.hasContent().addValueObserver(value -> mDirtyPads |= padBit);
+            slot.isPlaying().addValueObserver(value -> mDirtyPads |= padBit);
+            slot.isRecording().addValueObserver(value -> mDirtyPads |= padBit);
+            slot.isRecordingQueued().addValueObserver(value -> mDirtyPads |= padBit);
             slot.isStopQueued().markInterested();
-            slot.exists().markInterested();
+            slot.exists().addValueObserver(value -> mDirtyPads |= padBit);
 
             sendBank.cursorIndex().markInterested();
             final Send send = sendBank.getItemAt(j);
@@ -1093,7 +1097,7 @@ public class APC40MKIIControllerExtension extends ControllerExtension
             bt.releasedAction().setActionMatcher(mMidiIn.createNoteOffActionMatcher(0, note));
 
             mGridButtons[y * 8 + x] = bt;
-            mGridLeds[x][y] = new RgbLed(bt, mHardwareSurface, MSG_NOTE_ON, BT_GRID0 + x + (4 - y) * 8);
+            mGridLeds[x][y] = new RgbLed(bt, mHardwareSurface, MSG_NOTE_ON, BT_GRID0 + x + (4 - y) * 8, mPaletteMapper);
          }
       }
 
@@ -1106,7 +1110,7 @@ public class APC40MKIIControllerExtension extends ControllerExtension
          bt.releasedAction().setActionMatcher(mMidiIn.createNoteOffActionMatcher(0, BT_SCENE0 + y));
          mSceneButtons[y] = bt;
 
-         mSceneLeds[y] = new RgbLed(bt, mHardwareSurface, MSG_NOTE_ON, BT_SCENE0 + y);
+         mSceneLeds[y] = new RgbLed(bt, mHardwareSurface, MSG_NOTE_ON, BT_SCENE0 + y, mPaletteMapper);
       }
    }
 
@@ -1541,54 +1545,77 @@ public class APC40MKIIControllerExtension extends ControllerExtension
       }
    }
 
+   private static long padBit(final int track, final int slot)
+   {
+      return 1L << (track * 5 + slot);
+   }
+
+   /** Repaints the pads whose slot changed since the last flush. */
    private void paintPads()
    {
+      if (mDirtyPads == 0)
+         return;
+
+      int repaintCount = 0;
+
       for (int i = 0; i < 8; ++i)
       {
          final Track track = mTrackBank.getItemAt(i);
          final ClipLauncherSlotBank clipLauncherSlotBank = track.clipLauncherSlotBank();
          for (int j = 0; j < 5; ++j)
          {
-            final ClipLauncherSlot slot = clipLauncherSlotBank.getItemAt(j);
-            final RgbLed rgbLed = mGridLeds[i][j];
+            if ((mDirtyPads & padBit(i, j)) == 0)
+               continue;
 
-            if (slot.exists().get() && slot.hasContent().get())
-               rgbLed.setColor(slot.color().red(), slot.color().green(), slot.color().blue());
-            else
-               rgbLed.setColor(RGBLedState.COLOR_NONE);
-
-            /*
-             * if (slot.isStopQueued().get()) { rgbLed.setBlinkType(RgbLed.BLINK_STOP_QUEUED);
-             * rgbLed.setBlinkColor(RgbLed.COLOR_STOPPING); } else
-             */if (slot.isRecordingQueued().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_RECORD_QUEUED);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
-            }
-            else if (slot.isPlaybackQueued().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_PLAY_QUEUED);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
-            }
-            else if (slot.isRecording().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
-            }
-            else if (slot.isPlaying().get())
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
-            }
-            else /* stopped */
-            {
-               rgbLed.setBlinkType(RGBLedState.BLINK_NONE);
-               rgbLed.setBlinkColor(RGBLedState.COLOR_NONE);
-            }
-
-            rgbLed.paint(mMidiOut);
+            paintPad(clipLauncherSlotBank.getItemAt(j), mGridLeds[i][j]);
+            ++repaintCount;
          }
       }
+
+      mDirtyPads = 0;
+      mPadRepaintCount += repaintCount;
+
+      if (RemoteConsole.out.isEnabled(Level.DEBUG))
+         RemoteConsole.out.log(Level.DEBUG, "APC40 repainted {} pads, {} in total", repaintCount, mPadRepaintCount);
+   }
+
+   private void paintPad(final ClipLauncherSlot slot, final RgbLed rgbLed)
+   {
+      if (slot.exists().get() && slot.hasContent().get())
+         rgbLed.setColor(slot.color().red(), slot.color().green(), slot.color().blue());
+      else
+         rgbLed.setColor(RGBLedState.COLOR_NONE);
+
+      /*
+       * if (slot.isStopQueued().get()) { rgbLed.setBlinkType(RgbLed.BLINK_STOP_QUEUED);
+       * rgbLed.setBlinkColor(RgbLed.COLOR_STOPPING); } else
+       */if (slot.isRecordingQueued().get())
+      {
+         rgbLed.setBlinkType(RGBLedState.BLINK_RECORD_QUEUED);
+         rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
+      }
+      else if (slot.isPlaybackQueued().get())
+      {
+         rgbLed.setBlinkType(RGBLedState.BLINK_PLAY_QUEUED);
+         rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
+      }
+      else if (slot.isRecording().get())
+      {
+         rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
+         rgbLed.setBlinkColor(RGBLedState.COLOR_RECORDING);
+      }
+      else if (slot.isPlaying().get())
+      {
+         rgbLed.setBlinkType(RGBLedState.BLINK_ACTIVE);
+         rgbLed.setBlinkColor(RGBLedState.COLOR_PLAYING);
+      }
+      else /* stopped */
+      {
+         rgbLed.setBlinkType(RGBLedState.BLINK_NONE);
+         rgbLed.setBlinkColor(RGBLedState.COLOR_NONE);
+      }
+
+      rgbLed.paint(mMidiOut);
    }
 
    private void flushKnobs()
@@ -1898,7 +1925,15 @@ public class APC40MKIIControllerExtension extends ControllerExtension
 
    private final KnobLed[] mTopControlKnobLeds = new KnobLed[8];
 
+   private final PaletteMapper mPaletteMapper = RGBLedState.createPaletteMapper();
+
    private final RgbLed[][] mGridLeds = new RgbLed[8][5];
 
+   /** One bit per grid pad (track * 5 + slot) whose slot changed since the last flush. */
+   private long mDirtyPads = (1L << 40) - 1;
+
+   /** Number of pads repainted since init, logged at debug level. */
+   private long mPadRepaintCount;
+
    private final RgbLed[] mSceneLeds = new RgbLed[5];
 }
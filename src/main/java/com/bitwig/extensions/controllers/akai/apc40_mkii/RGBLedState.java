@@ -6,6 +6,7 @@ import java.util.Map;
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.controller.api.HardwareLightVisualState;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
+import com.bitwig.extensions.framework.PaletteMapper;
 
 class RGBLedState extends InternalHardwareLightState
 {
@@ -37,71 +38,84 @@ class RGBLedState extends InternalHardwareLightState
 
    public static final int BLINK_STOP_QUEUED = 12;
 
-   private static final Map<Integer, Integer> RGB_TO_COLOR_VALUE_MAP = new HashMap<>();
-
-   private static final Map<Integer, Color> COLOR_VALUE_TO_COLOR_MAP = new HashMap<>();
-
-   private static void registerColor(final int rgb, final int value)
+   /** Pairs of an RGB color and the color value the APC40 shows for it. */
+   private static final int[] COLORS =
    {
-      COLOR_VALUE_TO_COLOR_MAP.put(value,
-         Color.fromRGB255((rgb & 0xFF0000) >> 16, (rgb & 0xFF00) >> 8, rgb & 0xFF));
+      0xFF0000, COLOR_RED,
+      0xFF00, COLOR_GREEN,
+      0xFF, COLOR_BLUE,
+      0xFFD90F, COLOR_YELLOW,
 
-      RGB_TO_COLOR_VALUE_MAP.put(rgb, value);
-   }
+      0, 0,
 
-   static
-   {
-      registerColor(0xFF0000, COLOR_RED);
-      registerColor(0xFF00, COLOR_GREEN);
-      registerColor(0xFF, COLOR_BLUE);
-      registerColor(0xFFD90F, COLOR_YELLOW);
+      14235761, 57,
+      14771857, 107,
+      5526612, 1,
 
-      registerColor(0, 0);
+      14233124, 6,
+      15491415, 5,
+      8026746, 2,
 
-      registerColor(14235761, 57);
-      registerColor(14771857, 107);
-      registerColor(5526612, 1);
+      16733958, 9,
+      16745278, 12,
+      13224393, 3,
 
-      registerColor(14233124, 6);
-      registerColor(15491415, 5);
-      registerColor(8026746, 2);
+      14261520, 14,
+      14989134, 13,
+      8817068, 104,
 
-      registerColor(16733958, 9);
-      registerColor(16745278, 12);
-      registerColor(13224393, 3);
+      7575572, 18,
+      10534988, 17,
+      10713411, 125,
 
-      registerColor(14261520, 14);
-      registerColor(14989134, 13);
-      registerColor(8817068, 104);
+      40263, 22,
+      4111202, 21,
+      13016944, 124,
 
-      registerColor(7575572, 18);
-      registerColor(10534988, 17);
-      registerColor(10713411, 125);
+      42644, 34,
+      4444857, 33,
+      5726662, 43,
 
-      registerColor(40263, 22);
-      registerColor(4111202, 21);
-      registerColor(13016944, 124);
+      39385, 38,
+      4507903, 37,
+      8686304, 115,
 
-      registerColor(42644, 34);
-      registerColor(4444857, 33);
-      registerColor(5726662, 43);
+      9783755, 50,
+      12351216, 49,
+   };
 
-      registerColor(39385, 38);
-      registerColor(4507903, 37);
-      registerColor(8686304, 115);
+   private static final Map<Integer, Color> COLOR_VALUE_TO_COLOR_MAP = new HashMap<>();
 
-      registerColor(9783755, 50);
-      registerColor(12351216, 49);
+   static
+   {
+      for (int i = 0; i < COLORS.length; i += 2)
+      {
+         final int rgb = COLORS[i];
+         COLOR_VALUE_TO_COLOR_MAP.put(COLORS[i + 1],
+            Color.fromRGB255((rgb & 0xFF0000) >> 16, (rgb & 0xFF00) >> 8, rgb & 0xFF));
+      }
    }
 
-   public static int getColorValueForRGB(final int rgb)
+   /**
+    * Creates the mapper from RGB colors to color values. The mapper caches its results and is not thread-safe, each
+    * extension creates its own.
+    */
+   public static PaletteMapper createPaletteMapper()
    {
-      final Integer c = RGB_TO_COLOR_VALUE_MAP.get(rgb);
+      final PaletteMapper paletteMapper = new PaletteMapper(256);
+
+      for (int i = 0; i < COLORS.length; i += 2)
+      {
+         final int rgb = COLORS[i];
+         final int value = COLORS[i + 1];
 
-      if (c != null)
-         return c;
+         if (value == COLOR_NONE)
+            paletteMapper.addFixedColor(rgb, value); // only black should turn the pad off
+         else
+            paletteMapper.addColor(rgb, value);
+      }
 
-      return 13;
+      return paletteMapper;
    }
 
    public static Color getColorForColorValue(final int colorValue)
@@ -5,6 +5,7 @@ import com.bitwig.extension.controller.api.HardwareButton;
 import com.bitwig.extension.controller.api.HardwareSurface;
 import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extension.controller.api.MultiStateHardwareLight;
+import com.bitwig.extensions.framework.PaletteMapper;
 
 class RgbLed
 {
@@ -14,11 +15,13 @@ class RgbLed
       final HardwareButton button,
       final HardwareSurface surface,
       final int message,
-      final int data1)
+      final int data1,
+      final PaletteMapper paletteMapper)
    {
       super();
       mMessage = message;
       mData1 = data1;
+      mPaletteMapper = paletteMapper;
 
       mHardwareLight = surface.createMultiStateHardwareLight(button.getId() + "-light");
       mHardwareLight.state().setValueSupplier(this::getState);
@@ -55,7 +58,7 @@ class RgbLed
       final int b8 = (int)(blue * 255);
       final int total = (r8 << 16) | (g8 << 8) | b8;
 
-      mColor = RGBLedState.getColorValueForRGB(total);
+      mColor = mPaletteMapper.map(total);
    }
 
    public void setColor(final int color)
@@ -85,6 +88,8 @@ class RgbLed
 
    private final int mMessage, mData1;
 
+   private final PaletteMapper mPaletteMapper;
+
    private final MultiStateHardwareLight mHardwareLight;
 
    private int mColor = RGBLedState.COLOR_NONE;
@@ -1,7 +1,5 @@
 package com.bitwig.extensions.controllers.akai.mpk_mini_mk3;
 
-import java.nio.charset.StandardCharsets;
-
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.AbsoluteHardwareKnob;
 import com.bitwig.extension.controller.api.AbsoluteHardwareValueMatcher;
@@ -156,20 +154,11 @@ public class MpkMiniMk3ControllerExtension extends ControllerExtension
 
    void sendSysex()
    {
-      String sysexBitwig2 = "F0 47 7F 49 64 01 76 00 50 47 4D 3A 42 49 54 57 " // pG.Id.v.PGM:MPC.
-         + "49 47 00 00 00 00 00 00 09 01 00";
-
-      sysexBitwig2 += String.format(" %02X", mOctave);
-
-      sysexBitwig2 += " 00 00 04 01 " // ................
-         + "00 00 03 00 78 00 00 00 00 02 01 01 24 00 10 25 " // ....x.......$..%
-         + "01 11 26 02 12 27 03 13 28 04 14 29 05 15 2A 06 " // ..&..'..(..)..*.
-         + "16 2B 07 17 2C 08 18 2D 09 19 2E 0A 1A 2F 0B 1B " // .+..,..-...../..
-         + "30 0C 1C 31 0D 1D 32 0E 1E 33 0F 1F ";
+      mProgram.setOctave(mOctave);
 
-      for (int i = 0; i < 8; ++i)
+      for (int i = 0; i < MpkMiniMk3Program.KNOB_COUNT; ++i)
       {
-         String name = "K" + (i + 1);
+         String name = KNOB_NAMES[i];
 
          if (SHOW_KNOB_NAME)
          {
@@ -182,29 +171,15 @@ public class MpkMiniMk3ControllerExtension extends ControllerExtension
             }
          }
 
-         sysexBitwig2 += configureKnob(70 + i, name);
+         mProgram.setKnob(i, 70 + i, name);
       }
 
-      sysexBitwig2 += " 0C F7 ";
-
-      mMidiOut.sendSysex(sysexBitwig2);
+      mProgram.sendIfChanged(mMidiOut);
 
       mShouldFlushSysex = false;
    }
 
-   String configureKnob(final int cc, final String name)
-   {
-      String str = " 01 " + Integer.toHexString(cc) + " 00 7F ";
-      final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
-      for (int i = 0; i < 16; ++i)
-      {
-         if (i < bytes.length)
-            str += Integer.toHexString(bytes[i]);
-         else
-            str += "00 ";
-      }
-      return str;
-   }
+   private static final String[] KNOB_NAMES = { "K1", "K2", "K3", "K4", "K5", "K6", "K7", "K8" };
 
    private MidiIn mMidiIn;
 
@@ -220,6 +195,8 @@ public class MpkMiniMk3ControllerExtension extends ControllerExtension
 
    private HardwareSurface mHardwareSurface;
 
+   private final MpkMiniMk3Program mProgram = new MpkMiniMk3Program();
+
    private boolean mShouldFlushSysex = true;
 
    // TODO: find out how to do octave tracking
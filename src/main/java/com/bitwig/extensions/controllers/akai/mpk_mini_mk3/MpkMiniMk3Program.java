@@ -0,0 +1,106 @@
+package com.bitwig.extensions.controllers.akai.mpk_mini_mk3;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * The program dump sent to the MPK Mini mk3.
+ *
+ * The dump is kept as bytes built once from a template; the octave and the knob assignments are written in place and
+ * the dump is only sent if it differs from the one sent before.
+ */
+final class MpkMiniMk3Program
+{
+   MpkMiniMk3Program()
+   {
+      super();
+      mData = TEMPLATE.clone();
+   }
+
+   void setOctave(final int octave)
+   {
+      mData[OCTAVE_OFFSET] = (byte)octave;
+   }
+
+   /**
+    * Writes the CC and the name of the knob. The name is cut to 16 characters and padded with zeros, characters
+    * outside of 7-bit ASCII are written as '?'.
+    */
+   void setKnob(final int index, final int cc, final String name)
+   {
+      final int offset = KNOBS_OFFSET + index * KNOB_SIZE;
+      mData[offset + KNOB_CC_OFFSET] = (byte)cc;
+
+      final int nameOffset = offset + KNOB_NAME_OFFSET;
+      final int nameLength = name.length();
+
+      for (int i = 0; i < KNOB_NAME_LENGTH; ++i)
+      {
+         final char c = i < nameLength ? name.charAt(i) : 0;
+         mData[nameOffset + i] = (byte)(c < 0x80 ? c : '?');
+      }
+   }
+
+   /** Sends the program if it changed since it was last sent. */
+   void sendIfChanged(final MidiOut midiOut)
+   {
+      if (mSentData != null && Arrays.equals(mData, mSentData))
+         return;
+
+      // sendSysex() may keep the array, so the sent program is a copy
+      mSentData = mData.clone();
+      midiOut.sendSysex(mSentData);
+   }
+
+   private static byte[] parseHex(final String hex)
+   {
+      final String digits = hex.replaceAll("\\s", "");
+      final byte[] bytes = new byte[digits.length() / 2];
+
+      for (int i = 0; i < bytes.length; ++i)
+         bytes[i] = (byte)Integer.parseInt(digits, 2 * i, 2 * i + 2, 16);
+
+      return bytes;
+   }
+
+   private static byte[] createTemplate()
+   {
+      final byte[] header = parseHex("F0 47 7F 49 64 01 76 00 50 47 4D 3A 42 49 54 57 " // pG.Id.v.PGM:MPC.
+         + "49 47 00 00 00 00 00 00 09 01 00 " // IG.........
+         + "04 " // octave
+         + "00 00 04 01 " // ................
+         + "00 00 03 00 78 00 00 00 00 02 01 01 24 00 10 25 " // ....x.......$..%
+         + "01 11 26 02 12 27 03 13 28 04 14 29 05 15 2A 06 " // ..&..'..(..)..*.
+         + "16 2B 07 17 2C 08 18 2D 09 19 2E 0A 1A 2F 0B 1B " // .+..,..-...../..
+         + "30 0C 1C 31 0D 1D 32 0E 1E 33 0F 1F");
+      final byte[] knob = parseHex("01 00 00 7F");
+      final byte[] footer = parseHex("0C F7");
+
+      assert header.length == KNOBS_OFFSET;
+
+      final byte[] template = new byte[KNOBS_OFFSET + KNOB_COUNT * KNOB_SIZE + footer.length];
+      System.arraycopy(header, 0, template, 0, header.length);
+
+      for (int i = 0; i < KNOB_COUNT; ++i)
+         System.arraycopy(knob, 0, template, KNOBS_OFFSET + i * KNOB_SIZE, knob.length);
+
+      System.arraycopy(footer, 0, template, template.length - footer.length, footer.length);
+
+      return template;
+   }
+
+   static final int KNOB_COUNT = 8;
+
+   private static final int OCTAVE_OFFSET = 27;
+   private static final int KNOBS_OFFSET = 92;
+   private static final int KNOB_CC_OFFSET = 1;
+   private static final int KNOB_NAME_OFFSET = 4;
+   private static final int KNOB_NAME_LENGTH = 16;
+   private static final int KNOB_SIZE = KNOB_NAME_OFFSET + KNOB_NAME_LENGTH;
+
+   private static final byte[] TEMPLATE = createTemplate();
+
+   private final byte[] mData;
+   private byte[] mSentData;
+}
@@ -27,6 +27,7 @@ import com.bitwig.extension.controller.api.SettableIntegerValue;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.controllers.arturia.keylab.mk1.KeylabSysex;
 import com.bitwig.extensions.controllers.arturia.keylab.mk2.ButtonId;
+import com.bitwig.extensions.framework.TickScheduler;
 
 // TODO
 // add mode to switch pads between pages and drum pads
@@ -157,7 +158,14 @@ public class ArturiaKeylabEssentialControllerExtension extends ControllerExtensi
          definition.getHardwareVendor(),
          definition.getHardwareModel() + " " + definition.getVersion());
 
-      host.scheduleTask(this::displayRefreshTimer, 1000);
+      // Browser polling starts after the device had time to settle, as before. The subscription is made right
+      // away, so the scheduler released by exit() can't be created again by a delayed task.
+      final TickScheduler scheduler = TickScheduler.forHost(host);
+      final long pollingStartTime = scheduler.getTime() + 1000;
+      scheduler.subscribe(100, () -> {
+         if (scheduler.getTime() >= pollingStartTime)
+            displayRefreshTimer();
+      });
 
       reset();
    }
@@ -230,8 +238,6 @@ public class ArturiaKeylabEssentialControllerExtension extends ControllerExtensi
             setDisplayMode(DisplayMode.BROWSER);
          }
       }
-
-      getHost().scheduleTask(this::displayRefreshTimer, 100);
    }
 
    private void onNotePortMidi(final ShortMidiMessage data)
@@ -523,6 +529,7 @@ public class ArturiaKeylabEssentialControllerExtension extends ControllerExtensi
    public void exit()
    {
       KeylabSysex.resetToAbsoluteMode(getMidiOutPort(0));
+      TickScheduler.release(getHost());
    }
 
    @Override
@@ -23,15 +23,23 @@ import com.bitwig.extension.controller.api.CursorRemoteControlsPage;
 import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.HardwareControlType;
 import com.bitwig.extension.controller.api.MasterTrack;
+import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PopupBrowser;
+import com.bitwig.extension.controller.api.Preferences;
 import com.bitwig.extension.controller.api.RangedValue;
 import com.bitwig.extension.controller.api.RemoteControl;
 import com.bitwig.extension.controller.api.Send;
+import com.bitwig.extension.controller.api.SettableEnumValue;
 import com.bitwig.extension.controller.api.SettableRangedValue;
+import com.bitwig.extension.controller.api.SettableStringValue;
+import com.bitwig.extension.controller.api.Setting;
 import com.bitwig.extension.controller.api.StringValue;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.SysexRouter;
+import com.bitwig.extensions.framework.TickScheduler;
 import static com.bitwig.extensions.controllers.arturia.keylab.mk1.ArturiaKeylabControllerExtension.DisplayMode.BROWSER;
 
 import static com.bitwig.extensions.controllers.arturia.keylab.mk1.ArturiaKeylabControllerExtension
@@ -72,6 +80,18 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
    final static int PLAY_CC = 20;
    final static int REC_CC = 21;
 
+   /** The device drops messages of long sysex bursts, sends are paced to roughly DIN MIDI speed. */
+   private final static double OUTPUT_BYTES_PER_MS = 3;
+   private final static int OUTPUT_BURST_SIZE = 64;
+
+   /** Output queue addresses, configuration parameters use the addresses below 0x10000. */
+   private final static int TEXT_ADDRESS = 0x10000;
+   private final static int BUTTON_LIGHT_ADDRESS = 0x10100;
+
+   private final static String CONFIGURATION_TRANSFER_FULL = "Full";
+   private final static String CONFIGURATION_TRANSFER_CHANGES = "Changes Only";
+   private final static String[] CONFIGURATION_TRANSFERS = {CONFIGURATION_TRANSFER_FULL, CONFIGURATION_TRANSFER_CHANGES};
+
    private boolean mIsInArturiaMode = false;
 
    enum DisplayMode
@@ -134,7 +154,12 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
    {
       final ControllerHost host = getHost();
 
+      mOutputQueue = new MidiOutQueue(host, host.getMidiOutPort(0), OUTPUT_BYTES_PER_MS, OUTPUT_BURST_SIZE);
+
       mTransport = host.createTransport();
+      mSysexRouter = new SysexRouter()
+         .registerMmcTransport(mTransport)
+         .register("F0 7F 7F 06 0B F7", message -> mTransport.isArrangerLoopEnabled().toggle());
       mCursorTrack = host.createCursorTrack(4, 0);
       mCursorTrack.volume().setIndication(true);
       mCursorTrack.exists().markInterested();
@@ -294,7 +319,7 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
          definition.getHardwareVendor(),
          definition.getHardwareModel() + " " + definition.getVersion());
 
-      KeylabSysex.configureDeviceUsingSysex(getMidiOutPort(0), mNumberOfKeys == 88);
+      setupDeviceConfiguration(host);
 
       updateIndications();
 
@@ -690,27 +715,7 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
 
    private void onSysex(final String data)
    {
-      switch (data)
-      {
-         case "f07f7f0605f7":
-            mTransport.rewind();
-            break;
-         case "f07f7f0604f7":
-            mTransport.fastForward();
-            break;
-         case "f07f7f0601f7":
-            mTransport.stop();
-            break;
-         case "f07f7f0602f7":
-            mTransport.play();
-            break;
-         case "f07f7f0606f7":
-            mTransport.record();
-            break;
-         case "f07f7f060bf7":
-            mTransport.isArrangerLoopEnabled().toggle();
-            break;
-      }
+      mSysexRouter.dispatch(data);
    }
 
    private void sendTextToKeyLab(final String upper, final String lower)
@@ -719,10 +724,70 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
       mLowerTextToSend = lower;
    }
 
+   private void setupDeviceConfiguration(final ControllerHost host)
+   {
+      mConfiguration = KeylabSysex.createConfiguration(mNumberOfKeys == 88);
+
+      final Preferences preferences = host.getPreferences();
+      // "Changes Only" trusts that the device still has what was written last, a power cycle, a preset switch or
+      // an edit made with the Arturia MIDI Control Center goes unnoticed. It is only for a device that keeps its
+      // setup, the full transfer is the default.
+      final SettableEnumValue transferSetting = preferences.getEnumSetting(
+         "Configuration Transfer", "Device Setup", CONFIGURATION_TRANSFERS, CONFIGURATION_TRANSFER_FULL);
+      transferSetting.markInterested();
+
+      // What was last written to the device, kept with the controller but hidden as it is not something to edit
+      mWrittenConfigurationSetting = preferences.getStringSetting("Written Configuration", "Device Setup",
+         KeylabConfiguration.serializedLength(mConfiguration.size()), "");
+      mWrittenConfigurationSetting.markInterested();
+      ((Setting)mWrittenConfigurationSetting).hide();
+
+      preferences.getSignalSetting("Resend Configuration (after external edits)", "Device Setup", "Send")
+         .addSignalObserver(() -> sendConfiguration(null));
+
+      // The device is not queried, what we wrote last time is assumed to still be there.
+      KeylabConfiguration deviceState = null;
+
+      if (transferSetting.get().equals(CONFIGURATION_TRANSFER_CHANGES))
+      {
+         deviceState = KeylabConfiguration.parse(mWrittenConfigurationSetting.get());
+
+         // The last exit put the encoders back to absolute
+         if (deviceState != null)
+            KeylabSysex.setEncodersToAbsolute(deviceState);
+      }
+
+      sendConfiguration(deviceState);
+   }
+
+   /**
+    * @param deviceState the configuration of the device, or null to send the whole configuration
+    */
+   private void sendConfiguration(final KeylabConfiguration deviceState)
+   {
+      mConfiguration.sendChanges(deviceState,
+         (address, data) -> mOutputQueue.sendSysex(MidiOutQueue.Priority.CONFIGURATION, address, data));
+
+      // Only recorded once the device got it, the extension may exit or the queue be cleared before
+      final String writtenConfiguration = mConfiguration.serialize();
+      mOutputQueue.runWhenSent(MidiOutQueue.Priority.CONFIGURATION,
+         () -> mWrittenConfigurationSetting.set(writtenConfiguration));
+      mOutputQueue.flush();
+   }
+
    @Override
    public void exit()
    {
-      KeylabSysex.resetToAbsoluteMode(getMidiOutPort(0));
+      mOutputQueue.flushAll();
+
+      // Sends directly, there is no time left to pace the messages.
+      final KeylabConfiguration exitConfiguration = new KeylabConfiguration(mConfiguration);
+      KeylabSysex.setEncodersToAbsolute(exitConfiguration);
+
+      final MidiOut midiOut = getMidiOutPort(0);
+      exitConfiguration.sendChanges(mConfiguration, (address, data) -> midiOut.sendSysex(data));
+
+      TickScheduler.release(getHost());
    }
 
    @Override
@@ -785,7 +850,8 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
          .addHex(" 00 F7")
          .array();
 
-      sendSysex(data);
+      mOutputQueue.sendSysex(MidiOutQueue.Priority.DISPLAY, TEXT_ADDRESS, data);
+      mOutputQueue.flush();
    }
 
    void setButtonLightExclusive(final int index)
@@ -800,7 +866,9 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
    {
       final int value = on ? 1 : 0;
       final String header = "F0 00 20 6B 7F 42 02 00 00 ";
-      sendSysex(SysexBuilder.fromHex(header).addByte(BUTTONS_SYSEX[index]).addByte(value).addHex("F7").array());
+      mOutputQueue.sendSysex(MidiOutQueue.Priority.LED, BUTTON_LIGHT_ADDRESS + index,
+         SysexBuilder.fromHex(header).addByte(BUTTONS_SYSEX[index]).addByte(value).addHex("F7").array());
+      mOutputQueue.flush();
    }
 
    public void sendSysex(final byte[] data)
@@ -869,6 +937,10 @@ public class ArturiaKeylabControllerExtension extends ControllerExtension
    }
 
    private final List<Entry> mCCActions = new ArrayList<>();
+   private MidiOutQueue mOutputQueue;
+   private SysexRouter mSysexRouter;
+   private KeylabConfiguration mConfiguration;
+   private SettableStringValue mWrittenConfigurationSetting;
    private NoteInput mNoteInput;
    private final boolean mHasDrumPads;
    private final int mNumberOfKeys;
@@ -0,0 +1,139 @@
+package com.bitwig.extensions.controllers.arturia.keylab.mk1;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Values of the control parameters of the KeyLab, in the order they are sent. Each value is set by a single sysex
+ * message addressing one parameter of one control, so two configurations can be compared and only the parameters
+ * that differ need to be sent.
+ */
+class KeylabConfiguration
+{
+   private static final String FORMAT_PREFIX = "1;";
+
+   /** Characters per entry of the serialized form: 4 hex digits of address, 2 of value. */
+   private static final int ENTRY_LENGTH = 6;
+
+   @FunctionalInterface
+   interface ParameterSender
+   {
+      /**
+       * @param address the parameter address, a newer value for the same address supersedes an older one
+       */
+      void send(int address, byte[] data);
+   }
+
+   KeylabConfiguration()
+   {
+      super();
+   }
+
+   KeylabConfiguration(final KeylabConfiguration other)
+   {
+      super();
+      mValues.putAll(other.mValues);
+   }
+
+   /**
+    * Parses a configuration stored with {@link #serialize()}.
+    *
+    * @return the configuration or null if the text is not a valid configuration
+    */
+   static KeylabConfiguration parse(final String text)
+   {
+      if (text == null || !text.startsWith(FORMAT_PREFIX))
+         return null;
+
+      final int length = text.length() - FORMAT_PREFIX.length();
+      if (length % ENTRY_LENGTH != 0)
+         return null;
+
+      final KeylabConfiguration configuration = new KeylabConfiguration();
+
+      try
+      {
+         for (int pos = FORMAT_PREFIX.length(); pos < text.length(); pos += ENTRY_LENGTH)
+         {
+            final int address = Integer.parseInt(text, pos, pos + 4, 16);
+            final int value = Integer.parseInt(text, pos + 4, pos + ENTRY_LENGTH, 16);
+            configuration.mValues.put(address, value);
+         }
+      }
+      catch (final NumberFormatException e)
+      {
+         return null;
+      }
+
+      return configuration;
+   }
+
+   String serialize()
+   {
+      final StringBuilder sb = new StringBuilder(FORMAT_PREFIX.length() + mValues.size() * ENTRY_LENGTH);
+      sb.append(FORMAT_PREFIX);
+
+      for (final Map.Entry<Integer, Integer> entry : mValues.entrySet())
+         sb.append(String.format("%04X%02X", entry.getKey(), entry.getValue()));
+
+      return sb.toString();
+   }
+
+   /** Length of the serialized form of a configuration with the given number of parameters. */
+   static int serializedLength(final int parameterCount)
+   {
+      return FORMAT_PREFIX.length() + parameterCount * ENTRY_LENGTH;
+   }
+
+   int size()
+   {
+      return mValues.size();
+   }
+
+   /**
+    * @param parameter the parameter of the control, 1 is the mode, the meaning of the others depends on the mode
+    */
+   void set(final int parameter, final int control, final int value)
+   {
+      mValues.put(address(parameter, control), value);
+   }
+
+   /**
+    * Sends the parameters whose value differs from the device state, all of them if the device state is unknown.
+    *
+    * @param deviceState the configuration of the device, or null if it is unknown
+    * @return the number of parameters sent
+    */
+   int sendChanges(final KeylabConfiguration deviceState, final ParameterSender sender)
+   {
+      int count = 0;
+
+      for (final Map.Entry<Integer, Integer> entry : mValues.entrySet())
+      {
+         final int address = entry.getKey();
+         final int value = entry.getValue();
+
+         if (deviceState != null && deviceState.mValues.getOrDefault(address, -1) == value)
+            continue;
+
+         sender.send(address, createSysex(address >> 8, address & 0xFF, value));
+         ++count;
+      }
+
+      return count;
+   }
+
+   private static int address(final int parameter, final int control)
+   {
+      return parameter << 8 | control;
+   }
+
+   private static byte[] createSysex(final int parameter, final int control, final int value)
+   {
+      return new byte[] {(byte)0xF0, 0x00, 0x20, 0x6B, 0x7F, 0x42, 0x02, 0x00, (byte)parameter, (byte)control,
+         (byte)value, (byte)0xF7};
+   }
+
+   /** Parameter address to value, in the order the parameters were set. */
+   private final Map<Integer, Integer> mValues = new LinkedHashMap<>();
+}
@@ -42,6 +42,7 @@ import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.SysexRouter;
 
 public abstract class ArturiaKeylabMkII extends ControllerExtension
 {
@@ -61,6 +62,10 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
 
    final int LAUNCHER_SCENES = 8;
 
+   private static final String ENTER_DAW_MODE = "F0 00 20 6B 7F 42 02 00 00 15 00 F7";
+
+   private static final String EXIT_DAW_MODE = "F0 00 20 6B 7F 42 02 00 00 15 7F F7";
+
    public ArturiaKeylabMkII(
       final ArturiaKeylabMkIIControllerExtensionDefinition definition,
       final ControllerHost host)
@@ -185,6 +190,9 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
       mDevice.presetCreator().markInterested();
 
       host.getMidiInPort(1).setMidiCallback((ShortMidiMessageReceivedCallback)msg -> onMidi(msg));
+      mSysexRouter = new SysexRouter()
+         .register(ENTER_DAW_MODE, message -> enterDawMode())
+         .register(EXIT_DAW_MODE, message -> exitDawMode());
       host.getMidiInPort(1).setSysexCallback(this::onSysex);
 
       sendSysex(
@@ -520,30 +528,30 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
 
    private void onSysex(final String s)
    {
-      final String ENTER_DAW_MODE = "f000206b7f420200001500f7";
-      final String EXIT_DAW_MODE = "f000206b7f42020000157ff7";
+      mSysexRouter.dispatch(s);
 
-      if (s.equals(ENTER_DAW_MODE))
-      {
-         mDawMode = true;
-         getHost().scheduleTask(() ->
-         {
-            mHardwareSurface.invalidateHardwareOutputState();
-            mDAWLayer.activate();
+      updateIndications();
+   }
 
-            if (mShouldReactivateMultiMode) mMultiLayer.activate();
-         }, 150);
-      }
-      else if (s.equals(EXIT_DAW_MODE))
+   private void enterDawMode()
+   {
+      mDawMode = true;
+      getHost().scheduleTask(() ->
       {
-         mDawMode = false;
-         mShouldReactivateMultiMode = mMultiLayer.isActive();
-         mDAWLayer.deactivate();
-         mMultiLayer.deactivate();
-         mBrowserLayer.deactivate();
-      }
+         mHardwareSurface.invalidateHardwareOutputState();
+         mDAWLayer.activate();
 
-      updateIndications();
+         if (mShouldReactivateMultiMode) mMultiLayer.activate();
+      }, 150);
+   }
+
+   private void exitDawMode()
+   {
+      mDawMode = false;
+      mShouldReactivateMultiMode = mMultiLayer.isActive();
+      mDAWLayer.deactivate();
+      mMultiLayer.deactivate();
+      mBrowserLayer.deactivate();
    }
 
    private void repeatRewind()
@@ -850,6 +858,7 @@ public abstract class ArturiaKeylabMkII extends ControllerExtension
    private MasterTrack mMasterTrack;
 
    private boolean mDawMode = true;
+   private SysexRouter mSysexRouter;
 
    private SceneBank mSceneBank;
 
@@ -5,6 +5,7 @@ import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.MidiIn;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.Transport;
+import com.bitwig.extensions.framework.SysexRouter;
 
 public class EDrumControllerExtension extends ControllerExtension
 {
@@ -21,6 +22,7 @@ public class EDrumControllerExtension extends ControllerExtension
       final ControllerHost host = getHost();
 
       mTransport = host.createTransport();
+      mSysexRouter = new SysexRouter().registerMmcTransport(mTransport);
 
       final MidiIn midiIn = host.getMidiInPort(0);
       midiIn.setSysexCallback(this::onSysex);
@@ -30,24 +32,7 @@ public class EDrumControllerExtension extends ControllerExtension
 
    private void onSysex(final String data)
    {
-      switch (data)
-      {
-      case "f07f7f0605f7":
-         mTransport.rewind();
-         break;
-      case "f07f7f0604f7":
-         mTransport.fastForward();
-         break;
-      case "f07f7f0601f7":
-         mTransport.stop();
-         break;
-      case "f07f7f0602f7":
-         mTransport.play();
-         break;
-      case "f07f7f0606f7":
-         mTransport.record();
-         break;
-      }
+      mSysexRouter.dispatch(data);
    }
 
    @Override
@@ -63,4 +48,5 @@ public class EDrumControllerExtension extends ControllerExtension
    }
 
    private Transport mTransport;
+   private SysexRouter mSysexRouter;
 }
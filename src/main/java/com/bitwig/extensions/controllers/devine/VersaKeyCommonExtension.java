@@ -14,6 +14,7 @@ import com.bitwig.extension.controller.api.RemoteControl;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.SysexRouter;
 
 public class VersaKeyCommonExtension extends ControllerExtension
 {
@@ -66,6 +67,7 @@ public class VersaKeyCommonExtension extends ControllerExtension
       host.getMidiOutPort(0).sendSysex(EzCreatorCommon.INIT_SYSEX);
 
       mTransport      = host.createTransport();
+      mSysexRouter    = new SysexRouter().registerMmcTransport(mTransport);
       mTrackCursor    = host.createCursorTrack(modelNameL, modelName, 0, 0, true);
       mCursorDevice   = mTrackCursor.createCursorDevice();
       mRemoteControls = mCursorDevice.createCursorRemoteControlsPage(modelName, mNumKnobs, "");
@@ -128,28 +130,12 @@ public class VersaKeyCommonExtension extends ControllerExtension
 
    private void onSysex(final String data)
    {
-      switch (data)
-      {
-         case "f07f7f0605f7":
-            mTransport.rewind();
-            break;
-         case "f07f7f0604f7":
-            mTransport.fastForward();
-            break;
-         case "f07f7f0601f7":
-            mTransport.stop();
-            break;
-         case "f07f7f0602f7":
-            mTransport.play();
-            break;
-         case "f07f7f0606f7":
-            mTransport.record();
-            break;
-      }
+      mSysexRouter.dispatch(data);
    }
 
    private final int mNumKnobs;
    private Transport                mTransport;
+   private SysexRouter              mSysexRouter;
    private CursorTrack              mTrackCursor;
    private PinnableCursorDevice     mCursorDevice;
    private CursorRemoteControlsPage mRemoteControls;
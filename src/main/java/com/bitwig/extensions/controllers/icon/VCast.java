@@ -36,6 +36,8 @@ import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.MotorFaderOutput;
+import com.bitwig.extensions.framework.TickScheduler;
 
 public class VCast extends ControllerExtension
 {
@@ -52,6 +54,8 @@ public class VCast extends ControllerExtension
 
       mMidiIn = host.getMidiInPort(0);
       mMidiOut = host.getMidiOutPort(0);
+      mMotorFaderOutput = new MotorFaderOutput(host, mMidiOut, MOTOR_FADER_MIN_UPDATE_INTERVAL_MS);
+      mMotorFader = mMotorFaderOutput.createFader(0);
 
       mTransport = host.createTransport();
       mCursorTrack = host.createCursorTrack(2, 0);
@@ -72,7 +76,8 @@ public class VCast extends ControllerExtension
    @Override
    public void exit()
    {
-
+      mMotorFaderOutput.flush();
+      TickScheduler.release(getHost());
    }
 
    @Override
@@ -81,14 +86,6 @@ public class VCast extends ControllerExtension
       mHardwareSurface.updateHardware();
 
       mPlatformDisplay.flush();
-
-      if (mFaderPosition != mFaderPositionBefore)
-      {
-         final int data1 = mFaderPosition & 0x7f;
-         final int data2 = (mFaderPosition & 0x3f80) >> 7;
-         mMidiOut.sendMidi(0xE0, data1, data2);
-         mFaderPositionBefore = mFaderPosition;
-      }
    }
 
    private void initButtons()
@@ -174,7 +171,7 @@ public class VCast extends ControllerExtension
    private void initVuMeter()
    {
       mVuMeterLight = mHardwareSurface.createMultiStateHardwareLight("vuMeter");
-      mVuMeterLight.state().setValue(new VuMeterState());
+      mVuMeterLight.state().setValue(VuMeterState.of(0));
       mVuMeterLight.state().onUpdateHardware((state) -> {
          if (!(state instanceof VuMeterState))
          {
@@ -182,7 +179,16 @@ public class VCast extends ControllerExtension
          }
 
          final VuMeterState s = (VuMeterState) state;
-         mMidiOut.sendMidi(0xD0, 0x30 + s.value(), 0x00);
+         if (s.value() != mVuMeterLevelSent)
+         {
+            mMidiOut.sendMidi(0xD0, 0x30 + s.value(), 0x00);
+            mVuMeterLevelSent = s.value();
+         }
+      });
+
+      mVuMeterModel = new VuMeterModel(TickScheduler.forHost(getHost()), (level) -> {
+         mVuMeterLight.state().setValue(VuMeterState.of(level));
+         getHost().requestFlush();
       });
    }
 
@@ -293,7 +299,7 @@ public class VCast extends ControllerExtension
    {
       final ControllerHost host = getHost();
 
-      mCursorTrack.volume().value().addValueObserver((value) -> mFaderPosition = (int) (value * 16383));
+      mCursorTrack.volume().value().addValueObserver(mMotorFader::setValue);
 
       final PinnableCursorDevice cursorDevice = mCursorTrack.createCursorDevice();
       final CursorRemoteControlsPage remoteControlsPage = cursorDevice.createCursorRemoteControlsPage(8);
@@ -357,7 +363,7 @@ public class VCast extends ControllerExtension
       mCursorTrack.addVuMeterObserver(VuMeterState.MAX_VALUE + 1,
          -1,
          false,
-         (level) -> mVuMeterLight.state().setValue(new VuMeterState(level)));
+         mVuMeterModel::setInput);
 
 
       // Buttons
@@ -543,23 +549,27 @@ public class VCast extends ControllerExtension
       mBaseLayer.bindToggle(button, deviceBank.getDevice(0).isEnabled()::toggle, deviceBank.getDevice(0).isEnabled());
    }
 
-   private static class VuMeterState extends InternalHardwareLightState
+   /** One shared instance per level, so a meter update never allocates. */
+   private static final class VuMeterState extends InternalHardwareLightState
    {
-      public VuMeterState()
+      public static VuMeterState of(final int value)
       {
+         return STATES[Math.max(0, Math.min(MAX_VALUE, value))];
       }
 
-      public VuMeterState(final int value)
+      private VuMeterState(final int value)
       {
-         setValue(value);
+         mValue = value;
+
+         final double blend = (double) value / MAX_VALUE;
+         mVisualState = HardwareLightVisualState.createForColor(
+            Color.mix(Color.whiteColor(), Color.blackColor(), blend));
       }
 
       @Override
       public HardwareLightVisualState getVisualState()
       {
-         final double blend = (double) mValue / MAX_VALUE;
-         final Color color = Color.mix(Color.whiteColor(), Color.blackColor(), blend);
-         return HardwareLightVisualState.createForColor(color);
+         return mVisualState;
       }
 
       @Override
@@ -573,25 +583,36 @@ public class VCast extends ControllerExtension
          return other.value() == value();
       }
 
-      public int value()
+      @Override
+      public int hashCode()
       {
          return mValue;
       }
 
-      public void setValue(final int value)
+      public int value()
       {
-         if (0 <= value && value <= MAX_VALUE)
-         {
-            mValue = value;
-         }
+         return mValue;
       }
 
       public static final int MAX_VALUE = 12;
-      private int mValue = 0;
+
+      private static final VuMeterState[] STATES = new VuMeterState[MAX_VALUE + 1];
+
+      static
+      {
+         for (int i = 0; i <= MAX_VALUE; ++i)
+            STATES[i] = new VuMeterState(i);
+      }
+
+      private final int mValue;
+      private final HardwareLightVisualState mVisualState;
    }
 
    private static final int N_CHANNELS = 13;
 
+   /** Keeps dense volume automation from saturating the MIDI link. */
+   private static final int MOTOR_FADER_MIN_UPDATE_INTERVAL_MS = 20;
+
    private static final UUID dynamicsDeviceID = UUID.fromString("22e785a2-a187-41e9-a0f2-66343694014c");
    private static final UUID pitchShifterDeviceID = UUID.fromString("384fe469-6023-4f69-9560-e0c2eec2da49");
    private static final String autoTuneDeviceID = "00C2B33FE2034457BA45E1BED447B693";
@@ -618,6 +639,7 @@ public class VCast extends ControllerExtension
    private HardwareButton mRewindButton, mFastForwardButton, mLoopButton, mStopButton, mPlayButton, mRecButton;
    private HardwareSlider mSlider;
    private MultiStateHardwareLight mVuMeterLight;
+   private VuMeterModel mVuMeterModel;
 
    protected Layers mLayers;
    private Layer mBaseLayer;
@@ -627,5 +649,8 @@ public class VCast extends ControllerExtension
 
    // Hardware output cache
 
-   private int mFaderPosition = 0, mFaderPositionBefore = -1;
+   private MotorFaderOutput mMotorFaderOutput;
+
+   private MotorFaderOutput.Fader mMotorFader;
+   private int mVuMeterLevelSent = -1;
 }
@@ -4,16 +4,21 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 
-import com.bitwig.extension.api.util.midi.SysexBuilder;
 import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.HardwareSurface;
 import com.bitwig.extension.controller.api.HardwareTextDisplay;
+import com.bitwig.extensions.framework.SysexFrameWriter;
 
 /**
  * Built-in display of the VCast and VCast Pro controllers
  */
 class VCastDisplay
 {
+   private static final int[][] SYSEX_OFFSETS = {{0x22, 0x00}, {0x32, 0x00}, {0x52, 0x00}, {0x42, 0x00}, {0x42, 0x06}};
+
+   /** Longest payload after the header: the offset and the 20 bytes of the first line. */
+   private static final int MAX_SYSEX_PAYLOAD = 2 + 20;
+
    public VCastDisplay(final ControllerHost host, final HardwareSurface hardwareSurface)
    {
       mHost = host;
@@ -57,8 +62,8 @@ class VCastDisplay
    {
       final int nBytes = line == 0 ? 20 : line == 1 ? 7 : 6;
       final byte[] bytes = convertForSysex(text, nBytes);
-      final String[] sysexOffsets = {"22 00", "32 00", "52 00", "42 00", "42 06"};
-      return SysexBuilder.fromHex("f0 00 00 66 14").addHex(sysexOffsets[line]).add(bytes).terminate();
+      final int[] offset = SYSEX_OFFSETS[line];
+      return mSysexFrame.begin().addByte(offset[0]).addByte(offset[1]).add(bytes).terminate();
    }
 
    private byte[] convertForSysex(final String s, final int nBytes)
@@ -102,4 +107,6 @@ class VCastDisplay
    private Charset mCharset;
 
    private HardwareTextDisplay mDisplay;
+
+   private final SysexFrameWriter mSysexFrame = SysexFrameWriter.fromHex("f0 00 00 66 14", MAX_SYSEX_PAYLOAD);
 }
@@ -0,0 +1,74 @@
+package com.bitwig.extensions.controllers.icon;
+
+import java.util.function.IntConsumer;
+
+import com.bitwig.extensions.framework.TickScheduler;
+
+/**
+ * Meter ballistics for a single LED meter: rising levels are shown immediately and held for a moment, then the
+ * displayed level falls back by one step per tick until it reaches the current input level. The listener is only
+ * called when the displayed level changes.
+ */
+class VuMeterModel
+{
+   /** How long a peak is held before it starts to fall. */
+   private static final int HOLD_TIME_MS = 300;
+
+   /** Time it takes to fall by one step. */
+   private static final int DECAY_STEP_MS = 50;
+
+   public VuMeterModel(final TickScheduler scheduler, final IntConsumer listener)
+   {
+      mScheduler = scheduler;
+      mListener = listener;
+   }
+
+   public void setInput(final int level)
+   {
+      mInput = level;
+
+      if (level >= mDisplayed)
+      {
+         mHoldUntil = mScheduler.getTime() + HOLD_TIME_MS;
+         setDisplayed(level);
+      }
+      else if (mDecay == null)
+      {
+         mDecay = mScheduler.subscribe(DECAY_STEP_MS, this::decay);
+      }
+   }
+
+   public int getDisplayed()
+   {
+      return mDisplayed;
+   }
+
+   private void decay()
+   {
+      if (mDisplayed <= mInput)
+      {
+         mDecay.cancel();
+         mDecay = null;
+         return;
+      }
+
+      if (mScheduler.getTime() >= mHoldUntil)
+         setDisplayed(mDisplayed - 1);
+   }
+
+   private void setDisplayed(final int level)
+   {
+      if (level != mDisplayed)
+      {
+         mDisplayed = level;
+         mListener.accept(level);
+      }
+   }
+
+   private final TickScheduler mScheduler;
+   private final IntConsumer mListener;
+   private TickScheduler.Subscription mDecay;
+   private int mInput;
+   private int mDisplayed;
+   private long mHoldUntil;
+}
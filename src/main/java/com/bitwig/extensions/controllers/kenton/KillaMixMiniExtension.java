@@ -1,5 +1,6 @@
 package com.bitwig.extensions.controllers.kenton;
 
+import java.util.Arrays;
 import java.util.function.DoubleConsumer;
 
 import com.bitwig.extension.api.Color;
@@ -51,6 +52,9 @@ public class KillaMixMiniExtension extends ControllerExtension
    private static final int PREV_PAGE_BUTTON        = 4;
    private static final int NEXT_PAGE_BUTTON        = 5;
 
+   /** Last sent value of a control whose state on the device is unknown. */
+   private static final int UNKNOWN_VALUE           = -1;
+
    protected KillaMixMiniExtension(final KillaMixMiniExtensionDefinition definition, final ControllerHost host)
    {
       super(definition, host);
@@ -59,6 +63,9 @@ public class KillaMixMiniExtension extends ControllerExtension
    @Override
    public void init()
    {
+      Arrays.fill(mSentLedValues, UNKNOWN_VALUE);
+      Arrays.fill(mSentButtonValues, UNKNOWN_VALUE);
+
       initHardwareSurface();
 
       updateActiveLayer();
@@ -125,7 +132,9 @@ public class KillaMixMiniExtension extends ControllerExtension
       // we flush/resend the current state to the buttons again, after they have been pressed
       for (int i = 0; i < NUM_DEVICE_KNOBS; i++)
       {
+         final int buttonIndex = i;
          mButtons[i].isPressed().addValueObserver((boolean b) -> {
+            mSentButtonValues[buttonIndex] = UNKNOWN_VALUE;
             getHost().requestFlush();
          });
       }
@@ -382,7 +391,11 @@ public class KillaMixMiniExtension extends ControllerExtension
          mLedValues[knobIndex] = 0;
       }
 
-      updateDeviceEncoder(knobCC, mLedValues[knobIndex]);
+      if(mLedValues[knobIndex] != mSentLedValues[knobIndex])
+      {
+         mSentLedValues[knobIndex] = mLedValues[knobIndex];
+         updateDeviceEncoder(knobCC, mLedValues[knobIndex]);
+      }
    }
 
    private void updateDeviceEncoder(int knobCC, int midiValue)
@@ -394,19 +407,20 @@ public class KillaMixMiniExtension extends ControllerExtension
    {
       for(int i = 0; i < NUM_KNOBS_AND_BUTTONS; i++)
       {
-         updateDeviceButtonLED(i+BUTTON_CC_BASE, mLEDs[i].isOn().currentValue());
+         updateDeviceButtonLED(i, mLEDs[i].isOn().currentValue());
       }
    }
 
-   private void updateDeviceButtonLED(int buttonCC, boolean isOn)
+   private void updateDeviceButtonLED(int buttonIndex, boolean isOn)
    {
-      if(isOn)
-      {
-         sendMidiCC(0, buttonCC, 127);
-      }
-      else
+      final int buttonCC = buttonIndex + BUTTON_CC_BASE;
+      final int value    = isOn ? 127 : 0;
+
+      // pressing the button resets the sent value, since the hardware toggles the LED by itself
+      if(value != mSentButtonValues[buttonIndex])
       {
-         sendMidiCC(0, buttonCC, 0);
+         mSentButtonValues[buttonIndex] = value;
+         sendMidiCC(0, buttonCC, value);
       }
    }
 
@@ -439,4 +453,8 @@ public class KillaMixMiniExtension extends ControllerExtension
    private final HardwareButton[]       mButtons   = new HardwareButton[9];
    private final OnOffHardwareLight[]   mLEDs      = new OnOffHardwareLight[9];
    private final int[]                  mLedValues = new int[9];
+
+   // last values sent to the device, UNKNOWN_VALUE forces the next flush to send
+   private final int[]                  mSentLedValues    = new int[9];
+   private final int[]                  mSentButtonValues = new int[9];
 }
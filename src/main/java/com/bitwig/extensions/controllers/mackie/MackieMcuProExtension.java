@@ -27,12 +27,14 @@ import com.bitwig.extension.controller.api.PinnableCursorDevice;
 import com.bitwig.extension.controller.api.Project;
 import com.bitwig.extension.controller.api.RelativeHardwareKnob;
 import com.bitwig.extension.controller.api.SettableBooleanValue;
+import com.bitwig.extension.controller.api.SettableRangedValue;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.controllers.mackie.bindings.FaderBinding;
 import com.bitwig.extensions.controllers.mackie.devices.DeviceTracker;
 import com.bitwig.extensions.controllers.mackie.devices.Devices;
 import com.bitwig.extensions.controllers.mackie.devices.EqDevice;
+import com.bitwig.extensions.controllers.mackie.display.MeterEngine;
 import com.bitwig.extensions.controllers.mackie.display.TimeCodeLed;
 import com.bitwig.extensions.controllers.mackie.display.VuMode;
 import com.bitwig.extensions.controllers.mackie.layer.LayerConfiguration;
@@ -46,14 +48,21 @@ import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.controllers.mackie.value.TrackModeValue;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+import com.bitwig.extensions.framework.MotorFaderOutput;
+import com.bitwig.extensions.framework.SysexRouter;
+import com.bitwig.extensions.framework.TickScheduler;
 import com.bitwig.extensions.remoteconsole.RemoteConsole;
+import com.bitwig.extensions.remoteconsole.RemoteConsole.Level;
 
 public class MackieMcuProExtension extends ControllerExtension {
 
-	private static final String SYSEX_DEVICE_RELOAD = "f0000066140158595a";
+	private static final String SYSEX_DEVICE_RELOAD = "F0 00 00 66 14 01 58 59 5A ...";
 	private static final double[] FFWD_SPEEDS = { 0.0625, 0.25, 1.0, 4.0 };
 	private static final double[] FFWD_SPEEDS_SHIFT = { 0.25, 1.0, 4.0, 16.0 };
 	private static final long[] FFWD_TIMES = { 500, 1000, 2000, 3000, 4000 };
+	private static final int DEFAULT_METER_MESSAGES_PER_TICK = 16;
 
 	private Layers layers;
 	private Layer mainLayer;
@@ -64,6 +73,9 @@ public class MackieMcuProExtension extends ControllerExtension {
 	private Application application;
 	private Project project;
 	private MidiOut midiOut;
+	/** Output queue of the main unit, owned by the main section. */
+	private MidiOutQueue outputQueue;
+	private MotorFaderOutput masterFaderOutput;
 	private MidiIn midiIn;
 	private CursorTrack cursorTrack;
 	private TrackBank mixerTrackBank;
@@ -82,6 +94,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 
 	private VuMode vuMode = VuMode.LED;
 	private final int nrOfExtenders;
+	private MeterEngine meterEngine;
 	private DelayAction delayedAction = null; // TODO this needs to be a queue
 	private PinnableCursorDevice cursorDevice;
 
@@ -123,11 +136,14 @@ public class MackieMcuProExtension extends ControllerExtension {
 
 		midiOut = host.getMidiOutPort(0);
 		midiIn = host.getMidiInPort(0);
-		ledDisplay = new TimeCodeLed(midiOut);
 
+		initMeterEngine();
+		// The main section owns the output queue of the main unit, everything else sent to it goes through there
+		initChannelSections();
+		outputQueue = mainSection.getOutputQueue();
+		ledDisplay = new TimeCodeLed(outputQueue);
 		initJogWheel();
 		initMasterSection();
-		initChannelSections();
 		intiVPotModes();
 
 		initTransport();
@@ -136,7 +152,9 @@ public class MackieMcuProExtension extends ControllerExtension {
 
 		initCursorSection();
 
-		midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi0(msg));
+		if (RemoteConsole.out.isEnabled(Level.TRACE)) {
+			midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi0(msg));
+		}
 
 		setUpMidiSysExCommands();
 		mainLayer.activate();
@@ -145,13 +163,24 @@ public class MackieMcuProExtension extends ControllerExtension {
 		sections.forEach(MixControl::clearAll);
 		ledDisplay.setAssignment("PN", false);
 		ledDisplay.refreschMode();
-		host.scheduleTask(this::handlePing, 100);
+		TickScheduler.forHost(host).subscribe(100, this::handlePing);
 //		final Action[] as = application.getActions();
 //		for (final Action action : as) {
 //			RemoteConsole.out.println("ACTION > [{}]", action.getId());
 //		}
 	}
 
+	private void initMeterEngine() {
+		meterEngine = new MeterEngine(TickScheduler.forHost(host), DEFAULT_METER_MESSAGES_PER_TICK);
+		final SettableRangedValue meterBudget = host.getPreferences().getNumberSetting("Meter Messages per Tick",
+				"Meters", 1, 64, 1, "", DEFAULT_METER_MESSAGES_PER_TICK);
+		meterBudget.addRawValueObserver(value -> meterEngine.setMessagesPerTick((int) value));
+	}
+
+	public MeterEngine getMeterEngine() {
+		return meterEngine;
+	}
+
 	public void initChannelSections() {
 		mainSection = new MixControl(this, midiIn, midiOut, 0, SectionType.MAIN);
 		sections.add(mainSection);
@@ -195,7 +224,6 @@ public class MackieMcuProExtension extends ControllerExtension {
 			holdAction.execute();
 		}
 		sections.forEach(MixControl::notifyBlink);
-		host.scheduleTask(this::handlePing, 100);
 	}
 
 	private void initJogWheel() {
@@ -250,7 +278,8 @@ public class MackieMcuProExtension extends ControllerExtension {
 		final AbsoluteHardwareKnob masterFader = surface.createAbsoluteHardwareKnob("MASTER_FADER_");
 		masterFader.setAdjustValueMatcher(midiIn.createAbsolutePitchBendValueMatcher(8));
 		masterFader.addBinding(masterTrack.volume());
-		final MotorFader masterFaderResponse = new MotorFader(midiOut, 8);
+		masterFaderOutput = new MotorFaderOutput(getHost(), outputQueue, MotorFader.MIN_UPDATE_INTERVAL_MS);
+		final MotorFader masterFaderResponse = new MotorFader(masterFaderOutput, 8);
 		mainLayer.addBinding(new FaderBinding(masterTrack.volume(), masterFaderResponse));
 
 		final HardwareButton masterTouchButton = surface.createHardwareButton("MASTER_TOUCH");
@@ -260,6 +289,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 				.setActionMatcher(midiIn.createNoteOffActionMatcher(0, NoteOnAssignment.TOUCH_VOLUME.getNoteNo() + 8));
 		masterTouchButton.isPressed().addValueObserver(v -> {
 			// RemoteConsole.out.println("TOUCHED MASTER {}", v);
+			masterFaderResponse.setTouched(v);
 		});
 	}
 
@@ -611,16 +641,16 @@ public class MackieMcuProExtension extends ControllerExtension {
 	}
 
 	private void onMidi0(final ShortMidiMessage msg) {
-		RemoteConsole.out.println(" MIDI ch={} st={} d1={} d2={}", msg.getChannel(), msg.getStatusByte(),
+		RemoteConsole.out.log(Level.TRACE, " MIDI ch={} st={} d1={} d2={}", msg.getChannel(), msg.getStatusByte(),
 				msg.getData1(), msg.getData2());
 	}
 
 	private void setUpMidiSysExCommands() {
+		final SysexRouter sysexRouter = new SysexRouter() //
+				.register(SYSEX_DEVICE_RELOAD, message -> updateAll(message.getData()));
 		midiIn.setSysexCallback(data -> {
-			if (data.startsWith(SYSEX_DEVICE_RELOAD)) {
-				updateAll(data);
-			} else {
-//				RemoteConsole.out.println(" MIDI SYS EX {}", data);
+			if (!sysexRouter.dispatch(data)) {
+				RemoteConsole.out.log(Level.DEBUG, " Unrouted MIDI SYS EX {}", data);
 			}
 		});
 	}
@@ -630,7 +660,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 		sections.forEach(MixControl::fullHardwareUpdate);
 		for (int i = 0; i < lightStatusMap.length; i++) {
 			if (lightStatusMap[i] >= 0) {
-				midiOut.sendMidi(Midi.NOTE_ON, i, lightStatusMap[i]);
+				sendLed(Midi.NOTE_ON, i, lightStatusMap[i]);
 			}
 		}
 	}
@@ -784,7 +814,11 @@ public class MackieMcuProExtension extends ControllerExtension {
 	public void sendLedUpdate(final NoteOnAssignment assingment, final int value) {
 		final int noteNr = assingment.getNoteNo();
 		lightStatusMap[noteNr] = value;
-		midiOut.sendMidi(assingment.getType(), assingment.getNoteNo(), value);
+		sendLed(assingment.getType(), noteNr, value);
+	}
+
+	private void sendLed(final int status, final int noteNr, final int value) {
+		outputQueue.sendMidi(Priority.LED, MidiOutQueue.addressOf(status, noteNr), status, noteNr, value);
 	}
 
 	public Layer getMainLayer() {
@@ -800,6 +834,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 			ledDisplay.clearAll();
 			sections.forEach(MixControl::resetLeds);
 			sections.forEach(MixControl::resetFaders);
+			masterFaderOutput.flush();
 			sections.forEach(MixControl::exitMessage);
 			try {
 				Thread.sleep(300);
@@ -815,6 +850,7 @@ public class MackieMcuProExtension extends ControllerExtension {
 			}
 		}
 		getHost().showPopupNotification(" Exit Mackie MCU Pro");
+		TickScheduler.release(host);
 	}
 
 	public Layers getLayers() {
@@ -832,6 +868,9 @@ public class MackieMcuProExtension extends ControllerExtension {
 	@Override
 	public void flush() {
 		surface.updateHardware();
+		for (final MixControl section : sections) {
+			section.flush();
+		}
 	}
 
 	public Project getProject() {
@@ -2,7 +2,8 @@ package com.bitwig.extensions.controllers.mackie;
 
 import com.bitwig.extension.controller.api.HardwareButton;
 import com.bitwig.extension.controller.api.MidiIn;
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
 
 public enum NoteOnAssignment {
 	PLAY(94), //
@@ -60,8 +61,9 @@ public enum NoteOnAssignment {
 		button.pressedAction().setActionMatcher(midiIn.createNoteOnActionMatcher(channel, notNr));
 	}
 
-	public void send(final MidiOut midiOut, final int value) {
-		midiOut.sendMidi(Midi.NOTE_ON | channel, notNr, value);
+	public void send(final MidiOutQueue outputQueue, final int value) {
+		final int status = Midi.NOTE_ON | channel;
+		outputQueue.sendMidi(Priority.LED, MidiOutQueue.addressOf(status, notNr), status, notNr, value);
 	}
 
 }
@@ -13,6 +13,8 @@ class DeviceParameter {
 	private final RingDisplayType ringDisplayType;
 	private CustomValueConverter customValueConverter = null;
 	private Consumer<Parameter> customResetAction = null;
+	private boolean subscribed = true;
+	private boolean valueAlwaysSubscribed = false;
 
 	public DeviceParameter(final String name, final Parameter parameter, final RingDisplayType ringDisplayType,
 			final double sensitivity) {
@@ -47,6 +49,26 @@ class DeviceParameter {
 		this.customValueConverter = customValueConverter;
 	}
 
+	/**
+	 * Keeps the value subscribed while the page of the parameter is not visible, for values that are read outside of
+	 * the page. Only the displayed value then follows the page.
+	 */
+	public void setValueAlwaysSubscribed(final boolean valueAlwaysSubscribed) {
+		this.valueAlwaysSubscribed = valueAlwaysSubscribed;
+		parameter.value().setIsSubscribed(subscribed || valueAlwaysSubscribed);
+	}
+
+	/**
+	 * Subscribes or unsubscribes the value and the displayed value, which are observed by the parameter page.
+	 */
+	public void setSubscribed(final boolean subscribed) {
+		if (this.subscribed != subscribed) {
+			this.subscribed = subscribed;
+			parameter.value().setIsSubscribed(subscribed || valueAlwaysSubscribed);
+			parameter.value().displayedValue().setIsSubscribed(subscribed);
+		}
+	}
+
 	public void doReset() {
 		if (customResetAction != null) {
 			customResetAction.accept(parameter);
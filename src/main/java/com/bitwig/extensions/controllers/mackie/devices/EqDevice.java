@@ -264,6 +264,8 @@ public class EqDevice implements ControlDevice, DeviceManager {
 		final DeviceParameter parameter = new DeviceParameter(pname, param, RING_TYPES[index % 4],
 				SENSITIVITIES[index % 4]);
 		if (index == 0 || index == 4) {
+			// The band type decides whether the band is enabled, which is shown on every page
+			parameter.setValueAlwaysSubscribed(true);
 			parameter.setCustomResetAction(p -> {
 				p.value().setImmediately(0.0);
 			});
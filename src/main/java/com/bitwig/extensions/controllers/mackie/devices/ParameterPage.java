@@ -46,6 +46,7 @@ public class ParameterPage implements SettableRangedValue {
 	private final List<DoubleConsumer> doulbeValueCallbacks = new ArrayList<>();
 
 	private final List<DeviceParameter> pages = new ArrayList<>();
+	private boolean prefetchNeighbourPages = false;
 
 	public ParameterPage(final int index, final ControlDevice device) {
 
@@ -80,6 +81,28 @@ public class ParameterPage implements SettableRangedValue {
 			pages.add(deviceParameter);
 		}
 		currentParameter = pages.get(device.getCurrentPage());
+		updateSubscriptions(device.getCurrentPage());
+	}
+
+	/**
+	 * Also keep the pages next to the current one subscribed, so their values are already known when navigating
+	 * to them.
+	 */
+	public void setPrefetchNeighbourPages(final boolean prefetch) {
+		prefetchNeighbourPages = prefetch;
+		updateSubscriptions(pages.indexOf(currentParameter));
+	}
+
+	/**
+	 * Only the parameters of the visible page (and its neighbours when prefetching) are subscribed, the host then
+	 * only sends value changes for parameters that can be seen.
+	 */
+	private void updateSubscriptions(final int currentPage) {
+		final int pageCount = pages.size();
+		for (int page = 0; page < pageCount; page++) {
+			final int distance = Math.min(Math.abs(page - currentPage), pageCount - Math.abs(page - currentPage));
+			pages.get(page).setSubscribed(distance == 0 || prefetchNeighbourPages && distance == 1);
+		}
 	}
 
 	public Parameter getParameter(final int pageIndex) {
@@ -118,6 +141,7 @@ public class ParameterPage implements SettableRangedValue {
 
 	public void updatePage(final int currentPage) {
 		currentParameter = pages.get(currentPage);
+		updateSubscriptions(currentPage);
 		resetBindings();
 	}
 
@@ -1,56 +1,83 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.Midi;
 import com.bitwig.extensions.controllers.mackie.StringUtil;
 import com.bitwig.extensions.controllers.mackie.layer.SectionType;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+import com.bitwig.extensions.framework.SysexFrameWriter;
 
 /**
- * Represents 2x56 LCD display on the MCU or an extender.
+ * Represents 2x56 LCD display on the MCU or an extender. Text is written into a shadow frame of the display and
+ * only the changed parts are queued on {@link #flush()}. The output queue belongs to the section of the unit, which
+ * sends it after the display was flushed.
  *
  */
 public class LcdDisplay {
 	private static final int DISPLAY_LEN = 55;
 	private static final int ROW2_START = 56;
+	private static final int FRAME_LEN = 2 * ROW2_START;
+	/**
+	 * Bytes needed for a text write besides the characters themselves (header, offset and terminator). Unchanged
+	 * gaps shorter than this are cheaper to resend than to split into two messages.
+	 */
+	private static final int MESSAGE_OVERHEAD = 8;
+	/** Output queue addresses of the meter setup, a newer setting replaces a queued one. */
+	private static final int METER_MODE_ADDRESS = 0;
+	private static final int METER_ORIENTATION_ADDRESS = 16;
 
-	private final byte[] rowDisplayBuffer = { //
-			(byte) 0XF0, 0, 0, 0X66, 0x14, 0x12, 0, // z: the grid number Zone number 0-3 * 28
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			0, 0, 0, 0, 0, (byte) 247 };
-	private final byte[] segBuffer = { //
-			(byte) 240, 0, 0, 102, 20, 18, 0, // z: the grid number Zone number 0-3 * 28
-			0, 0, 0, 0, 0, 0, 0, // 7: 10 Chars
-			(byte) 247 };
-	public String sysHead;
+	/** What the display should show, written by the text methods. */
+	private final byte[] frame = new byte[FRAME_LEN];
+	/** What was last transmitted to the display, compared against {@link #frame} on {@link #flush()}. */
+	private final byte[] sentFrame = new byte[FRAME_LEN];
+	/** Characters whose content on the display is unknown, they are sent whatever {@link #sentFrame} holds. */
+	private final boolean[] isSentUnknown = new boolean[FRAME_LEN];
+	/** Text writes are encoded into this frame, the header and the text command are written once. */
+	private final SysexFrameWriter textFrame;
+
+	private final byte[] meterOrientationBuffer = { //
+			(byte) 0xF0, 0, 0, 0x66, 0x14, 0x21, 0, (byte) 0xF7 };
+	private final byte[] meterModeBuffer = { //
+			(byte) 0xF0, 0, 0, 0x66, 0x14, 0x20, 0, 0, (byte) 0xF7 };
+	private final byte[] clearLedsBuffer = { //
+			(byte) 0xF0, 0, 0, 0x66, 0x14, 0x62, (byte) 0xF7 };
+	private final byte deviceId;
 
 	private final String[][] lastSendGrids = new String[][] { { "", "", "", "", "", "", "", "" },
 			{ "", "", "", "", "", "", "", "" } };
 	private final String[] lastSentRows = new String[] { "", "" };
 	private final boolean[] fullTextMode = new boolean[] { false, false };
 
-	private final MidiOut midiOut;
+	private final MidiOutQueue outputQueue;
+	private final MeterEngine.Strip[] meterStrips;
+	private final ControllerHost host;
+	private boolean flushRequested;
 
 	private VuMode vuMode;
 
 	/**
-	 * @param driver  the parent
-	 * @param midiOut the MIDI out destination for the Display
-	 * @param type    the main unit or a an extenter
+	 * @param driver      the parent
+	 * @param outputQueue the output queue of the MIDI port of the unit
+	 * @param type        the main unit or a an extenter
+	 * @param meterStrips the LED meters of the unit, the meters are reset through them
 	 */
-	public LcdDisplay(final MackieMcuProExtension driver, final MidiOut midiOut, final SectionType type) {
-		this.midiOut = midiOut;
-		if (type == SectionType.XTENDER) {
-			rowDisplayBuffer[4] = 0x15;
-			segBuffer[4] = 0x15;
-			sysHead = "f0 00 00 66 15 ";
-		} else {
-			sysHead = "f0 00 00 66 14 ";
-		}
+	public LcdDisplay(final MackieMcuProExtension driver, final MidiOutQueue outputQueue, final SectionType type,
+			final MeterEngine.Strip[] meterStrips) {
+		this.outputQueue = outputQueue;
+		this.meterStrips = meterStrips;
+		this.host = driver.getHost();
+		deviceId = type == SectionType.XTENDER ? (byte) 0x15 : (byte) 0x14;
+		meterOrientationBuffer[4] = deviceId;
+		meterModeBuffer[4] = deviceId;
+		clearLedsBuffer[4] = deviceId;
+		textFrame = new SysexFrameWriter(new byte[] { (byte) 0xF0, 0, 0, 0x66, deviceId, 0x12 }, FRAME_LEN + 1);
+		Arrays.fill(frame, (byte) ' ');
+		// The content of the display is unknown at startup, the first flush paints all of it
+		Arrays.fill(isSentUnknown, true);
 		setVuMode(driver.getVuMode());
 	}
 
@@ -58,18 +85,13 @@ public class LcdDisplay {
 		final boolean vuDisabledPrev = isFullModeActive();
 		this.fullTextMode[row] = fullTextMode;
 		final boolean vuDisabledNow = isFullModeActive();
-		if (vuDisabledPrev != vuDisabledNow) {
-			if (fullTextMode) {
-				if (this.vuMode != VuMode.LED) {
-					switchVuMode(VuMode.LED);
-				}
-			} else {
-				if (this.vuMode != VuMode.LED) {
-					switchVuMode(vuMode);
-				}
-			}
+		if (vuDisabledPrev != vuDisabledNow && this.vuMode != VuMode.LED) {
+			// Switching the meters on or off the LCD overwrites it, so everything has to be sent again
+			switchVuMode(fullTextMode ? VuMode.LED : vuMode);
+			refreshDisplay();
+		} else {
+			repaint();
 		}
-		refreshDisplay();
 	}
 
 	private boolean isFullModeActive() {
@@ -84,31 +106,50 @@ public class LcdDisplay {
 		}
 	}
 
+	/**
+	 * Queues the meter setup, it is sent ahead of the meter resets and the text on the next flush.
+	 */
 	private void switchVuMode(final VuMode mode) {
 		switch (mode) {
 		case LED:
-			midiOut.sendSysex(sysHead + "21 01 f7"); // Vertical VU
+			sendMeterOrientation(1); // Vertical VU
 			for (int i = 0; i < 8; i++) {
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
-				midiOut.sendSysex(sysHead + "20 0" + i + " 01 f7");
+				resetMeter(i);
+				sendMeterMode(i, 1, METER_MODE_ADDRESS + i);
 			}
 			break;
 		case LED_LCD_VERTICAL:
-			midiOut.sendSysex(sysHead + "21 01 f7"); // Vertical VU
+			sendMeterOrientation(1); // Vertical VU
 			for (int i = 0; i < 8; i++) {
-				midiOut.sendSysex(sysHead + "20 0" + i + " 03 f7");
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
+				sendMeterMode(i, 3, METER_MODE_ADDRESS + i);
+				resetMeter(i);
 			}
-			midiOut.sendSysex(sysHead + "20 00 03 f7");
+			sendMeterMode(0, 3, MidiOutQueue.NO_ADDRESS);
 			break;
 		case LED_LCD_HORIZONTAL:
-			midiOut.sendSysex(sysHead + "21 00 f7"); // Horizontal VU
+			sendMeterOrientation(0); // Horizontal VU
 			for (int i = 0; i < 8; i++) {
-				midiOut.sendSysex(sysHead + "20 0" + i + " 03 f7");
-				midiOut.sendMidi(Midi.CHANNEL_AT, i << 4, 0);
+				sendMeterMode(i, 3, METER_MODE_ADDRESS + i);
+				resetMeter(i);
 			}
 			break;
 		}
+		frameChanged();
+	}
+
+	private void resetMeter(final int channel) {
+		meterStrips[channel].reset();
+	}
+
+	private void sendMeterOrientation(final int orientation) {
+		meterOrientationBuffer[6] = (byte) orientation;
+		outputQueue.sendSysex(Priority.CONFIGURATION, METER_ORIENTATION_ADDRESS, meterOrientationBuffer);
+	}
+
+	private void sendMeterMode(final int channel, final int mode, final int address) {
+		meterModeBuffer[6] = (byte) channel;
+		meterModeBuffer[7] = (byte) mode;
+		outputQueue.sendSysex(Priority.CONFIGURATION, address, meterModeBuffer);
 	}
 
 	private void resetGrids(final int row) {
@@ -142,12 +183,12 @@ public class LcdDisplay {
 	}
 
 	private void sendFullRow(final int row, final String text) {
-		rowDisplayBuffer[6] = (byte) (row * ROW2_START);
-		final char[] ca = text.toCharArray();
+		final int offset = row * ROW2_START;
+		final int len = text.length();
 		for (int i = 0; i < DISPLAY_LEN; i++) {
-			rowDisplayBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
+			frame[offset + i] = i < len ? (byte) text.charAt(i) : 32;
 		}
-		midiOut.sendSysex(rowDisplayBuffer);
+		frameChanged();
 	}
 
 	public void sendToRow(final int row, final int segment, final String text) {
@@ -161,18 +202,31 @@ public class LcdDisplay {
 	}
 
 	private void sendTextSeg(final int row, final int segment, final String text) {
-		segBuffer[6] = (byte) (row * ROW2_START + segment * 7);
-		final char[] ca = text.toCharArray();
+		final int offset = row * ROW2_START + segment * 7;
+		final int len = text.length();
 		for (int i = 0; i < 6; i++) {
-			segBuffer[i + 7] = i < ca.length ? (byte) ca[i] : 32;
+			frame[offset + i] = i < len ? (byte) text.charAt(i) : 32;
 		}
-		if (segment < 7) {
-			segBuffer[13] = ' ';
+		frame[offset + 6] = ' ';
+		frameChanged();
+	}
+
+	private void frameChanged() {
+		if (!flushRequested) {
+			flushRequested = true;
+			host.requestFlush();
 		}
-		midiOut.sendSysex(segBuffer);
 	}
 
+	/**
+	 * Repaints the display from the current text, the complete display is retransmitted on the next flush.
+	 */
 	public void refreshDisplay() {
+		repaint();
+		Arrays.fill(isSentUnknown, true);
+	}
+
+	private void repaint() {
 		for (int row = 0; row < 2; row++) {
 			if (fullTextMode[row]) {
 				sendFullRow(row, lastSentRows[row]);
@@ -184,6 +238,41 @@ public class LcdDisplay {
 		}
 	}
 
+	/**
+	 * Queues the differences between the current and the last sent frame. Each run of changed characters is sent as
+	 * one write to its offset, runs separated by only a few unchanged characters are coalesced.
+	 */
+	public void flush() {
+		int pos = 0;
+		while (pos < FRAME_LEN) {
+			if (!isChanged(pos)) {
+				pos++;
+				continue;
+			}
+			final int first = pos;
+			int last = pos;
+			for (int i = pos + 1; i < FRAME_LEN && i - last <= MESSAGE_OVERHEAD; i++) {
+				if (isChanged(i)) {
+					last = i;
+				}
+			}
+			sendSpan(first, last);
+			pos = last + 1;
+		}
+		flushRequested = false;
+	}
+
+	private boolean isChanged(final int pos) {
+		return isSentUnknown[pos] || frame[pos] != sentFrame[pos];
+	}
+
+	private void sendSpan(final int first, final int last) {
+		final int len = last - first + 1;
+		textFrame.begin().addByte(first).add(frame, first, len).send(outputQueue, Priority.DISPLAY);
+		System.arraycopy(frame, first, sentFrame, first, len);
+		Arrays.fill(isSentUnknown, first, last + 1, false);
+	}
+
 	public void sendChar(final int index, final char cx) {
 //		segBuffer[6] = (byte) index;
 //		for (int i = 0; i < 6; i++) {
@@ -194,19 +283,22 @@ public class LcdDisplay {
 //		midiOut.sendSysex(SYS_HEAD + "0a 01 f7");
 		// midiOut.sendSysex(SYS_HEAD + "20 00 01 f7");
 		// midiOut.sendMidi(Midi.CHANNEL_AT, 0x08, 0);
-		midiOut.sendMidi(Midi.CC, 0x30, cx);
+		outputQueue.sendMidi(Priority.LED, Midi.CC, 0x30, cx);
 	}
 
 	public void clearAll() {
-		midiOut.sendSysex(sysHead + "62 f7");
+		outputQueue.sendSysex(Priority.LED, clearLedsBuffer);
 		sendToDisplay(0, "");
 		sendToDisplay(1, "");
 	}
 
 	public void exitMessage() {
-		midiOut.sendSysex(sysHead + "62 f7");
+		outputQueue.sendSysex(Priority.LED, clearLedsBuffer);
 		centerText(0, "Bitwig Studio");
 		centerText(1, "... not running ...");
+		flush();
+		// The extension is shutting down, there is no time left for pacing
+		outputQueue.flushAll();
 	}
 
 	public void clearText() {
@@ -0,0 +1,181 @@
+package com.bitwig.extensions.controllers.mackie.display;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+import com.bitwig.extensions.framework.TickScheduler;
+
+/**
+ * Sends the LED meter levels of all strips of the main unit and the extenders.
+ *
+ * The MCU lets its meters fall on its own, so a level only has to be sent when it is above what the unit currently
+ * shows. The engine models that decay for every strip and sends a level when it rises above the modelled display,
+ * or to refresh a steady level before the unit would let it fall, for as long as the level is above zero. A strip
+ * that stops showing a track is cleared by its owner. All strips share one budget of messages per tick,
+ * levels that don't fit are sent on the following ticks, the strips furthest below their level first. Levels go
+ * through the output queue of the unit and are flushed right away, a queued level of a strip is replaced by a newer
+ * one.
+ */
+public class MeterEngine {
+	/**
+	 * Time the unit takes to let a meter fall by one segment. Chosen a bit shorter than the unit actually takes, so
+	 * the model never shows more than the hardware does.
+	 */
+	private static final int DECAY_STEP_MS = 250;
+
+	private static final int TICK_MS = 50;
+
+	private final TickScheduler scheduler;
+	private final List<Strip> strips = new ArrayList<>();
+	private TickScheduler.Subscription tickSubscription;
+	private int messagesPerTick;
+	private int sentInTick;
+
+	public MeterEngine(final TickScheduler scheduler, final int messagesPerTick) {
+		this.scheduler = scheduler;
+		this.messagesPerTick = messagesPerTick;
+	}
+
+	public Strip createStrip(final MidiOutQueue outputQueue, final int index) {
+		final Strip strip = new Strip(outputQueue, index);
+		strips.add(strip);
+		return strip;
+	}
+
+	public void setMessagesPerTick(final int messagesPerTick) {
+		this.messagesPerTick = Math.max(1, messagesPerTick);
+	}
+
+	private void tick() {
+		final long time = scheduler.getTime();
+		sentInTick = 0;
+
+		while (sentInTick < messagesPerTick) {
+			Strip mostBehind = null;
+			int mostBehindBy = 0;
+			for (final Strip strip : strips) {
+				final int behindBy = strip.getBehindBy(time);
+				if (behindBy > mostBehindBy) {
+					mostBehind = strip;
+					mostBehindBy = behindBy;
+				}
+			}
+			if (mostBehind == null) {
+				break;
+			}
+			mostBehind.send(time);
+		}
+
+		if (!isAnyStripRefreshing()) {
+			tickSubscription.cancel();
+			tickSubscription = null;
+			sentInTick = 0;
+		}
+	}
+
+	private boolean isAnyStripRefreshing() {
+		for (final Strip strip : strips) {
+			if (strip.isRefreshing()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void startTicking() {
+		if (tickSubscription == null) {
+			tickSubscription = scheduler.subscribe(TICK_MS, this::tick);
+		}
+	}
+
+	public class Strip {
+		private final MidiOutQueue outputQueue;
+		private final int index;
+		private final int address;
+		private int level;
+		private int sentLevel;
+		private long sentTime;
+
+		private Strip(final MidiOutQueue outputQueue, final int index) {
+			this.outputQueue = outputQueue;
+			this.index = index;
+			this.address = MidiOutQueue.addressOf(Midi.CHANNEL_AT, index << 4);
+		}
+
+		/**
+		 * Sets the level of the meter, it is sent right away if it is above the displayed level and the budget of
+		 * the current tick allows it.
+		 */
+		public void setLevel(final int level) {
+			final long time = scheduler.getTime();
+			this.level = level;
+
+			if (level > getDisplayedLevel(time) && sentInTick < messagesPerTick) {
+				send(time);
+			}
+			if (isRefreshing()) {
+				startTicking();
+			}
+		}
+
+		/**
+		 * The strip doesn't show the track anymore, for example after the bank was scrolled. The meter is left to
+		 * fall until a level of the new track is set.
+		 */
+		public void clearLevel() {
+			level = 0;
+		}
+
+		/**
+		 * Sets the meter of the unit to zero. The reset is queued like a level, so it can't overtake or be overtaken
+		 * by a level of the same strip, and the current level is sent again after it.
+		 */
+		public void reset() {
+			sentLevel = 0;
+			sentTime = scheduler.getTime();
+			outputQueue.sendMidi(Priority.LED, address, Midi.CHANNEL_AT, index << 4, 0);
+			if (level > 0) {
+				startTicking();
+			}
+		}
+
+		/** Forgets what the unit shows, for example after its meters have been reset. */
+		public void invalidate() {
+			sentLevel = 0;
+			sentTime = 0;
+			if (level > 0) {
+				startTicking();
+			}
+		}
+
+		private int getDisplayedLevel(final long time) {
+			return Math.max(0, sentLevel - (int) ((time - sentTime) / DECAY_STEP_MS));
+		}
+
+		/**
+		 * @return by how many segments the unit will show less than the level at the next tick, 0 if nothing has to
+		 *         be sent
+		 */
+		private int getBehindBy(final long time) {
+			if (!isRefreshing()) {
+				return 0;
+			}
+			return Math.max(0, level - getDisplayedLevel(time + TICK_MS));
+		}
+
+		private boolean isRefreshing() {
+			return level > 0;
+		}
+
+		private void send(final long time) {
+			sentLevel = level;
+			sentTime = time;
+			sentInTick++;
+			outputQueue.sendMidi(Priority.LED, address, Midi.CHANNEL_AT, index << 4 | level, 0);
+			outputQueue.flush();
+		}
+	}
+}
@@ -1,11 +1,12 @@
 package com.bitwig.extensions.controllers.mackie.display;
 
-import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.mackie.Midi;
 import com.bitwig.extensions.controllers.mackie.NoteOnAssignment;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
 
 public class TimeCodeLed {
-	private final MidiOut midiOut;
+	private final MidiOutQueue outputQueue;
 	private double position;
 	private boolean precountBeats = false;
 	private int bars = -1;
@@ -28,8 +29,8 @@ public class TimeCodeLed {
 		BEATS, TIME;
 	}
 
-	public TimeCodeLed(final MidiOut midiOut) {
-		this.midiOut = midiOut;
+	public TimeCodeLed(final MidiOutQueue outputQueue) {
+		this.outputQueue = outputQueue;
 	}
 
 	public void toggleMode() {
@@ -43,11 +44,11 @@ public class TimeCodeLed {
 
 	public void refreschMode() {
 		if (mode == Mode.BEATS) {
-			NoteOnAssignment.BEATS_MODE.send(midiOut, 127);
-			NoteOnAssignment.SMPTE_MODE.send(midiOut, 0);
+			NoteOnAssignment.BEATS_MODE.send(outputQueue, 127);
+			NoteOnAssignment.SMPTE_MODE.send(outputQueue, 0);
 		} else {
-			NoteOnAssignment.BEATS_MODE.send(midiOut, 0);
-			NoteOnAssignment.SMPTE_MODE.send(midiOut, 127);
+			NoteOnAssignment.BEATS_MODE.send(outputQueue, 0);
+			NoteOnAssignment.SMPTE_MODE.send(outputQueue, 127);
 		}
 	}
 
@@ -176,35 +177,35 @@ public class TimeCodeLed {
 		final int v1 = value % 10;
 		final int v2 = value / 10 % 10;
 		final int v3 = value / 100 % 10;
-		midiOut.sendMidi(Midi.CC, 64, v1 + 48);
-		midiOut.sendMidi(Midi.CC, 65, v2 + 48);
-		midiOut.sendMidi(Midi.CC, 66, v3 + 48);
+		sendDigit(64, v1 + 48);
+		sendDigit(65, v2 + 48);
+		sendDigit(66, v3 + 48);
 	}
 
 	private void displaySubdivision(final int value) {
 		final int v1 = value % 10;
 		final int v2 = value / 10 % 10;
-		midiOut.sendMidi(Midi.CC, 67, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 68, v2 + 48);
+		sendDigit(67, v1 + 48 + 64);
+		sendDigit(68, v2 + 48);
 	}
 
 	private void displayBeats(final int value) {
 		final int v1 = value % 10;
 		final int v2 = value / 10 % 10;
-		midiOut.sendMidi(Midi.CC, 69, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 70, v2 + 48);
+		sendDigit(69, v1 + 48 + 64);
+		sendDigit(70, v2 + 48);
 	}
 
 	private void displayBars(final int value, final boolean precount) {
 		final int v1 = value % 10;
 		final int v2 = value / 10 % 10;
 		final int v3 = value / 100 % 10;
-		midiOut.sendMidi(Midi.CC, 71, v1 + 48 + 64);
-		midiOut.sendMidi(Midi.CC, 72, v2 + 48);
+		sendDigit(71, v1 + 48 + 64);
+		sendDigit(72, v2 + 48);
 		if (precount) {
-			midiOut.sendMidi(Midi.CC, 73, 45);
+			sendDigit(73, 45);
 		} else {
-			midiOut.sendMidi(Midi.CC, 73, v3 + 48);
+			sendDigit(73, v3 + 48);
 		}
 	}
 
@@ -214,8 +215,8 @@ public class TimeCodeLed {
 		}
 		final char c1 = ch.charAt(0);
 		final char c2 = ch.charAt(1);
-		midiOut.sendMidi(Midi.CC, 75, toCharValue(c1));
-		midiOut.sendMidi(Midi.CC, 74, toCharValue(c2) + 64);
+		sendDigit(75, toCharValue(c1));
+		sendDigit(74, toCharValue(c2) + 64);
 	}
 
 	public void setAssignment(final String ch) {
@@ -224,16 +225,23 @@ public class TimeCodeLed {
 		}
 		final char c1 = ch.charAt(0);
 		final char c2 = ch.charAt(1);
-		midiOut.sendMidi(Midi.CC, 75, toCharValue(c1));
-		midiOut.sendMidi(Midi.CC, 74, toCharValue(c2));
+		sendDigit(75, toCharValue(c1));
+		sendDigit(74, toCharValue(c2));
 	}
 
 	public void clearAll() {
 		for (int cc = 64; cc < 76; cc++) {
-			midiOut.sendMidi(Midi.CC, cc, 0);
+			sendDigit(cc, 0);
 		}
 	}
 
+	/**
+	 * A digit that changes again before it was sent is only sent once.
+	 */
+	private void sendDigit(final int cc, final int value) {
+		outputQueue.sendMidi(Priority.LED, MidiOutQueue.addressOf(Midi.CC, cc), Midi.CC, cc, value);
+	}
+
 	private int toCharValue(final char c) {
 		if (c >= 97) {
 			return c - 96;
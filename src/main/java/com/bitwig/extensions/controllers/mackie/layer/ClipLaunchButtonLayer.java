@@ -11,6 +11,7 @@ import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
 import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.remoteconsole.RemoteConsole;
+import com.bitwig.extensions.remoteconsole.RemoteConsole.Level;
 
 public class ClipLaunchButtonLayer extends Layer {
 
@@ -105,7 +106,7 @@ public class ClipLaunchButtonLayer extends Layer {
 	}
 
 	public void navigateVertical(final int direction) {
-		RemoteConsole.out.println(" ND {}", direction);
+		RemoteConsole.out.log(Level.DEBUG, " ND {}", direction);
 		if (direction > 0) {
 			trackBank.sceneBank().scrollBackwards();
 		} else {
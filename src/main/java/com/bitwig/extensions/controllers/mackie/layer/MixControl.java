@@ -20,6 +20,7 @@ import com.bitwig.extensions.controllers.mackie.display.VuMode;
 import com.bitwig.extensions.controllers.mackie.value.BooleanValueObject;
 import com.bitwig.extensions.controllers.mackie.value.ModifierValueObject;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.MidiOutQueue;
 
 public class MixControl implements LayerStateHandler {
 	private final MixerSectionHardware hwControls;
@@ -131,6 +132,14 @@ public class MixControl implements LayerStateHandler {
 		return hwControls.getMainDisplay();
 	}
 
+	public MidiOutQueue getOutputQueue() {
+		return hwControls.getOutputQueue();
+	}
+
+	public void flush() {
+		hwControls.flush();
+	}
+
 	public void clearAll() {
 		hwControls.getMainDisplay().clearAll();
 	}
@@ -35,8 +35,8 @@ public class MixerLayerGroup {
 		final Layers layers = this.control.getDriver().getLayers();
 		mixerButtonLayer = new Layer(layers, name + "_MIXER_BUTTON_LAYER_" + sectionIndex);
 
-		volumeFaderLayer = new Layer(layers, name + "_VOLUME_FADER_LAYER_" + sectionIndex);
-		volumeEncoderLayer = new Layer(layers, name + "_VOLUME_ENCODER_LAYER_" + sectionIndex);
+		volumeFaderLayer = createVolumeLayer(layers, name + "_VOLUME_FADER_LAYER_" + sectionIndex);
+		volumeEncoderLayer = createVolumeLayer(layers, name + "_VOLUME_ENCODER_LAYER_" + sectionIndex);
 
 		panFaderLayer = new Layer(layers, name + "_PAN_FADER_LAYER_" + sectionIndex);
 		panEncoderLayer = new Layer(layers, name + "_PAN_ENCODER_LAYER_" + sectionIndex);
@@ -49,6 +49,23 @@ public class MixerLayerGroup {
 		sendDisplayConfiguration = new DisplayLayer("MixSend", control);
 	}
 
+	/**
+	 * The meters show the levels of the tracks while a volume layer is active, they stop showing them when it is
+	 * deactivated.
+	 */
+	private Layer createVolumeLayer(final Layers layers, final String name) {
+		return new Layer(layers, name) {
+			@Override
+			protected void onDeactivate() {
+				control.getHwControls().clearMeters();
+			}
+		};
+	}
+
+	private boolean isShowingMeters() {
+		return volumeEncoderLayer.isActive() || volumeFaderLayer.isActive();
+	}
+
 	public DisplayLayer getPanDisplayConfiguration() {
 		return panDisplayConfiguration;
 	}
@@ -116,6 +133,11 @@ public class MixerLayerGroup {
 
 	public void init(final TrackBank trackBank) {
 		final int sectionIndex = control.getHwControls().getSectionIndex();
+		trackBank.scrollPosition().addValueObserver(position -> {
+			if (isShowingMeters()) {
+				control.getHwControls().clearMeters();
+			}
+		});
 		for (int i = 0; i < 8; i++) {
 			final int trackIndex = i + sectionIndex * 8;
 			setUpChannelControl(i, trackBank.getItemAt(trackIndex));
@@ -127,7 +149,7 @@ public class MixerLayerGroup {
 		channel.exists().markInterested();
 
 		channel.addVuMeterObserver(14, -1, true, value -> {
-			if (volumeEncoderLayer.isActive() || volumeFaderLayer.isActive()) {
+			if (isShowingMeters()) {
 				hwControls.sendVuUpdate(index, value);
 			}
 		});
@@ -25,14 +25,30 @@ import com.bitwig.extensions.controllers.mackie.bindings.RingDisplayFixedBinding
 import com.bitwig.extensions.controllers.mackie.bindings.RingDisplayParameterBinding;
 import com.bitwig.extensions.controllers.mackie.bindings.TouchFaderBinding;
 import com.bitwig.extensions.controllers.mackie.display.LcdDisplay;
+import com.bitwig.extensions.controllers.mackie.display.MeterEngine;
 import com.bitwig.extensions.controllers.mackie.display.RingDisplayType;
 import com.bitwig.extensions.controllers.mackie.targets.MotorFader;
 import com.bitwig.extensions.controllers.mackie.targets.RingDisplay;
 import com.bitwig.extensions.framework.AbsoluteHardwareControlBinding;
 import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+import com.bitwig.extensions.framework.MotorFaderOutput;
 import com.bitwig.extensions.framework.RelativeHardwareControlToRangedValueBinding;
 
+/**
+ * The controls of the MCU or an extender. Everything sent to the unit goes through the output queue of its MIDI
+ * port, which is sent on {@link #flush()}.
+ */
 public class MixerSectionHardware {
+	/**
+	 * The MCU receives at DIN MIDI speed, switching the meter mode and repainting the display at once is more than
+	 * it takes without dropping messages. Only the sysex of the configuration and the display is paced, the motor
+	 * and LED messages are short and must not wait behind it.
+	 */
+	private static final double OUTPUT_BYTES_PER_MS = 3;
+	private static final int OUTPUT_BURST_SIZE = 128;
+
 	public static final int REC_INDEX = 0;
 	public static final int SOLO_INDEX = 1;
 	public static final int MUTE_INDEX = 2;
@@ -44,11 +60,13 @@ public class MixerSectionHardware {
 	private final HardwareButton[] encoderPress = new HardwareButton[8];
 	private final HardwareButton[] faderTouch = new HardwareButton[8];
 	private final MotorFader[] motorFaderDest = new MotorFader[8];
+	private MotorFaderOutput faderOutput;
 	private final RingDisplay[] ringDisplays = new RingDisplay[8];
+	private final MeterEngine.Strip[] meterStrips = new MeterEngine.Strip[8];
 	private final HardwareButton buttonMatrix[][] = new HardwareButton[4][8];
 
 	private final MidiIn midiIn;
-	private final MidiOut midiOut;
+	private final MidiOutQueue outputQueue;
 	private final MackieMcuProExtension driver;
 	private final int sectionIndex;
 	private final LcdDisplay mainDisplay;
@@ -56,10 +74,15 @@ public class MixerSectionHardware {
 	public MixerSectionHardware(final MackieMcuProExtension driver, final MidiIn midiIn, final MidiOut midiOut,
 			final int sectionIndex, final SectionType type) {
 		this.midiIn = midiIn;
-		this.midiOut = midiOut;
+		this.outputQueue = new MidiOutQueue(driver.getHost(), midiOut, OUTPUT_BYTES_PER_MS, OUTPUT_BURST_SIZE);
+		this.outputQueue.setPaced(Priority.MOTOR, false);
+		this.outputQueue.setPaced(Priority.LED, false);
 		this.driver = driver;
 		this.sectionIndex = sectionIndex;
-		mainDisplay = new LcdDisplay(driver, midiOut, type);
+		for (int i = 0; i < 8; i++) {
+			meterStrips[i] = driver.getMeterEngine().createStrip(outputQueue, i);
+		}
+		mainDisplay = new LcdDisplay(driver, outputQueue, type, meterStrips);
 
 		for (int i = 0; i < lightStatusMap.length; i++) {
 			lightStatusMap[i] = -1;
@@ -83,6 +106,8 @@ public class MixerSectionHardware {
 	}
 
 	private void initControlHardware(final HardwareSurface surface) {
+		faderOutput = new MotorFaderOutput(driver.getHost(), outputQueue,
+				MotorFader.MIN_UPDATE_INTERVAL_MS);
 		for (int i = 0; i < 8; i++) {
 			final AbsoluteHardwareKnob knob = surface
 					.createAbsoluteHardwareKnob("VOLUME_FADER_" + sectionIndex + "_" + i);
@@ -90,8 +115,10 @@ public class MixerSectionHardware {
 			faderTouch[i] = createTouchButton("FADER_TOUCH", i);
 			knob.setAdjustValueMatcher(this.midiIn.createAbsolutePitchBendValueMatcher(i));
 
-			motorFaderDest[i] = new MotorFader(this.midiOut, i);
-			ringDisplays[i] = new RingDisplay(this.midiOut, i);
+			final MotorFader motorFader = new MotorFader(faderOutput, i);
+			motorFaderDest[i] = motorFader;
+			faderTouch[i].isPressed().addValueObserver(motorFader::setTouched);
+			ringDisplays[i] = new RingDisplay(outputQueue, i);
 
 			final RelativeHardwareKnob encoder = surface
 					.createRelativeHardwareKnob("PAN_KNOB" + sectionIndex + "_" + i);
@@ -111,7 +138,16 @@ public class MixerSectionHardware {
 	}
 
 	void sendVuUpdate(final int index, final int value) {
-		midiOut.sendMidi(Midi.CHANNEL_AT, index << 4 | value, 0);
+		meterStrips[index].setLevel(value);
+	}
+
+	/**
+	 * The meters stop showing their tracks, their levels are left to fall.
+	 */
+	void clearMeters() {
+		for (final MeterEngine.Strip meterStrip : meterStrips) {
+			meterStrip.clearLevel();
+		}
 	}
 
 	public void bindButton(final Layer layer, final int index, final int buttonIndex, final BooleanSupplier param,
@@ -162,13 +198,18 @@ public class MixerSectionHardware {
 
 	private void sendLedLightStatus(final int noteNr, final int value) {
 		lightStatusMap[noteNr] = value;
-		midiOut.sendMidi(Midi.NOTE_ON, noteNr, value);
+		sendLed(noteNr, value);
+	}
+
+	private void sendLed(final int noteNr, final int value) {
+		outputQueue.sendMidi(Priority.LED, MidiOutQueue.addressOf(Midi.NOTE_ON, noteNr), Midi.NOTE_ON, noteNr, value);
 	}
 
 	public void resetFaders() {
 		for (final MotorFader fader : motorFaderDest) {
 			fader.sendValue(0);
 		}
+		faderOutput.flush();
 	}
 
 	public HardwareButton getButton(final int row, final int column) {
@@ -185,9 +226,13 @@ public class MixerSectionHardware {
 			ringDisplay.refresh();
 		}
 
+		for (final MeterEngine.Strip meterStrip : meterStrips) {
+			meterStrip.invalidate();
+		}
+
 		for (int i = 0; i < lightStatusMap.length; i++) {
 			if (lightStatusMap[i] >= 0) {
-				midiOut.sendMidi(Midi.NOTE_ON, i, lightStatusMap[i]);
+				sendLed(i, lightStatusMap[i]);
 			}
 		}
 	}
@@ -196,6 +241,18 @@ public class MixerSectionHardware {
 		return mainDisplay;
 	}
 
+	public MidiOutQueue getOutputQueue() {
+		return outputQueue;
+	}
+
+	/**
+	 * Queues the changes of the display and sends the output queue of the unit, as far as its budget allows.
+	 */
+	public void flush() {
+		mainDisplay.flush();
+		outputQueue.flush();
+	}
+
 	public MotorFader getMotorFader(final int index) {
 		return motorFaderDest[index];
 	}
@@ -1,35 +1,33 @@
 package com.bitwig.extensions.controllers.mackie.targets;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MotorFaderOutput;
 
 public class MotorFader {
-	private final MidiOut midi;
-	private final int aftertouchValue;
-	int lastValue = -1;
+	/**
+	 * Minimum time between two position updates of a fader, keeps dense automation from saturating the MIDI link.
+	 */
+	public static final int MIN_UPDATE_INTERVAL_MS = 20;
 
-	public MotorFader(final MidiOut midi, final int which) {
-		this.aftertouchValue = 0xE0 | which;
-		this.midi = midi;
+	private final MotorFaderOutput.Fader fader;
+
+	public MotorFader(final MotorFaderOutput output, final int which) {
+		this.fader = output.createFader(which);
 	}
 
 	public void sendValue(final double v) {
-		final int value = (int) (v * 16383);
-		if (value != lastValue) {
-			lastValue = value;
-			final int lsb = value & 0x7F;
-			final int msb = value >> 7;
-			midi.sendMidi(aftertouchValue, lsb, msb);
-		}
+		fader.setValue(v);
+	}
+
+	public void setTouched(final boolean touched) {
+		fader.setTouched(touched);
 	}
 
 	public int getWhich() {
-		return aftertouchValue & 0xF;
+		return fader.getChannel();
 	}
 
 	public void refresh() {
-		final int lsb = lastValue & 0x7F;
-		final int msb = lastValue >> 7;
-		midi.sendMidi(aftertouchValue, lsb, msb);
+		fader.resend();
 	}
 
 }
@@ -1,16 +1,19 @@
 package com.bitwig.extensions.controllers.mackie.targets;
 
-import com.bitwig.extension.controller.api.MidiOut;
 import com.bitwig.extensions.controllers.mackie.Midi;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
 
 public class RingDisplay {
-	private final MidiOut midi;
+	private final MidiOutQueue outputQueue;
 	private final int index;
+	private final int address;
 	private int lastValue = -1;
 
-	public RingDisplay(final MidiOut midi, final int index) {
+	public RingDisplay(final MidiOutQueue outputQueue, final int index) {
 		this.index = index;
-		this.midi = midi;
+		this.outputQueue = outputQueue;
+		this.address = MidiOutQueue.addressOf(Midi.CC, 0x30 | index);
 	}
 
 	public int getIndex() {
@@ -20,13 +23,13 @@ public class RingDisplay {
 	public void sendValue(final int value, final boolean showDot) {
 		final int newValue = value | (showDot ? 0x40 : 0x00);
 		if (newValue != lastValue) {
-			midi.sendMidi(Midi.CC, 0x30 | index, newValue);
+			outputQueue.sendMidi(Priority.LED, address, Midi.CC, 0x30 | index, newValue);
 			lastValue = value;
 		}
 	}
 
 	public void refresh() {
-		midi.sendMidi(Midi.CC, 0x30 | index, lastValue);
+		outputQueue.sendMidi(Priority.LED, address, Midi.CC, 0x30 | index, lastValue);
 	}
 
 }
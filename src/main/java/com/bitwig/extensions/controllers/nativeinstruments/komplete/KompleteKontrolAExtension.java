@@ -252,6 +252,7 @@ public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 
 	@Override
 	public void exit() {
+		super.exit();
 		midiOutDaw.sendMidi(Midi.KK_DAW, Midi.GOODBYE, 0);
 		getHost().showPopupNotification("Komplete Kontrol A Series Exited");
 	}
@@ -261,6 +262,7 @@ public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 		if (dawModeConfirmed) {
 			surface.updateHardware();
 		}
+		dawOutQueue.flush();
 	}
 
 	@Override
@@ -276,31 +278,31 @@ public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 
 		channel.exists().markInterested();
 		channel.addIsSelectedInMixerObserver(v -> {
-			trackSelectedCommand.send(midiOutDaw, index, v);
+			trackSelectedCommand.send(dawOutQueue, index, v);
 		});
 		channel.mute().addValueObserver(v -> {
-			trackMutedCommand.send(midiOutDaw, index, v);
+			trackMutedCommand.send(dawOutQueue, index, v);
 		});
 		channel.solo().addValueObserver(v -> {
-			trackSoloCommand.send(midiOutDaw, index, v);
+			trackSoloCommand.send(dawOutQueue, index, v);
 		});
 		channel.arm().addValueObserver(v -> {
-			trackArmedCommand.send(midiOutDaw, index, v);
+			trackArmedCommand.send(dawOutQueue, index, v);
 		});
 		channel.isMutedBySolo().addValueObserver(v -> {
-			trackMutedBySoloCommand.send(midiOutDaw, index, v);
+			trackMutedBySoloCommand.send(dawOutQueue, index, v);
 		});
 
 		channel.name().addValueObserver(name -> {
-			trackNameCommand.send(midiOutDaw, index, name);
+			trackNameCommand.send(dawOutQueue, index, name);
 		});
 
 		channel.volume().displayedValue().addValueObserver(valueText -> {
-			trackVolumeTextCommand.send(midiOutDaw, index, valueText);
+			trackVolumeTextCommand.send(dawOutQueue, index, valueText);
 		});
 
 		channel.pan().displayedValue().addValueObserver(value -> {
-			trackPanTextCommand.send(midiOutDaw, index, value);
+			trackPanTextCommand.send(dawOutQueue, index, value);
 		});
 
 		channel.pan().value().addValueObserver(value -> {
@@ -310,7 +312,7 @@ public class KompleteKontrolAExtension extends KompleteKontrolExtension {
 
 		channel.trackType().addValueObserver(v -> {
 			final TrackType type = TrackType.toType(v);
-			trackAvailableCommand.send(midiOutDaw, index, type.getId());
+			trackAvailableCommand.send(dawOutQueue, index, type.getId());
 		});
 		volumeKnobs[index].addBindingWithSensitivity(channel.volume(), 0.025);
 		panKnobs[index].addBindingWithSensitivity(channel.pan(), 0.025);
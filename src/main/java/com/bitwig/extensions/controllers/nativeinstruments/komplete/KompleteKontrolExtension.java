@@ -26,10 +26,16 @@ import com.bitwig.extension.controller.api.Track;
 import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.framework.TickScheduler;
 
 public abstract class KompleteKontrolExtension extends ControllerExtension {
 	static final int KOMPLETE_KONTROL_DEVICE_ID = 1315523403;
 
+	// A bank change sends about 80 Nhia commands at once, paced to what the keyboard reliably takes
+	private static final double NHIA_BYTES_PER_MS = 10;
+	private static final int NHIA_BURST_SIZE = 512;
+
 	final NhiaSysexValueCommand trackAvailableCommand = new NhiaSysexValueCommand(0x40);
 	final NhiaSysexTextCommand selectTrackCommand = new NhiaSysexTextCommand(0x41);
 	final NhiaSysexValueCommand trackSelectedCommand = new NhiaSysexValueCommand(0x42);
@@ -46,6 +52,8 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
 	protected Parameter kompleteKontrolInstId;
 	protected HardwareSurface surface;
 	protected MidiOut midiOutDaw;
+	/** All Nhia commands go through this queue, it is flushed at the end of every flush. */
+	protected MidiOutQueue dawOutQueue;
 	protected TrackBank mixerTrackBank;
 	protected Transport mTransport;
 	final RelativeHardwareKnob[] volumeKnobs = new RelativeHardwareKnob[8];
@@ -76,6 +84,7 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
 		final ControllerHost host = getHost();
 		application = host.createApplication();
 		midiOutDaw = host.getMidiOutPort(0);
+		dawOutQueue = new MidiOutQueue(host, midiOutDaw, NHIA_BYTES_PER_MS, NHIA_BURST_SIZE);
 		midiIn = host.getMidiInPort(0);
 		midiIn.setMidiCallback((ShortMidiMessageReceivedCallback) msg -> onMidi0(msg));
 	}
@@ -122,33 +131,33 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
 
 		channel.exists().markInterested();
 		channel.addIsSelectedInMixerObserver(v -> {
-			trackSelectedCommand.send(midiOutDaw, index, v);
+			trackSelectedCommand.send(dawOutQueue, index, v);
 		});
 		channel.mute().addValueObserver(v -> {
-			trackMutedCommand.send(midiOutDaw, index, v);
+			trackMutedCommand.send(dawOutQueue, index, v);
 		});
 		channel.solo().addValueObserver(v -> {
-			trackSoloCommand.send(midiOutDaw, index, v);
+			trackSoloCommand.send(dawOutQueue, index, v);
 		});
 		channel.arm().addValueObserver(v -> {
-			trackArmedCommand.send(midiOutDaw, index, v);
+			trackArmedCommand.send(dawOutQueue, index, v);
 		});
 		channel.isMutedBySolo().addValueObserver(v -> {
-			trackMutedBySoloCommand.send(midiOutDaw, index, v);
+			trackMutedBySoloCommand.send(dawOutQueue, index, v);
 		});
 
 		channel.name().addValueObserver(name -> {
-			trackNameCommand.send(midiOutDaw, index, name);
+			trackNameCommand.send(dawOutQueue, index, name);
 		});
 
 		channel.volume().displayedValue().addValueObserver(valueText -> {
-			trackVolumeTextCommand.send(midiOutDaw, index, valueText);
+			trackVolumeTextCommand.send(dawOutQueue, index, valueText);
 		});
 
 		setUpChannelDisplayFeedback(index, channel);
 		channel.trackType().addValueObserver(v -> {
 			final TrackType type = TrackType.toType(v);
-			trackAvailableCommand.send(midiOutDaw, index, type.getId());
+			trackAvailableCommand.send(dawOutQueue, index, type.getId());
 		});
 		volumeKnobs[index].addBindingWithSensitivity(channel.volume(), 0.025);
 		panKnobs[index].addBindingWithSensitivity(channel.pan(), 0.025);
@@ -162,11 +171,14 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
 
 	@Override
 	public void exit() {
+		dawOutQueue.clear();
+		TickScheduler.release(getHost());
 	}
 
 	@Override
 	public void flush() {
 		surface.updateHardware();
+		dawOutQueue.flush();
 	}
 
 	public Layers getLayers() {
@@ -240,7 +252,7 @@ public abstract class KompleteKontrolExtension extends ControllerExtension {
 		kompleteKontrolInstId.name().markInterested();
 		kompleteKontrolInstId.exists().markInterested();
 		kompleteKontrolInstId.name().addValueObserver(name -> {
-			selectTrackCommand.send(midiOutDaw, name);
+			selectTrackCommand.send(dawOutQueue, name);
 		});
 	}
 
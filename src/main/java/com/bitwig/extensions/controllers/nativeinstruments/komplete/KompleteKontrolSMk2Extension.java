@@ -85,6 +85,7 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 
 	@Override
 	public void exit() {
+		super.exit();
 		midiOutDaw.sendMidi(Midi.KK_DAW, Midi.GOODBYE, 0);
 		getHost().showPopupNotification("Komplete Kontrol S Mk2 Exited");
 	}
@@ -94,6 +95,12 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 		if (dawModeConfirmed) {
 			surface.updateHardware();
 		}
+		trackLevelMeterComand.update(dawOutQueue);
+		if (trackLevelMeterComand.isDirty()) {
+			// a held peak still has to fall back to the current level
+			getHost().requestFlush();
+		}
+		dawOutQueue.flush();
 	}
 
 	@Override
@@ -108,13 +115,20 @@ public class KompleteKontrolSMk2Extension extends KompleteKontrolExtension {
 		});
 		channel.addVuMeterObserver(201, 0, true, leftValue -> {
 			trackLevelMeterComand.updateLeft(index, levelDbLookup[leftValue]);
+			requestLevelsFlush();
 		});
 		channel.addVuMeterObserver(201, 1, true, rightValue -> {
 			trackLevelMeterComand.updateRight(index, levelDbLookup[rightValue]);
-			trackLevelMeterComand.update(midiOutDaw);
+			requestLevelsFlush();
 		});
 	}
 
+	private void requestLevelsFlush() {
+		if (trackLevelMeterComand.isDirty()) {
+			getHost().requestFlush();
+		}
+	}
+
 	@Override
 	protected void initNaviagtion() {
 		final Clip cursorClip = getHost().createLauncherCursorClip(8, 128);
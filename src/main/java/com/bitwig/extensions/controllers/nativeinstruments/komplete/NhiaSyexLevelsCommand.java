@@ -1,13 +1,24 @@
 package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiOutQueue;
 
+/**
+ * Levels of all 8 tracks in one sysex. Observers only record the levels, the frame is sent by {@link #update}
+ * which is meant to be called once per flush. Until then the highest level of every channel is held, so short
+ * peaks between two frames still show up on the display.
+ */
 public class NhiaSyexLevelsCommand extends NhiaSysexCommand {
 
+	private static final int LEVEL_OFFSET = 13;
+	private static final int CHANNELS = 16;
+
 	private final byte[] levelsArray;
+	private final byte[] latestLevels = new byte[CHANNELS];
+	private final boolean[] touched = new boolean[CHANNELS];
+	private boolean dirty = true;
 
 	public NhiaSyexLevelsCommand(final int commandId) {
-		levelsArray = new byte[BASE_FORMAT.length + 16];
+		levelsArray = new byte[BASE_FORMAT.length + CHANNELS];
 		System.arraycopy(BASE_FORMAT, 0, levelsArray, 0, BASE_FORMAT.length);
 		levelsArray[10] = (byte) commandId;
 		levelsArray[11] = 2;
@@ -16,19 +27,54 @@ public class NhiaSyexLevelsCommand extends NhiaSysexCommand {
 	}
 
 	public void updateLevel(final int track, final int levelLeft, final int levelRight) {
-		levelsArray[13 + track * 2] = (byte) levelLeft;
-		levelsArray[14 + track * 2] = (byte) levelRight;
+		updateLeft(track, levelLeft);
+		updateRight(track, levelRight);
 	}
 
 	public void updateLeft(final int track, final int levelLeft) {
-		levelsArray[13 + track * 2] = (byte) levelLeft;
+		hold(track * 2, (byte) levelLeft);
 	}
 
 	public void updateRight(final int track, final int levelRight) {
-		levelsArray[14 + track * 2] = (byte) levelRight;
+		hold(track * 2 + 1, (byte) levelRight);
+	}
+
+	private void hold(final int channel, final byte level) {
+		latestLevels[channel] = level;
+		final int pos = LEVEL_OFFSET + channel;
+		if (!touched[channel] || level > levelsArray[pos]) {
+			touched[channel] = true;
+			if (levelsArray[pos] != level) {
+				levelsArray[pos] = level;
+				dirty = true;
+			}
+		}
+	}
+
+	/**
+	 * @return true if a new frame is waiting to be sent
+	 */
+	public boolean isDirty() {
+		return dirty;
 	}
 
-	public void update(final MidiOut midiOut) {
-		midiOut.sendSysex(levelsArray);
+	/**
+	 * Sends the held levels if anything changed since the last frame. The next frame starts from the latest
+	 * levels, it stays dirty if the display now shows a peak that is already gone.
+	 */
+	public void update(final MidiOutQueue queue) {
+		if (!dirty) {
+			return;
+		}
+		enqueue(queue, levelsArray, levelsArray.length);
+		dirty = false;
+		for (int channel = 0; channel < CHANNELS; channel++) {
+			touched[channel] = false;
+			final int pos = LEVEL_OFFSET + channel;
+			if (levelsArray[pos] != latestLevels[channel]) {
+				levelsArray[pos] = latestLevels[channel];
+				dirty = true;
+			}
+		}
 	}
 }
@@ -1,5 +1,7 @@
 package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 
+import com.bitwig.extensions.framework.MidiOutQueue;
+
 /**
  * @author Eric
  *
@@ -21,4 +23,16 @@ public abstract class NhiaSysexCommand {
 			0x00, // Track number
 			SYSEX_END }; // END
 
+	/**
+	 * Queue address of a command for a track, a queued command that hasn't been sent yet is replaced by a newer one
+	 * for the same track.
+	 */
+	static int address(final int commandId, final int track) {
+		return commandId << 8 | track;
+	}
+
+	static void enqueue(final MidiOutQueue queue, final byte[] data, final int length) {
+		queue.sendSysex(MidiOutQueue.Priority.DISPLAY, address(data[10], data[12]), data, length);
+	}
+
 }
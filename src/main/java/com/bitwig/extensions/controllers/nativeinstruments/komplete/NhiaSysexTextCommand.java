@@ -1,12 +1,12 @@
 package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiOutQueue;
 
 /**
  * Command that sends text to the Mixer Display.
  */
 public class NhiaSysexTextCommand extends NhiaSysexCommand {
-	private final byte[] dataArray;
+	private byte[] dataArray;
 
 	public NhiaSysexTextCommand(final int commandId) {
 		dataArray = new byte[BASE_FORMAT.length];
@@ -14,32 +14,36 @@ public class NhiaSysexTextCommand extends NhiaSysexCommand {
 		dataArray[10] = (byte) commandId;
 	}
 
-	public void send(final MidiOut midiOut, final String text) {
-		send(midiOut, 0, 0, text);
+	public void send(final MidiOutQueue queue, final String text) {
+		send(queue, 0, 0, text);
 	}
 
 	/**
 	 * Send track text.
 	 *
-	 * @param midiOut the MIDI out instance
-	 * @param track   the track
-	 * @param text    the text
+	 * @param queue the output queue of the DAW port
+	 * @param track the track
+	 * @param text  the text
 	 */
-	public void send(final MidiOut midiOut, final int track, final String text) {
-		send(midiOut, 0, track, text);
+	public void send(final MidiOutQueue queue, final int track, final String text) {
+		send(queue, 0, track, text);
 	}
 
-	private void send(final MidiOut midiOut, final int value, final int track, final String text) {
+	private void send(final MidiOutQueue queue, final int value, final int track, final String text) {
+		final int length = BASE_FORMAT.length + text.length();
+		if (dataArray.length < length) {
+			final byte[] grown = new byte[length];
+			System.arraycopy(dataArray, 0, grown, 0, 13);
+			dataArray = grown;
+		}
 		dataArray[11] = (byte) value;
 		dataArray[12] = (byte) track;
-		final byte[] sendarray = new byte[dataArray.length + text.length()];
-		System.arraycopy(dataArray, 0, sendarray, 0, 13);
 		for (int i = 0; i < text.length(); i++) {
-			sendarray[13 + i] = (byte) text.charAt(i);
+			dataArray[13 + i] = (byte) text.charAt(i);
 		}
-		sendarray[sendarray.length - 1] = SYSEX_END;
-		// RemoteConsole.out.printSysEx("data = ", sendarray);
-		midiOut.sendSysex(sendarray);
+		dataArray[length - 1] = SYSEX_END;
+		// RemoteConsole.out.printSysEx("data = ", dataArray);
+		enqueue(queue, dataArray, length);
 	}
 
 }
@@ -1,6 +1,6 @@
 package com.bitwig.extensions.controllers.nativeinstruments.komplete;
 
-import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiOutQueue;
 
 /**
  * SYSEX command to send values to the display.
@@ -14,16 +14,16 @@ public class NhiaSysexValueCommand extends NhiaSysexCommand {
 		dataArray[10] = (byte) commandId;
 	}
 
-	public void send(final MidiOut midiOut, final int track, final int value) {
+	public void send(final MidiOutQueue queue, final int track, final int value) {
 		dataArray[11] = (byte) value;
 		dataArray[12] = (byte) track;
-		midiOut.sendSysex(dataArray);
+		enqueue(queue, dataArray, dataArray.length);
 	}
 
-	public void send(final MidiOut midiOut, final int track, final boolean value) {
+	public void send(final MidiOutQueue queue, final int track, final boolean value) {
 		dataArray[11] = value ? ON : OFF;
 		dataArray[12] = (byte) track;
-		midiOut.sendSysex(dataArray);
+		enqueue(queue, dataArray, dataArray.length);
 	}
 
 }
@@ -56,6 +56,8 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.modes.Sessio
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.modes.StepMode;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.modes.VeloctiyHandler;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.NoteTranslation;
+import com.bitwig.extensions.framework.TickScheduler;
 
 public class MaschineExtension extends ControllerExtension implements JogWheelDestination {
 
@@ -103,6 +105,8 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 	private Application application;
 	private GroupLayer groupLayer;
 	private NoteInput noteInput;
+	private NoteTranslation noteTranslation;
+	private final NIColorUtil colorUtil = new NIColorUtil();
 
 	private ModeButton noteRepeatButton;
 	private ModeButton navLeftButton;
@@ -122,6 +126,9 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 
 	private final String[] displayBackupFields = new String[4];
 	private long lastTempUpdate = 0;
+	private TickScheduler tickScheduler;
+	/** Only runs while a temporary display text is shown. */
+	private TickScheduler.Subscription tempDisplayTimer;
 	private PopupBrowser browser;
 	private BrowserLayer browserLayer;
 	private Project project;
@@ -151,6 +158,7 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 	@Override
 	public void init() {
 		host = getHost();
+		tickScheduler = TickScheduler.forHost(host);
 
 		surface = host.createHardwareSurface();
 		transport = host.createTransport();
@@ -162,6 +170,7 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 
 		noteInput = midiIn.createNoteInput("MIDI", "80????", "90????", "A0????");
 		noteInput.setShouldConsumeEvents(false);
+		noteTranslation = new NoteTranslation(noteInput);
 
 		padButtons = new PadButton[16];
 		for (int i = 0; i < 16; i++) {
@@ -193,8 +202,7 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 		mainKnobControl.activate();
 
 		host.showPopupNotification(maschineMode.getDescriptor() + " Initialized");
-		host.scheduleTask(this::handlBlink, 100);
-		host.scheduleTask(this::handleTempDisplay, 200);
+		tickScheduler.subscribe(100, this::handlBlink);
 	}
 
 	private void setUpMidiSysExCommands() {
@@ -370,7 +378,6 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 				}
 			}
 		}
-		host.scheduleTask(this::handlBlink, 100);
 	}
 
 	public void backToPreviousDisplayMode() {
@@ -453,6 +460,14 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 		return noteInput;
 	}
 
+	public NoteTranslation getNoteTranslation() {
+		return noteTranslation;
+	}
+
+	public NIColorUtil getColorUtil() {
+		return colorUtil;
+	}
+
 	public boolean isShiftDown() {
 		return shiftDown;
 	}
@@ -707,7 +722,7 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 
 		final ModeButton fixedVelButton = new ModeButton(this, "FIXED_VELOCITY", CcAssignment.FIXEDVEL);
 
-		mainLayer.bindPressed(fixedVelButton, () -> velocityHandler.toggleFixedValue(noteInput));
+		mainLayer.bindPressed(fixedVelButton, () -> velocityHandler.toggleFixedValue(noteTranslation));
 		mainLayer.bindLightState(fixedVelButton, velocityHandler.getFixed());
 
 		mainLayer.bindMode(padModeButton, drumPadMode);
@@ -958,12 +973,18 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 			this.sendToDisplay(0, displayBackupFields[0]);
 			lastTempUpdate = 0;
 		}
-		this.host.scheduleTask(this::handleTempDisplay, 300);
+		if (lastTempUpdate == 0 && tempDisplayTimer != null) {
+			tempDisplayTimer.cancel();
+			tempDisplayTimer = null;
+		}
 	}
 
 	public void sendToDisplayTemp(final int grid, final String text) {
 		lastTempUpdate = System.currentTimeMillis();
 		sendToDisplay(grid, text);
+		if (tempDisplayTimer == null) {
+			tempDisplayTimer = tickScheduler.subscribe(300, this::handleTempDisplay);
+		}
 	}
 
 	public void sendToDisplayBuffered(final int grid, final String text) {
@@ -1003,6 +1024,7 @@ public class MaschineExtension extends ControllerExtension implements JogWheelDe
 		surface.updateHardware();
 		// For the shutdown process to clear the display, we currently need
 		// to call sleep() with 400ms, which is quite disruptive.
+		TickScheduler.release(getHost());
 	}
 
 	@Override
@@ -1,82 +1,71 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.bitwig.extension.controller.api.SettableColorValue;
+import com.bitwig.extensions.framework.PaletteMapper;
 
+/**
+ * Maps Bitwig colors to the pad colors of the Maschine. The mapping is cached and not thread-safe, each extension
+ * creates its own.
+ */
 public class NIColorUtil {
 
 	private static final Hsb BLACK_HSB = new Hsb(0, 0, 0);
-	private static final Map<Integer, Integer> fixedColorTable = new HashMap<Integer, Integer>();
-	private static final Map<Integer, Integer> colorTable = new HashMap<Integer, Integer>();
+	private final PaletteMapper colorTable = new PaletteMapper(256, NIColorUtil::computeColor);
 
-	static {
-		fixedColorTable.put(13016944, 16);
-		fixedColorTable.put(5526612, 68);
-		fixedColorTable.put(8026746, 68);
-		fixedColorTable.put(13224393, 68);
-		fixedColorTable.put(8817068, 52);
-		fixedColorTable.put(10713411, 12);
-		fixedColorTable.put(5726662, 48);
-		fixedColorTable.put(8686304, 48);
-		fixedColorTable.put(9783755, 52);
-		fixedColorTable.put(14235761, 60);
-		fixedColorTable.put(14233124, 4);
-		fixedColorTable.put(16733958, 8);
-		fixedColorTable.put(14261520, 16);
-		fixedColorTable.put(7575572, 24);
-		fixedColorTable.put(40263, 28);
-		fixedColorTable.put(42644, 32);
-		fixedColorTable.put(39385, 44);
-		fixedColorTable.put(12351216, 52);
-		fixedColorTable.put(14771857, 64);
-		fixedColorTable.put(15491415, 12);
-		fixedColorTable.put(16745278, 12);
-		fixedColorTable.put(14989134, 16);
-		fixedColorTable.put(10534988, 24);
-		fixedColorTable.put(4111202, 32);
-		fixedColorTable.put(4444857, 36);
-		fixedColorTable.put(4507903, 40);
-		fixedColorTable.put(8355711, 68);
+	public NIColorUtil() {
+		colorTable.addFixedColor(0, 0);
+		colorTable.addFixedColor(13016944, 16);
+		colorTable.addFixedColor(5526612, 68);
+		colorTable.addFixedColor(8026746, 68);
+		colorTable.addFixedColor(13224393, 68);
+		colorTable.addFixedColor(8817068, 52);
+		colorTable.addFixedColor(10713411, 12);
+		colorTable.addFixedColor(5726662, 48);
+		colorTable.addFixedColor(8686304, 48);
+		colorTable.addFixedColor(9783755, 52);
+		colorTable.addFixedColor(14235761, 60);
+		colorTable.addFixedColor(14233124, 4);
+		colorTable.addFixedColor(16733958, 8);
+		colorTable.addFixedColor(14261520, 16);
+		colorTable.addFixedColor(7575572, 24);
+		colorTable.addFixedColor(40263, 28);
+		colorTable.addFixedColor(42644, 32);
+		colorTable.addFixedColor(39385, 44);
+		colorTable.addFixedColor(12351216, 52);
+		colorTable.addFixedColor(14771857, 64);
+		colorTable.addFixedColor(15491415, 12);
+		colorTable.addFixedColor(16745278, 12);
+		colorTable.addFixedColor(14989134, 16);
+		colorTable.addFixedColor(10534988, 24);
+		colorTable.addFixedColor(4111202, 32);
+		colorTable.addFixedColor(4444857, 36);
+		colorTable.addFixedColor(4507903, 40);
+		colorTable.addFixedColor(8355711, 68);
 	}
 
-	public static int convertColor(final SettableColorValue color) {
+	public int convertColor(final SettableColorValue color) {
 		return convertColor(color.red(), color.green(), color.blue());
 	}
 
-	public static int convertColor(final BitWigColor color) {
-		final Integer colorIndex = fixedColorTable.get(color.getLookupIndex());
-		if (colorIndex != null) {
-			return colorIndex.intValue();
-		}
-		return 68;
+	public int convertColor(final BitWigColor color) {
+		return colorTable.map(color.getLookupIndex());
 	}
 
 	public static boolean isOff(final SettableColorValue color) {
 		return color.green() == 0 && color.red() == 0 && color.blue() == 0;
 	}
 
-	public static int convertColor(final float red, final float green, final float blue) {
-		if (red == 0 && green == 0 && blue == 0) {
-			return 0;
-		}
-
+	public int convertColor(final float red, final float green, final float blue) {
 		final int rv = (int) Math.floor(red * 255);
 		final int gv = (int) Math.floor(green * 255);
 		final int bv = (int) Math.floor(blue * 255);
-		final int lookupIndex = rv << 16 | gv << 8 | bv;
-		if (fixedColorTable.containsKey(lookupIndex)) {
-			return fixedColorTable.get(lookupIndex);
-		}
-		if (colorTable.containsKey(lookupIndex)) {
-			return colorTable.get(lookupIndex);
-		}
+		return colorTable.map(rv << 16 | gv << 8 | bv);
+	}
 
-		final Hsb hsb = rgbToHsb(red, green, blue);
+	private static int computeColor(final int lookupIndex) {
+		final Hsb hsb = rgbToHsb(lookupIndex >> 16 & 0xFF, lookupIndex >> 8 & 0xFF, lookupIndex & 0xFF);
 		if (hsb.bright < 1 || hsb.sat < 3) {
-			colorTable.put(lookupIndex, 68);
-			return colorTable.get(lookupIndex);
+			return 68;
 		}
 		int off = 0;
 		if (hsb.bright + hsb.sat < 22) {
@@ -86,9 +75,7 @@ public class NIColorUtil {
 			off = 2;
 		}
 		final int color_index = Math.min(hsb.hue + off + 1, 16);
-		final int color = color_index << 2;
-		colorTable.put(lookupIndex, color);
-		return color;
+		return color_index << 2;
 	}
 
 	private static Hsb rgbToHsb(final float rv, final float gv, final float bv) {
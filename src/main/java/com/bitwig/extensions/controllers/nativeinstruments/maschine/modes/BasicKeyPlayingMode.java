@@ -1,16 +1,15 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine.modes;
 
-import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PlayingNote;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.ModifierState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayLayer;
+import com.bitwig.extensions.framework.NoteTranslation;
 
 public abstract class BasicKeyPlayingMode extends PadMode {
-	protected final Integer[] deactivationTable = new Integer[128];
-	protected final Integer[] noteTable = new Integer[128];
+	protected final int[] noteTable = new int[128];
 
 	protected final int[] noteToPad = new int[128];
 	protected final boolean[] playing = new boolean[16];
@@ -27,8 +26,7 @@ public abstract class BasicKeyPlayingMode extends PadMode {
 		this.associatedDisplay = associatedDisplay;
 
 		for (int i = 0; i < 128; i++) {
-			deactivationTable[i] = Integer.valueOf(-1);
-			noteTable[i] = Integer.valueOf(-1);
+			noteTable[i] = NoteTranslation.NO_NOTE;
 			noteToPad[i] = -1;
 		}
 		for (int i = 0; i < 16; i++) {
@@ -60,13 +58,13 @@ public abstract class BasicKeyPlayingMode extends PadMode {
 	}
 
 	protected void enableLayer(final MaschineLayer layer, final boolean active) {
-		final NoteInput noteInput = getDriver().getNoteInput();
+		final NoteTranslation noteTranslation = getDriver().getNoteTranslation();
 		if (active) {
-			noteInput.setKeyTranslationTable(deactivationTable);
+			noteTranslation.setNoNotes();
 			layer.activate();
 		} else {
 			layer.deactivate();
-			noteInput.setKeyTranslationTable(noteTable);
+			noteTranslation.setKeyTable(noteTable);
 		}
 	}
 
@@ -82,9 +80,9 @@ public abstract class BasicKeyPlayingMode extends PadMode {
 	public void doDeactivate() {
 		super.doDeactivate();
 		for (int i = 0; i < 16; i++) {
-			noteTable[i + PadButton.PAD_NOTE_OFFSET] = -1;
+			noteTable[i + PadButton.PAD_NOTE_OFFSET] = NoteTranslation.NO_NOTE;
 		}
-		getDriver().getNoteInput().setKeyTranslationTable(noteTable);
+		getDriver().getNoteTranslation().setKeyTable(noteTable);
 	}
 
 }
@@ -5,7 +5,6 @@ import java.util.function.Consumer;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.BitWigColor;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 
@@ -40,7 +39,7 @@ public class ColorSelectionMode extends PadMode {
 	}
 
 	private InternalHardwareLightState computeGridLedState(final int index) {
-		final int color = NIColorUtil.convertColor(PALETTE[index]);
+		final int color = getDriver().getColorUtil().convertColor(PALETTE[index]);
 
 		return RgbLedState.colorOf(color + 2);
 	}
@@ -8,7 +8,6 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.Colors;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.ModifierState;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.DisplayLayer;
@@ -212,7 +211,7 @@ public class DrumPadMode extends BasicKeyPlayingMode implements JogWheelDestinat
 	}
 
 	public InternalHardwareLightState colorStateOfNoPads(final int index) {
-		int color = NIColorUtil.convertColor(getDriver().getCursorTrack().color());
+		int color = getDriver().getColorUtil().convertColor(getDriver().getCursorTrack().color());
 		if (playing[index]) {
 			color += 2;
 		}
@@ -221,7 +220,7 @@ public class DrumPadMode extends BasicKeyPlayingMode implements JogWheelDestinat
 
 	private InternalHardwareLightState computeGridLedState(final int index, final DrumPad pad) {
 		if (hasDrumPads) {
-			int color = NIColorUtil.convertColor(pad.color());
+			int color = getDriver().getColorUtil().convertColor(pad.color());
 			if (playing[index] || isSelected[index]) {
 				color += 2;
 			}
@@ -243,7 +242,7 @@ public class DrumPadMode extends BasicKeyPlayingMode implements JogWheelDestinat
 			noteTable[i + PadButton.PAD_NOTE_OFFSET] = padOffset + i;
 			noteToPad[padOffset + i] = i;
 		}
-		getDriver().getNoteInput().setKeyTranslationTable(noteTable);
+		getDriver().getNoteTranslation().setKeyTable(noteTable);
 	}
 
 	@Override
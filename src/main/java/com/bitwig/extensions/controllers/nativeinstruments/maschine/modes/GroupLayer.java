@@ -6,7 +6,6 @@ import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.ModifierState;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.GroupButton;
 
@@ -217,7 +216,7 @@ public class GroupLayer extends MaschineLayer {
 	}
 
 	private InternalHardwareLightState trackToRgbLed(final Track track, final int index) {
-		int color = NIColorUtil.convertColor(track.color());
+		int color = getDriver().getColorUtil().convertColor(track.color());
 		if (index == selectedTrackIndex) {
 			color += 2;
 		}
@@ -7,20 +7,19 @@ import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.InternalHardwareLightState;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.Scale;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.display.ScaleLayer;
+import com.bitwig.extensions.framework.MusicalScale;
 
 public class KeyboardMode extends BasicKeyPlayingMode {
 
-	private static final List<Scale> scales = new ArrayList<Scale>();
+	private static final List<MusicalScale> scales = new ArrayList<MusicalScale>();
 
 	private static final RgbLedState BASENOTE_COLOR = RgbLedState.colorOf(73);
 	private static final RgbLedState BASENOTE_COLOR_ON = RgbLedState.colorOf(75);
 
-	private Scale currentScale = scales.get(0);
+	private MusicalScale currentScale = scales.get(0);
 	private final boolean[] isBaseNote = new boolean[16];
 
 	private int baseNote = 0;
@@ -29,24 +28,24 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 	private int currentScaleIndex = 0;
 
 	static {
-		scales.add(new Scale("Chromatic", 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
-		scales.add(new Scale("Ionian/Major", 0, 2, 4, 5, 7, 9, 11));
-		scales.add(new Scale("Aeolian/Minor", 0, 2, 3, 5, 7, 8, 10));
-		scales.add(new Scale("Pentatonic", 0, 2, 4, 7, 9));
-		scales.add(new Scale("Pentatonic Minor", 0, 3, 5, 7, 10));
-		scales.add(new Scale("Dorian (B/g)", 0, 2, 3, 5, 7, 9, 10));
-		scales.add(new Scale("Phrygian (A-flat/f)", 0, 1, 3, 5, 7, 8, 10));
-		scales.add(new Scale("Lydian (D/e)", 0, 2, 4, 6, 7, 9, 11));
-		scales.add(new Scale("Mixolydian (F/d)", 0, 2, 4, 5, 7, 9, 10));
-		scales.add(new Scale("Locrian", 0, 1, 3, 5, 6, 8, 10));
-		scales.add(new Scale("Diminished", 0, 2, 3, 5, 6, 8, 9, 10));
-		scales.add(new Scale("Major Blues", 0, 3, 4, 7, 9, 10));
-		scales.add(new Scale("Minor Blues", 0, 3, 4, 6, 7, 10));
-		scales.add(new Scale("Whole", 0, 2, 4, 6, 8, 10));
-		scales.add(new Scale("Arabian", 0, 2, 4, 5, 6, 8, 10));
-		scales.add(new Scale("Egyptian", 0, 2, 5, 7, 10));
-		scales.add(new Scale("Gypsi", 0, 2, 3, 6, 7, 8, 11));
-		scales.add(new Scale("Spanish", 0, 1, 3, 4, 5, 7, 8, 10));
+		scales.add(new MusicalScale("Chromatic", new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 }));
+		scales.add(new MusicalScale("Ionian/Major", new int[] { 0, 2, 4, 5, 7, 9, 11 }));
+		scales.add(new MusicalScale("Aeolian/Minor", new int[] { 0, 2, 3, 5, 7, 8, 10 }));
+		scales.add(new MusicalScale("Pentatonic", new int[] { 0, 2, 4, 7, 9 }));
+		scales.add(new MusicalScale("Pentatonic Minor", new int[] { 0, 3, 5, 7, 10 }));
+		scales.add(new MusicalScale("Dorian (B/g)", new int[] { 0, 2, 3, 5, 7, 9, 10 }));
+		scales.add(new MusicalScale("Phrygian (A-flat/f)", new int[] { 0, 1, 3, 5, 7, 8, 10 }));
+		scales.add(new MusicalScale("Lydian (D/e)", new int[] { 0, 2, 4, 6, 7, 9, 11 }));
+		scales.add(new MusicalScale("Mixolydian (F/d)", new int[] { 0, 2, 4, 5, 7, 9, 10 }));
+		scales.add(new MusicalScale("Locrian", new int[] { 0, 1, 3, 5, 6, 8, 10 }));
+		scales.add(new MusicalScale("Diminished", new int[] { 0, 2, 3, 5, 6, 8, 9, 10 }));
+		scales.add(new MusicalScale("Major Blues", new int[] { 0, 3, 4, 7, 9, 10 }));
+		scales.add(new MusicalScale("Minor Blues", new int[] { 0, 3, 4, 6, 7, 10 }));
+		scales.add(new MusicalScale("Whole", new int[] { 0, 2, 4, 6, 8, 10 }));
+		scales.add(new MusicalScale("Arabian", new int[] { 0, 2, 4, 5, 6, 8, 10 }));
+		scales.add(new MusicalScale("Egyptian", new int[] { 0, 2, 5, 7, 10 }));
+		scales.add(new MusicalScale("Gypsi", new int[] { 0, 2, 3, 6, 7, 8, 11 }));
+		scales.add(new MusicalScale("Spanish", new int[] { 0, 1, 3, 4, 5, 7, 8, 10 }));
 	}
 
 	public KeyboardMode(final MaschineExtension driver, //
@@ -59,8 +58,8 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 		associatedDisplay.setKeyboardLayer(this);
 		final NoteInput noteInput = driver.getNoteInput();
 		noteInput.setShouldConsumeEvents(false);
-		noteInput.setKeyTranslationTable(noteTable);
-		velocityHandler.assingTranslationTable(noteInput);
+		driver.getNoteTranslation().setKeyTable(noteTable);
+		velocityHandler.assingTranslationTable(driver.getNoteTranslation());
 		final PadButton[] buttons = driver.getPadButtons();
 		final CursorTrack cursorTrack = driver.getCursorTrack();
 		for (int i = 0; i < buttons.length; i++) {
@@ -72,12 +71,12 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 		}
 	}
 
-	public Scale getCurrentScale() {
+	public MusicalScale getCurrentScale() {
 		return currentScale;
 	}
 
 	public int getNextNote(final int noteVal, final int amount) {
-		return currentScale.getNextNote(noteVal, baseNote, amount);
+		return currentScale.getNextNote(baseNote, noteVal, amount);
 	}
 
 	private void selectPad(final int index) {
@@ -102,7 +101,7 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 		if (nxtIndex >= 0 && nxtIndex < scales.size()) {
 			currentScale = scales.get(nxtIndex);
 			currentScaleIndex = nxtIndex;
-			while (currentScale.highestNote(60 + octaveOffset * 12 + baseNote, 16) > 127) {
+			while (highestNote(60 + octaveOffset * 12 + baseNote) > 127) {
 				octaveOffset--;
 			}
 			applyScale();
@@ -112,7 +111,7 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 	public void incOctave(final int incval) {
 		final int newOctave = octaveOffset + incval;
 		final int startNote = 60 + newOctave * 12 + baseNote;
-		if (startNote > 0 && currentScale.highestNote(startNote, 16) < 128) {
+		if (startNote > 0 && highestNote(startNote) < 128) {
 			octaveOffset = newOctave;
 			applyScale();
 		}
@@ -131,18 +130,31 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 		}
 
 		final int startNote = 60 + newOctave * 12 + newSemi;
-		if (startNote > 0 && currentScale.highestNote(startNote, 16) < 128) {
+		if (startNote > 0 && highestNote(startNote) < 128) {
 			baseNote = newSemi;
 			octaveOffset = newOctave;
 			applyScale();
 		}
 	}
 
+	/**
+	 * Given a starting note, determines the note of the last pad.
+	 *
+	 * The last pad is pad 15, laid out like in {@link #applyScale()}.
+	 *
+	 * @param startNote starting note
+	 * @return last note on the pads
+	 */
+	private int highestNote(final int startNote) {
+		final int[] notes = currentScale.getNotes();
+		return startNote + (15 / notes.length) * 12 + notes[15 % notes.length];
+	}
+
 	private InternalHardwareLightState computeGridLedState(final int index, final CursorTrack cursorTrack) {
 		if (isBaseNote[index]) {
 			return playing[index] ? BASENOTE_COLOR_ON : BASENOTE_COLOR;
 		}
-		int color = NIColorUtil.convertColor(cursorTrack.color());
+		int color = getDriver().getColorUtil().convertColor(cursorTrack.color());
 		if (playing[index]) {
 			color += 2;
 		}
@@ -156,7 +168,7 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 		}
 
 		final int startNote = 60 + octaveOffset * 12 + baseNote;
-		final int[] intervals = currentScale.getIntervalls();
+		final int[] intervals = currentScale.getNotes();
 		for (int i = 0; i < 16; i++) {
 			final int index = i % intervals.length;
 			final int oct = i / intervals.length;
@@ -165,7 +177,7 @@ public class KeyboardMode extends BasicKeyPlayingMode {
 			noteToPad[note] = i;
 			isBaseNote[i] = index == 0;
 		}
-		getDriver().getNoteInput().setKeyTranslationTable(noteTable);
+		getDriver().getNoteTranslation().setKeyTable(noteTable);
 	}
 
 	@Override
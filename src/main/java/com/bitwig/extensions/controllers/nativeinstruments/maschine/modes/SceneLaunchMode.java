@@ -6,7 +6,6 @@ import com.bitwig.extension.controller.api.SceneBank;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.ModifierState;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 
@@ -92,7 +91,7 @@ public class SceneLaunchMode extends PadMode implements JogWheelDestination {
 
 	private InternalHardwareLightState computeGridLedState(final Scene scene, final int index) {
 		assert scene.isSubscribed();
-		final int color = NIColorUtil.convertColor(scene.color()) + (isSelected[index] ? 2 : 0);
+		final int color = getDriver().getColorUtil().convertColor(scene.color()) + (isSelected[index] ? 2 : 0);
 
 		return RgbLedState.colorOf(color);
 	}
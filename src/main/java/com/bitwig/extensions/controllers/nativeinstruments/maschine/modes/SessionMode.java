@@ -10,7 +10,6 @@ import com.bitwig.extensions.controllers.nativeinstruments.maschine.LayoutType;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineExtension;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.MaschineLayer;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.ModifierState;
-import com.bitwig.extensions.controllers.nativeinstruments.maschine.NIColorUtil;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.RgbLedState;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.buttons.PadButton;
 
@@ -188,7 +187,7 @@ public class SessionMode extends PadMode {
 	private InternalHardwareLightState computeGridLedState(final int buttonIndex) {
 		final ClipLauncherSlot slot = currentSlotMapping[buttonIndex];
 		assert slot.isSubscribed();
-		int color = NIColorUtil.convertColor(slot.color());
+		int color = getDriver().getColorUtil().convertColor(slot.color());
 		int pulse = 0;
 		int offColor = color;
 
@@ -203,7 +203,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
 	}
 
 	private void handleClipColorChanged(final float red, final float green, final float blue) {
-		clipColor = NIColorUtil.convertColor(red, green, blue);
+		clipColor = getDriver().getColorUtil().convertColor(red, green, blue);
 		updatePadColor();
 	}
 
@@ -238,7 +238,7 @@ public class StepMode extends PadMode implements NoteFocusHandler, JogWheelDesti
 		if (NIColorUtil.isOff(focusPad.color())) {
 			padColor = Colors.WHITE.getIndexValue(ColorBrightness.DARKENED);
 		} else {
-			padColor = NIColorUtil.convertColor(focusPad.color());
+			padColor = getDriver().getColorUtil().convertColor(focusPad.color());
 		}
 	}
 
@@ -1,17 +1,17 @@
 package com.bitwig.extensions.controllers.nativeinstruments.maschine.modes;
 
-import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extensions.controllers.nativeinstruments.maschine.BooleanValueObject;
+import com.bitwig.extensions.framework.NoteTranslation;
 
 public class VeloctiyHandler {
-	protected final Integer[] velTable = new Integer[128];
+	protected final int[] velTable = new int[128];
 	protected final BooleanValueObject fixed = new BooleanValueObject(); // Needs to shared with Pad Mode
 
 	private int fixedVelocity = 100;
 
 	public VeloctiyHandler() {
 		for (int i = 0; i < 128; i++) {
-			velTable[i] = Integer.valueOf(i);
+			velTable[i] = i;
 		}
 	}
 
@@ -19,27 +19,27 @@ public class VeloctiyHandler {
 		return fixedVelocity;
 	}
 
-	public void assingTranslationTable(final NoteInput noteInput) {
-		noteInput.setVelocityTranslationTable(velTable);
+	public void assingTranslationTable(final NoteTranslation noteTranslation) {
+		noteTranslation.setVelocityTable(velTable);
 	}
 
 	public BooleanValueObject getFixed() {
 		return fixed;
 	}
 
-	public void toggleFixedValue(final NoteInput noteInput) {
+	public void toggleFixedValue(final NoteTranslation noteTranslation) {
 		if (fixed.get()) {
 			fixed.toggle();
 			for (int i = 0; i < 128; i++) {
-				velTable[i] = Integer.valueOf(i);
+				velTable[i] = i;
 			}
 		} else {
 			fixed.toggle();
 			for (int i = 0; i < 128; i++) {
-				velTable[i] = Integer.valueOf(127);
+				velTable[i] = 127;
 			}
 		}
-		noteInput.setVelocityTranslationTable(velTable);
+		noteTranslation.setVelocityTable(velTable);
 	}
 
 	public void inc(final int incval) {
@@ -1,52 +1,80 @@
 package com.bitwig.extensions.controllers.novation.common;
 
-import com.bitwig.extension.api.Color;
-import com.bitwig.extension.controller.api.SettableColorValue;
+import java.util.function.IntUnaryOperator;
+
+import com.bitwig.extensions.framework.PaletteMapper;
 
 public class DefaultPalette
 {
-   public static int getColorIndexClosestToColor(final SettableColorValue colorValue)
-   {
-      float minError = Float.MAX_VALUE;
-      int colorIndex = 0;
+   /** Number of colors the mappers remember. */
+   private static final int CACHE_CAPACITY = 256;
 
-      final Color color = Color.fromRGB(colorValue.red(), colorValue.green(), colorValue.blue());
+   /**
+    * Creates a mapper from colors to the index of the closest entry of this palette, using the weighted HSV
+    * distance. Mappers are not thread-safe, each extension creates its own.
+    */
+   public static PaletteMapper createMapper()
+   {
+      return new PaletteMapper(CACHE_CAPACITY, new HsvMetric());
+   }
 
-      final int N = PALETTE.length / 3;
+   /** The palette as consecutive r, g, b triples in the range 0..255. */
+   static int[] getPalette()
+   {
+      return PALETTE.clone();
+   }
 
-      for(int i=0; i<N; i++)
+   private static final class HsvMetric implements IntUnaryOperator
+   {
+      @Override
+      public int applyAsInt(final int rgb)
       {
-         final int r = PALETTE[i*3];
-         final int g = PALETTE[i*3+1];
-         final int b = PALETTE[i*3+2];
+         final float[] hsvRef = mHsvRef;
+         RGBtoHSV((rgb >> 16 & 0xFF) / 255f, (rgb >> 8 & 0xFF) / 255f, (rgb & 0xFF) / 255f, hsvRef);
+
+         final float hRef = hsvRef[0];
+         final float sRef = hsvRef[1];
+         // The weights of the metric are for values in the range 0..255
+         final float vRef = hsvRef[2] * 255;
 
-         final float hsvError = computeHsvError(r, g, b, color);
+         float minError = Float.MAX_VALUE;
+         int colorIndex = 0;
 
-         if (hsvError < minError)
+         for (int i = 0; i < PALETTE_HSV.length; i += 3)
          {
-            colorIndex = i;
-            minError = hsvError;
+            final float hueError = (PALETTE_HSV[i] - hRef) / 30;
+            final float sError = (PALETTE_HSV[i + 1] - sRef) * 1.6f;
+            final float vError = (PALETTE_HSV[i + 2] - vRef) / 40;
+
+            final float error = hueError * hueError + vError * vError + sError * sError;
+
+            if (error < minError)
+            {
+               colorIndex = i / 3;
+               minError = error;
+            }
          }
+
+         return colorIndex;
       }
 
-      return colorIndex;
+      private final float[] mHsvRef = new float[3];
    }
 
-   private static float computeHsvError(int r, int g, int b, final Color color)
+   private static float[] computePaletteHsv()
    {
-      float[] hsv = new float[3];
-      RGBtoHSV(r, g, b, hsv);
-      float[] hsvRef = new float[3];
-      RGBtoHSV(color.getRed255(), color.getGreen255(), color.getBlue255(), hsvRef);
-
-      float hueError = (hsv[0] - hsvRef[0]) / 30;
-      float sError = (hsv[1] - hsvRef[1]) * 1.6f;
-      final float vScale = 1f;
-      float vError = (vScale * hsv[2] - hsvRef[2]) / 40;
+      final float[] paletteHsv = new float[PALETTE.length];
+      final float[] hsv = new float[3];
 
-      final float error = hueError * hueError + vError*vError + sError*sError;
+      for (int i = 0; i < PALETTE.length; i += 3)
+      {
+         RGBtoHSV(PALETTE[i] / 255f, PALETTE[i + 1] / 255f, PALETTE[i + 2] / 255f, hsv);
+         paletteHsv[i] = hsv[0];
+         paletteHsv[i + 1] = hsv[1];
+         paletteHsv[i + 2] = hsv[2] * 255;
+      }
 
-      return error;
+      return paletteHsv;
    }
 
    private static int[] PALETTE =
@@ -180,6 +208,9 @@ public class DefaultPalette
       251, 210, 0,
       245, 115, 0};
 
+   /** Hue, saturation and value (0..255) of the palette entries. */
+   private static final float[] PALETTE_HSV = computePaletteHsv();
+
    public static void RGBtoHSV(final float r, final float g, final float b, final float[] hsv)
    {
       assert r >= 0 && r <= 1;
@@ -37,19 +37,12 @@ public class SimpleLed
       }
    }
 
-   public void flush(StringBuilder sb)
+   public void flush(final SimpleLedSysexFrame frame)
    {
       if (mNeedFlush)
       {
-         sb.append(" ");
-         if (mData1 < 16)
-            sb.append('0');
-         sb.append(Integer.toHexString(mData1));
-         sb.append(" ");
-         if (mColor < 16)
-            sb.append('0');
-         sb.append(Integer.toHexString(mColor));
-
+         frame.append(mData1, mColor);
+         mNeedFlush = false;
       }
    }
 
@@ -0,0 +1,123 @@
+package com.bitwig.extensions.controllers.novation.common;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.SysexFrameWriter;
+
+/**
+ * Batches LED updates into a single sysex per template channel: header, template channel, then (index, color)
+ * pairs and F7. The device remembers the LEDs of each template separately, so the colors that were last sent
+ * are tracked per channel and only LEDs whose color differs from the transmitted one end up in the frame.
+ */
+public final class SimpleLedSysexFrame
+{
+   /** Number of template channels the device can address. */
+   public static final int CHANNEL_COUNT = 16;
+
+   private static final int UNKNOWN = -1;
+
+   /**
+    * @param header the sysex header up to, but excluding, the template channel
+    * @param ledCount the LED indices (data1) that can be sent range from 0 to ledCount - 1
+    */
+   public SimpleLedSysexFrame(final byte[] header, final int ledCount)
+   {
+      mLedCount = ledCount;
+
+      for (int channel = 0; channel < CHANNEL_COUNT; ++channel)
+      {
+         final byte[] channelHeader = Arrays.copyOf(header, header.length + 1);
+         channelHeader[header.length] = (byte)channel;
+         mFrames[channel] = new SysexFrameWriter(channelHeader, 2 * ledCount);
+
+         final int[] sentColors = new int[ledCount];
+         Arrays.fill(sentColors, UNKNOWN);
+         mSentColors[channel] = sentColors;
+      }
+
+      mIsIncluded = new boolean[ledCount];
+   }
+
+   /** Starts collecting the updates for the given template channel, dropping anything not sent yet. */
+   public void begin(final int channel)
+   {
+      clear(false);
+      mChannel = channel;
+   }
+
+   /** Adds the LED unless the device already shows this color on the current template channel. */
+   public void append(final int index, final int color)
+   {
+      assert 0 <= index && index < mLedCount;
+
+      final int[] sentColors = mSentColors[mChannel];
+      if (sentColors[index] == color)
+         return;
+
+      sentColors[index] = color;
+
+      final SysexFrameWriter frame = mFrames[mChannel];
+
+      // An LED appended twice in the same frame only needs its latest color
+      if (mIsIncluded[index])
+      {
+         for (int pos = 0; pos < frame.getPayloadSize(); pos += 2)
+         {
+            if (frame.getPayloadByte(pos) == index)
+            {
+               frame.setPayloadByte(pos + 1, color);
+               return;
+            }
+         }
+      }
+
+      mIsIncluded[index] = true;
+
+      frame.addByte(index).addByte(color);
+   }
+
+   /** Sends the collected updates, if there are any. */
+   public void send(final MidiOut midiOut)
+   {
+      final SysexFrameWriter frame = mFrames[mChannel];
+      if (frame.isEmpty())
+         return;
+
+      clearIncluded(frame);
+      frame.send(midiOut);
+   }
+
+   private void clear(final boolean wasSent)
+   {
+      final SysexFrameWriter frame = mFrames[mChannel];
+
+      if (!wasSent)
+      {
+         for (int pos = 0; pos < frame.getPayloadSize(); pos += 2)
+            mSentColors[mChannel][frame.getPayloadByte(pos)] = UNKNOWN;
+      }
+
+      clearIncluded(frame);
+      frame.begin();
+   }
+
+   private void clearIncluded(final SysexFrameWriter frame)
+   {
+      for (int pos = 0; pos < frame.getPayloadSize(); pos += 2)
+         mIsIncluded[frame.getPayloadByte(pos)] = false;
+   }
+
+   /** Forgets what was sent on every channel, for example after the device was reset. */
+   public void invalidate()
+   {
+      for (final int[] sentColors : mSentColors)
+         Arrays.fill(sentColors, UNKNOWN);
+   }
+
+   private final int mLedCount;
+   private final SysexFrameWriter[] mFrames = new SysexFrameWriter[CHANNEL_COUNT];
+   private final int[][] mSentColors = new int[CHANNEL_COUNT][];
+   private final boolean[] mIsIncluded;
+   private int mChannel;
+}
@@ -2,6 +2,7 @@ package com.bitwig.extensions.controllers.novation.launch_control_xl;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
 import com.bitwig.extensions.controllers.novation.common.SimpleLedColor;
+import com.bitwig.extensions.controllers.novation.common.SimpleLedSysexFrame;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.ControllerHost;
 import com.bitwig.extension.controller.api.CursorDevice;
@@ -144,37 +145,37 @@ public class LaunchControlXlControllerExtension extends ControllerExtension
       if (sysex.equals("f000202902117708f7"))
       {
          mHost.showPopupNotification("Switched to 2 Sends and DEVICE Mode");
-         mMode = Mode.Send2Device1;
+         setMode(Mode.Send2Device1);
          updateIndications(2, true, false, 0);
       }
       else if (sysex.equals("f000202902117709f7"))
       {
          mHost.showPopupNotification("Switched to 2 Sends and Pan Mode");
-         mMode = Mode.Send2Pan1;
+         setMode(Mode.Send2Pan1);
          updateIndications(2, false, true, 0);
       }
       else if (sysex.equals("f00020290211770af7"))
       {
          mHost.showPopupNotification("Switched to 3 Sends Mode");
-         mMode = Mode.Send3;
+         setMode(Mode.Send3);
          updateIndications(3, false, false, 0);
       }
       else if (sysex.equals("f00020290211770bf7"))
       {
          mHost.showPopupNotification("Switched to 1 Send and 2 Channel DEVICE Controls Mode");
-         mMode = Mode.Send1Device2;
+         setMode(Mode.Send1Device2);
          updateIndications(1, false, false, 2);
       }
       else if (sysex.equals("f00020290211770cf7"))
       {
          mHost.showPopupNotification("Switched to Channel DEVICE Controls Mode");
-         mMode = Mode.ChannelDevice;
+         setMode(Mode.ChannelDevice);
          updateIndications(0, false, false, 3);
       }
       else
       {
          mHost.showPopupNotification("Unsupported Template. We provide Modes for the Factory Template 1 to 5.");
-         mMode = Mode.None;
+         setMode(Mode.None);
       }
    }
 
@@ -353,28 +354,49 @@ public class LaunchControlXlControllerExtension extends ControllerExtension
       paintKnobs();
       paintBottomButtons();
 
-      final StringBuilder sb = new StringBuilder();
+      final SimpleLedSysexFrame frame = mLedFrame;
+      frame.begin(mMode.getChannel());
 
-      mDeviceLed.flush(sb);
-      mMuteLed.flush(sb);
-      mSoloLed.flush(sb);
-      mRecordArmLed.flush(sb);
-      mUpButtonLed.flush(sb);
-      mDownButtonLed.flush(sb);
-      mLeftButtonLed.flush(sb);
-      mRightButtonLed.flush(sb);
+      mDeviceLed.flush(frame);
+      mMuteLed.flush(frame);
+      mSoloLed.flush(frame);
+      mRecordArmLed.flush(frame);
+      mUpButtonLed.flush(frame);
+      mDownButtonLed.flush(frame);
+      mLeftButtonLed.flush(frame);
+      mRightButtonLed.flush(frame);
 
       for (SimpleLed simpleLed : mKnobsLed)
-         simpleLed.flush(sb);
+         simpleLed.flush(frame);
 
       for (SimpleLed simpleLed : mBottomButtonsLed)
-         simpleLed.flush(sb);
+         simpleLed.flush(frame);
 
-      if (!sb.toString().isEmpty())
-      {
-         final String sysex = "F0 00 20 29 02 11 78 0" + Integer.toHexString(mMode.getChannel()) + sb + " F7";
-         mMidiOut.sendSysex(sysex);
-      }
+      frame.send(mMidiOut);
+   }
+
+   /** The template changed, the LEDs have to be checked against what was last sent to the new template. */
+   private void setMode(final Mode mode)
+   {
+      if (mMode == mode)
+         return;
+
+      mMode = mode;
+
+      mDeviceLed.invalidate();
+      mMuteLed.invalidate();
+      mSoloLed.invalidate();
+      mRecordArmLed.invalidate();
+      mUpButtonLed.invalidate();
+      mDownButtonLed.invalidate();
+      mLeftButtonLed.invalidate();
+      mRightButtonLed.invalidate();
+
+      for (SimpleLed simpleLed : mKnobsLed)
+         simpleLed.invalidate();
+
+      for (SimpleLed simpleLed : mBottomButtonsLed)
+         simpleLed.invalidate();
    }
 
    protected void paintBottomButtons()
@@ -494,6 +516,8 @@ public class LaunchControlXlControllerExtension extends ControllerExtension
    private boolean mIsDeviceOn = false;
    private TrackControl mTrackControl = TrackControl.Mute;
    private Mode mMode = Mode.Send2Device1;
+   private final SimpleLedSysexFrame mLedFrame =
+      new SimpleLedSysexFrame(new byte[] {(byte)0xF0, 0x00, 0x20, 0x29, 0x02, 0x11, 0x78}, 48);
 
    private SimpleLed[] mKnobsLed = new SimpleLed[] {
       new SimpleLed(0x90, 0),
@@ -2,6 +2,7 @@ package com.bitwig.extensions.controllers.novation.launchkey_mini;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
 import com.bitwig.extensions.controllers.novation.common.SimpleLedColor;
+import com.bitwig.extensions.framework.TickScheduler;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.BooleanValue;
 import com.bitwig.extension.controller.api.ClipLauncherSlot;
@@ -25,6 +26,8 @@ import com.bitwig.extension.controller.api.UserControlBank;
 
 public class LaunchkeyMiniControllerExtension extends ControllerExtension
 {
+   private static final int BLINK_RATE = 160;
+
    enum Mode
    {
       DRUM, PLAY, LAUNCH;
@@ -37,7 +40,6 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
    }
 
    Mode mMode;
-   private boolean mBlink = true;
 
    public LaunchkeyMiniControllerExtension(
       final LaunchkeyMiniControllerExtensionDefinition definition,
@@ -50,6 +52,7 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
    public void init()
    {
       mHost = getHost();
+      mTickScheduler = TickScheduler.forHost(mHost);
 
       mMidiIn1 = mHost.getMidiInPort(0);
       mMidiIn2 = mHost.getMidiInPort(1);
@@ -106,17 +109,11 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
       mPopupBrowser.exists().markInterested();
 
       setMode(Mode.PLAY);
-
-      blinkTimer();
    }
 
-   private void blinkTimer()
+   private boolean isBlinkOn()
    {
-      int BLINK_RATE = 160;
-
-      mBlink = !mBlink;
-
-      mHost.scheduleTask(this::blinkTimer, BLINK_RATE);
+      return mTickScheduler.isBlinkOn(BLINK_RATE);
    }
 
    private void updateIndications()
@@ -334,6 +331,7 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
    public void exit()
    {
       mMidiOut2.sendMidi(0x90, 12, 0);
+      TickScheduler.release(mHost);
    }
 
    @Override
@@ -409,7 +407,7 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
                mPadLeds[p].setColor(SimpleLedColor.Off);
             }
 
-            if (mBlink)
+            if (isBlinkOn())
             {
                if (slot.isStopQueued().get())
                {
@@ -451,6 +449,8 @@ public class LaunchkeyMiniControllerExtension extends ControllerExtension
 
    private ControllerHost mHost;
 
+   private TickScheduler mTickScheduler;
+
    private MidiIn mMidiIn1;
    private MidiIn mMidiIn2;
    private MidiOut mMidiOut1;
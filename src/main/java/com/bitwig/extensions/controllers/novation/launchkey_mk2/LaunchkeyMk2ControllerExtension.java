@@ -1,9 +1,10 @@
 package com.bitwig.extensions.controllers.novation.launchkey_mk2;
 
-import java.util.Arrays;
-
 import com.bitwig.extensions.controllers.novation.common.DefaultPalette;
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.NoteTranslation;
+import com.bitwig.extensions.framework.PaletteMapper;
+import com.bitwig.extensions.framework.TickScheduler;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.BooleanValue;
 import com.bitwig.extension.controller.api.ClipLauncherSlot;
@@ -32,6 +33,11 @@ import static com.bitwig.extension.controller.api.CursorDeviceFollowMode.FIRST_I
 
 public class LaunchkeyMk2ControllerExtension extends ControllerExtension
 {
+   private static final int BLINK_RATE = 160;
+
+   /** Maps the keys sent by the pads to the notes of the first 16 drum pads. */
+   private static final int[] DRUM_PADS_TABLE = createDrumPadsTable();
+
    enum Mode
    {
       DRUM, PLAY, LAUNCH;
@@ -44,7 +50,6 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    }
 
    Mode mMode;
-   private boolean mBlink = true;
    private boolean mIgnoreModeChanges = false;
 
    public LaunchkeyMk2ControllerExtension(
@@ -58,6 +63,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    public void init()
    {
       mHost = getHost();
+      mTickScheduler = TickScheduler.forHost(mHost);
 
       mMidiIn1 = mHost.getMidiInPort(0);
       mMidiIn2 = mHost.getMidiInPort(1);
@@ -70,6 +76,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
       final NoteInput noteInput = mMidiIn1.createNoteInput("Keys");
       mPadsInput = mMidiIn2.createNoteInput("Pads");
       mPadsInput.setShouldConsumeEvents(false);
+      mPadsTranslation = new NoteTranslation(mPadsInput);
 
       mTransport = mHost.createTransport();
       mCursorTrack = mHost.createCursorTrack(0, 0);
@@ -139,17 +146,11 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
       mMidiOut2.sendMidi(0x9F, 12, 127);  // set to Extended mode
 
       setMode(Mode.PLAY, false);
-
-      blinkTimer();
    }
 
-   private void blinkTimer()
+   private boolean isBlinkOn()
    {
-      int BLINK_RATE = 160;
-
-      mBlink = !mBlink;
-
-      mHost.scheduleTask(this::blinkTimer, BLINK_RATE);
+      return mTickScheduler.isBlinkOn(BLINK_RATE);
    }
 
    private void updateIndications()
@@ -209,24 +210,23 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
 
    private void updateDrumPads()
    {
-      Integer[] table = new Integer[128];
-
       if (mMode == Mode.DRUM)
-      {
-         for(int k=0; k<128; k++)
-         {
-            table[k] = keyToPadIndex(k);
-         }
-      }
+         mPadsTranslation.setKeyTable(DRUM_PADS_TABLE);
       else
+         mPadsTranslation.setNoNotes();
+   }
+
+   private static int[] createDrumPadsTable()
+   {
+      final int[] table = new int[NoteTranslation.TABLE_SIZE];
+      for (int k = 0; k < table.length; k++)
       {
-         Arrays.fill(table, Integer.valueOf(-1));
+         table[k] = keyToPadIndex(k);
       }
-
-      mPadsInput.setKeyTranslationTable(table);
+      return table;
    }
 
-   private int keyToPadIndex(final int key)
+   private static int keyToPadIndex(final int key)
    {
       if (key >= 112 && key < 116)
       {
@@ -514,6 +514,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    public void exit()
    {
       mMidiOut2.sendMidi(0x9F, 12, 0);
+      TickScheduler.release(mHost);
    }
 
    @Override
@@ -589,7 +590,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
             }
             else if (slot.hasContent().get())
             {
-               final int colorIndex = DefaultPalette.getColorIndexClosestToColor(slot.color());
+               final int colorIndex = mPaletteMapper.map(slot.color());
                mPadLeds[p].setColor(colorIndex);
             }
             else if (track.arm().get())
@@ -601,7 +602,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
                mPadLeds[p].setColor(offColor);
             }
 
-            if (mBlink)
+            if (isBlinkOn())
             {
                if (slot.isStopQueued().get())
                {
@@ -637,7 +638,7 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
 
             if (drumPad.exists().get())
             {
-               padColor = DefaultPalette.getColorIndexClosestToColor(drumPad.color());
+               padColor = mPaletteMapper.map(drumPad.color());
             }
 
             mPadLeds[p].setColor(notePlaying ? white : padColor);
@@ -700,6 +701,8 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
 
    private ControllerHost mHost;
 
+   private TickScheduler mTickScheduler;
+
    private MidiIn mMidiIn1;
    private MidiIn mMidiIn2;
    private MidiOut mMidiOut1;
@@ -746,8 +749,10 @@ public class LaunchkeyMk2ControllerExtension extends ControllerExtension
    private MasterTrack mMasterTrack;
    private Transport mTransport;
    private NoteInput mPadsInput;
+   private NoteTranslation mPadsTranslation;
    private DrumPadBank mDrumPadBank;
    private PinnableCursorDevice mDrumDevice;
    private CursorRemoteControlsPage mDrumRemoteControls;
    private boolean mSoloMode = false;
+   private final PaletteMapper mPaletteMapper = DefaultPalette.createMapper();
 }
@@ -10,7 +10,6 @@ import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.PinnableCursorClip;
 import com.bitwig.extension.controller.api.SettableBeatTimeValue;
-import com.bitwig.extension.controller.api.NoteStep;
 import com.bitwig.extension.controller.api.Track;
 
 abstract class AbstractSequencerMode extends Mode
@@ -51,9 +50,9 @@ abstract class AbstractSequencerMode extends Mode
 
       bindPressed(mDriver.mUpButton, cursorClip.selectPreviousAction());
       bindPressed(mDriver.mDownButton, cursorClip.selectNextAction());
-      bindLightState(() -> cursorClip.hasPrevious().get() ? new LedState(cursorTrack.color()) : new LedState(Color.scale(new Color(cursorTrack.color()), .2f)),
+      bindLightState(() -> cursorClip.hasPrevious().get() ? LedState.of(cursorTrack.color()) : LedState.of(Color.scale(Color.fromColorValue(cursorTrack.color()), .2f)),
          mDriver.mUpButton);
-      bindLightState(() -> cursorClip.hasNext().get() ? new LedState(cursorTrack.color()) : new LedState(Color.scale(new Color(cursorTrack.color()), .2f)),
+      bindLightState(() -> cursorClip.hasNext().get() ? LedState.of(cursorTrack.color()) : LedState.of(Color.scale(Color.fromColorValue(cursorTrack.color()), .2f)),
          mDriver.mDownButton);
 
       bindLayer(mDriver.mShiftButton, mShiftLayer);
@@ -86,6 +85,8 @@ abstract class AbstractSequencerMode extends Mode
       if (clip.exists().get())
          setNoteInputRouting();
 
+      mDriver.mStepGrid.invalidate();
+
       final CursorTrack cursorTrack = mDriver.mCursorTrack;
       cursorTrack.subscribe();
       cursorTrack.color().subscribe();
@@ -177,34 +178,35 @@ abstract class AbstractSequencerMode extends Mode
          {
             case 0: return LedState.VOLUME_MODE_LOW;
             case 1: return LedState.PAN_MODE_LOW;
-            case 2: return new LedState(Color.CYAN_LOW);
-            case 3: return new LedState(Color.WHITE_LOW);
+            case 2: return LedState.of(Color.CYAN_LOW);
+            case 3: return LedState.of(Color.WHITE_LOW);
             default: throw new IllegalStateException();
          }
       }
 
       final Button pad = pads.get(0);
       final int clipStepIndex = calculateClipStepIndex(pad.mX - 1, 8 - pad.mY);
-      final NoteStep noteStep = findStepInfo(clipStepIndex);
+      final int key = findStepKey(clipStepIndex);
+      final StepGrid stepGrid = mDriver.mStepGrid;
 
-      final double gain = noteStep.gain();
-      final double velocity = noteStep.velocity();
-      final double duration = noteStep.duration();
-      final double pan = noteStep.pan();
+      final double gain = stepGrid.getGain(clipStepIndex, key);
+      final double velocity = stepGrid.getVelocity(clipStepIndex, key);
+      final double duration = stepGrid.getDuration(clipStepIndex, key);
+      final double pan = stepGrid.getPan(clipStepIndex, key);
 
       switch (y)
       {
          case 0:
-            return new LedState(x <= gain * 7 ? Color.VOLUME_MODE : Color.VOLUME_MODE_LOW);
+            return LedState.of(x <= gain * 7 ? Color.VOLUME_MODE : Color.VOLUME_MODE_LOW);
          case 1:
             final double ipan = (x - 3.5) / 3.5;
             if ((pan > 0 && ipan > 0 && ipan <= pan) || (pan < 0 && ipan < 0 && pan <= ipan))
                return LedState.PAN_MODE;
             return LedState.PAN_MODE_LOW;
          case 2:
-            return new LedState(computeDuration(x) <= duration ? Color.CYAN : Color.CYAN_LOW);
+            return LedState.of(computeDuration(x) <= duration ? Color.CYAN : Color.CYAN_LOW);
          case 3:
-            return new LedState(x <= velocity * 7 ? Color.WHITE : Color.WHITE_LOW);
+            return LedState.of(x <= velocity * 7 ? Color.WHITE : Color.WHITE_LOW);
          default:
             throw new IllegalStateException();
       }
@@ -219,56 +221,81 @@ abstract class AbstractSequencerMode extends Mode
          switch (y)
          {
             case 0: return LedState.OFF;
-            case 1: return new LedState(Color.BLUE_LOW);
-            case 2: return new LedState(Color.YELLOW_LOW);
-            case 3: return new LedState(Color.WHITE_LOW);
+            case 1: return LedState.of(Color.BLUE_LOW);
+            case 2: return LedState.of(Color.YELLOW_LOW);
+            case 3: return LedState.of(Color.WHITE_LOW);
             default: throw new IllegalStateException();
          }
       }
 
       final Button pad = pads.get(0);
       final int clipStepIndex = calculateClipStepIndex(pad.mX - 1, 8 - pad.mY);
-      final NoteStep noteStep = findStepInfo(clipStepIndex);
+      final int key = findStepKey(clipStepIndex);
+      final StepGrid stepGrid = mDriver.mStepGrid;
 
-      final double transpose = noteStep.transpose();
-      final double pressure = noteStep.pressure();
-      final double timbre = noteStep.timbre();
+      final double transpose = stepGrid.getTranspose(clipStepIndex, key);
+      final double pressure = stepGrid.getPressure(clipStepIndex, key);
+      final double timbre = stepGrid.getTimbre(clipStepIndex, key);
 
       switch (y)
       {
          case 0:
             return LedState.OFF;
          case 1:
-            return new LedState(x <= pressure * 7 ? Color.BLUE : Color.BLUE_LOW);
+            return LedState.of(x <= pressure * 7 ? Color.BLUE : Color.BLUE_LOW);
          case 2:
             final double itimbre = (x - 3.5) / 3.5;
             if ((timbre > 0 && itimbre > 0 && itimbre <= timbre) || (timbre < 0 && itimbre < 0 && timbre <= itimbre))
-               return new LedState(Color.YELLOW);
-            return new LedState(Color.YELLOW_LOW);
+               return LedState.of(Color.YELLOW);
+            return LedState.of(Color.YELLOW_LOW);
          case 3:
             final double itranspose = computeTranspoose(x);
             if ((transpose > 0 && itranspose > 0 && itranspose <= transpose) || (transpose < 0 && itranspose < 0 && transpose <= itranspose))
-               return new LedState(Color.WHITE);
-            return new LedState(Color.WHITE_LOW);
+               return LedState.of(Color.WHITE);
+            return LedState.of(Color.WHITE_LOW);
          default:
             throw new IllegalStateException();
       }
    }
 
-   abstract protected NoteStep findStepInfo(int clipStepIndex);
+   /** The key whose data is shown and edited for the step. */
+   abstract protected int findStepKey(int clipStepIndex);
+
+   /**
+    * Returns the light state of the step pad, it is only computed again when the step changed in the step grid, the
+    * play head entered or left it, or it got held or released.
+    */
+   protected LedState getStepLedState(final int x, final int y)
+   {
+      final int clipStepIndex = calculateClipStepIndex(x, y);
+      final boolean isHeld = mDriver.getPadButton(x, 7 - y).getButtonState() == Button.State.HOLD;
+      final StepGrid stepGrid = mDriver.mStepGrid;
+
+      if (stepGrid.isDirty(clipStepIndex) || isHeld != mStepIsHeld[clipStepIndex]
+         || mStepLedStates[clipStepIndex] == null)
+      {
+         mStepLedStates[clipStepIndex] = computeStepLedState(clipStepIndex, isHeld);
+         mStepIsHeld[clipStepIndex] = isHeld;
+         stepGrid.clearDirty(clipStepIndex);
+      }
+
+      return mStepLedStates[clipStepIndex];
+   }
+
+   abstract protected LedState computeStepLedState(int clipStepIndex, boolean isHeld);
 
    protected LedState computeDataChoiceLedState(final int y)
    {
       switch (y)
       {
          case 0:
-            return new LedState(mDataMode == DataMode.SoundData ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.SoundData ? Color.YELLOW : Color.YELLOW_LOW);
          case 1:
-            return new LedState(mDataMode == DataMode.MixData ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.MixData ? Color.YELLOW : Color.YELLOW_LOW);
          case 2:
-            return new LedState(hasMainAltMode() ? mDataMode == DataMode.MainAlt ? Color.YELLOW : Color.YELLOW_LOW : Color.OFF);
+            return LedState.of(hasMainAltMode() ? mDataMode == DataMode.MainAlt ? Color.YELLOW : Color.YELLOW_LOW : Color.OFF);
          case 3:
-            return new LedState(mDataMode == DataMode.Main ? Color.YELLOW : Color.YELLOW_LOW);
+            return LedState.of(mDataMode == DataMode.Main ? Color.YELLOW : Color.YELLOW_LOW);
       }
       throw new IllegalStateException();
    }
@@ -283,9 +310,9 @@ abstract class AbstractSequencerMode extends Mode
       final int playingStep = clip.playingStep().get();
 
       if (playingStep / 32 == y)
-         return new LedState(mPage == y ? Color.GREEN : Color.GREEN_LOW);
+         return LedState.of(mPage == y ? Color.GREEN : Color.GREEN_LOW);
       else if (8 * y < length)
-         return new LedState(mPage == y ? Color.WHITE : Color.WHITE_LOW);
+         return LedState.of(mPage == y ? Color.WHITE : Color.WHITE_LOW);
       return LedState.OFF;
    }
 
@@ -295,7 +322,7 @@ abstract class AbstractSequencerMode extends Mode
       final SettableBeatTimeValue loopLength = clip.getLoopLength();
       final double duration = loopLength.get();
 
-      return new LedState((y + 1) * 4 <= duration ? Color.WHITE : Color.WHITE_LOW);
+      return LedState.of((y + 1) * 4 <= duration ? Color.WHITE : Color.WHITE_LOW);
    }
 
    protected void setClipLength(final double lengthInBars)
@@ -421,6 +448,8 @@ abstract class AbstractSequencerMode extends Mode
    protected Set<Integer> mStepsBeingAdded = new HashSet<>();
 
    protected final LaunchpadLayer mShiftLayer;
+   private final LedState[] mStepLedStates = new LedState[StepGrid.STEP_COUNT];
+   private final boolean[] mStepIsHeld = new boolean[StepGrid.STEP_COUNT];
    private int mStepsInHoldStateFlushIteration = -1;
    private List<Button> mStepsInHoldState;
    private int mStepsInPressedOrHoldStateFlushIteration = -1;
@@ -101,8 +101,7 @@ final class Button
       return mButtonState == State.PRESSED || mButtonState == State.HOLD;
    }
 
-   public void appendLedUpdate(
-      final StringBuilder ledClear, final StringBuilder ledUpdate, final StringBuilder ledPulseUpdate)
+   public void appendLedUpdate(final LedSysexEncoder encoder)
    {
       final ObjectHardwareProperty<InternalHardwareLightState> state = mLight.state();
       LedState currentState = (LedState)state.currentValue();
@@ -120,12 +119,12 @@ final class Button
       if (pulse == NO_PULSE)
       {
          if (color.isBlack())
-            ledClear.append(String.format(" %02x 00", mIndex));
+            encoder.appendClear(mIndex);
          else
-            ledUpdate.append(String.format(" %02x %02x %02x %02x", mIndex, color.mRed, color.mGreen, color.mBlue));
+            encoder.appendColor(mIndex, color.mRed, color.mGreen, color.mBlue);
       }
       else
-         ledPulseUpdate.append(String.format(" %02x %02x", mIndex, pulse));
+         encoder.appendPulse(mIndex, pulse);
    }
 
    // For debugging
@@ -4,28 +4,34 @@ import com.bitwig.extension.controller.api.ColorValue;
 
 final class Color
 {
+   /**
+    * Canonical instances indexed by (red, green) then blue, so that equal colors are always the same object.
+    * Declared before the constants below so that it is initialized first.
+    */
+   private static final Color[][] CACHE = new Color[64 * 64][];
+
    static final Color OFF = Color.fromRgb255(0, 0, 0);
 
-   static final Color BLUE = new Color(0.f, 0.f, 1.f);
-   static final Color BLUE_LOW = new Color(BLUE, 0.1f);
+   static final Color BLUE = fromRgb(0.f, 0.f, 1.f);
+   static final Color BLUE_LOW = scale(BLUE, 0.1f);
 
-   static final Color GREEN = new Color(0.f, 1.f, 0.f);
-   static final Color GREEN_LOW = new Color(GREEN, 0.1f);
+   static final Color GREEN = fromRgb(0.f, 1.f, 0.f);
+   static final Color GREEN_LOW = scale(GREEN, 0.1f);
 
-   static final Color RED = new Color(1.f, 0.f, 0.f);
-   static final Color RED_LOW = new Color(RED, 0.1f);
+   static final Color RED = fromRgb(1.f, 0.f, 0.f);
+   static final Color RED_LOW = scale(RED, 0.1f);
 
-   static final Color WHITE = new Color(1.f, 1.f, 1.f);
-   static final Color WHITE_LOW = new Color(WHITE, 0.1f);
+   static final Color WHITE = fromRgb(1.f, 1.f, 1.f);
+   static final Color WHITE_LOW = scale(WHITE, 0.1f);
 
-   static final Color YELLOW = new Color(1.f, 1.f, 0.f);
-   static final Color YELLOW_LOW = new Color(YELLOW, 0.1f);
+   static final Color YELLOW = fromRgb(1.f, 1.f, 0.f);
+   static final Color YELLOW_LOW = scale(YELLOW, 0.1f);
 
-   static final Color ORANGE = new Color(1.f, .3f, .0f);
-   static final Color ORANGE_LOW = new Color(ORANGE, 0.1f);
+   static final Color ORANGE = fromRgb(1.f, .3f, .0f);
+   static final Color ORANGE_LOW = scale(ORANGE, 0.1f);
 
-   static final Color CYAN = new Color(.0f, 1.f, 1.f);
-   static final Color CYAN_LOW = new Color(CYAN, .1f);
+   static final Color CYAN = fromRgb(.0f, 1.f, 1.f);
+   static final Color CYAN_LOW = scale(CYAN, .1f);
 
    static final Color PURPLE = Color.fromRgb255(219, 3, 252);
    static final Color PURPLE_LOW = Color.scale(PURPLE, 0.1f);
@@ -33,14 +39,14 @@ final class Color
    static final Color PAN_MODE = fromRgb255(255, 85, 127);
    static final Color PAN_MODE_LOW = scale(PAN_MODE, 0.1f);
 
-   static final Color SENDS_MODE = new Color(1.f, 1.f, 0.f);
-   static final Color SENDS_MODE_LOW = new Color(SENDS_MODE, 0.1f);
+   static final Color SENDS_MODE = fromRgb(1.f, 1.f, 0.f);
+   static final Color SENDS_MODE_LOW = scale(SENDS_MODE, 0.1f);
 
    static final Color TRACK = CYAN;
-   static final Color TRACK_LOW = new Color(TRACK, 0.1f);
+   static final Color TRACK_LOW = scale(TRACK, 0.1f);
 
    static final Color SCENE = WHITE;
-   static final Color SCENE_LOW = new Color(SCENE, 0.1f);
+   static final Color SCENE_LOW = scale(SCENE, 0.1f);
 
    static final Color VOLUME_MODE = Color.fromRgb255(126, 87, 20);
    static final Color VOLUME_MODE_LOW = Color.scale(VOLUME_MODE, 0.1f);
@@ -49,7 +55,7 @@ final class Color
    static final Color SOLO_LOW = Color.scale(SOLO, 0.1f);
 
    static final Color PITCH = ORANGE;
-   static final Color PITCH_LOW = new Color(PITCH, 0.1f);
+   static final Color PITCH_LOW = scale(PITCH, 0.1f);
 
    static final Color MUTE = Color.fromRgb255(255, 85, 0);
    static final Color MUTE_LOW = Color.scale(MUTE, 0.1f);
@@ -61,17 +67,17 @@ final class Color
    static final Color STEP_SUSTAIN = Color.scale(STEP_ON, 0.1f);
    static final Color STEP_OFF = OFF;
 
-   static final Color SESSION_MODE_ON = new Color(1.f, 1.f, 0.f);
-   static final Color SESSION_MODE_OFF = new Color(SESSION_MODE_ON, 0.1f);
+   static final Color SESSION_MODE_ON = fromRgb(1.f, 1.f, 0.f);
+   static final Color SESSION_MODE_OFF = scale(SESSION_MODE_ON, 0.1f);
 
    final static Color PLAY_MODE = Color.fromRgb255(11, 100, 63);
    final static Color PLAY_MODE_OFF = Color.scale(PLAY_MODE, 0.2f);
 
    final static Color DRUM_SEQ_MODE = Color.fromRgb255(255, 183, 0);
-   final static Color DRUM_SEQ_MODE_OFF = new Color(DRUM_SEQ_MODE, .1f);
+   final static Color DRUM_SEQ_MODE_OFF = scale(DRUM_SEQ_MODE, .1f);
 
    static final Color STEP_SEQ_MODE = Color.fromRgb255(255, 183, 0);
-   static final Color STEP_SEQ_MODE_OFF = new Color(STEP_SEQ_MODE, .1f);
+   static final Color STEP_SEQ_MODE_OFF = scale(STEP_SEQ_MODE, .1f);
 
    static final Color SHIFT_ON = WHITE;
    static final Color SHIFT_OFF = WHITE_LOW;
@@ -100,7 +106,39 @@ final class Color
    static final Color STOP_CLIP_ON = Color.fromRgb255(180, 180, 180);
    static final Color STOP_CLIP_OFF = Color.scale(STOP_CLIP_ON, 0.3f);
 
-   Color(final float red, final float green, final float blue)
+   private Color(final byte red, final byte green, final byte blue)
+   {
+      mRed = red;
+      mGreen = green;
+      mBlue = blue;
+   }
+
+   /** Returns the shared instance for the given 6 bit color components. */
+   static Color of(final int red, final int green, final int blue)
+   {
+      assert red >= 0 && red < 64;
+      assert green >= 0 && green < 64;
+      assert blue >= 0 && blue < 64;
+
+      final int rg = (clamp(red) << 6) | clamp(green);
+      Color[] row = CACHE[rg];
+      if (row == null)
+      {
+         row = new Color[64];
+         CACHE[rg] = row;
+      }
+
+      final int b = clamp(blue);
+      Color color = row[b];
+      if (color == null)
+      {
+         color = new Color((byte)(rg >> 6), (byte)(rg & 63), (byte)b);
+         row[b] = color;
+      }
+      return color;
+   }
+
+   static Color fromRgb(final float red, final float green, final float blue)
    {
       assert red >= 0;
       assert red <= 1.0f;
@@ -109,45 +147,46 @@ final class Color
       assert blue >= 0;
       assert blue <= 1.0f;
 
-      mRed = (byte)(63 * red);
-      mGreen = (byte)(63 * green);
-      mBlue = (byte)(63 * blue);
+      return of((int)(63 * red), (int)(63 * green), (int)(63 * blue));
    }
 
-   private Color(final byte red, final byte green, final byte blue)
+   static Color fromColorValue(final ColorValue value)
    {
-      mRed = red;
-      mGreen = green;
-      mBlue = blue;
+      return fromRgb(value.red(), value.green(), value.blue());
    }
 
-   public Color(final ColorValue value)
+   static Color fromRgb255(final int r, final int g, final int b)
    {
-      this(value.red(), value.green(), value.blue());
+      return fromRgb(r / 255.0f, g / 255.0f, b / 255.0f);
    }
 
-   public Color(final Color color, final float scale)
+   private static int clamp(final int component)
    {
-      mRed = (byte) (color.mRed * scale);
-      mGreen = (byte) (color.mGreen * scale);
-      mBlue = (byte) (color.mBlue * scale);
+      return Math.max(0, Math.min(63, component));
    }
 
-   static Color fromRgb255(final int r, final int g, final int b)
+   public boolean equals(final Color color)
+   {
+      return this == color || (mRed == color.mRed && mGreen == color.mGreen && mBlue == color.mBlue);
+   }
+
+   @Override
+   public boolean equals(final Object obj)
    {
-      return new Color(r / 255.0f, g / 255.0f, b / 255.0f);
+      return obj instanceof Color && equals((Color) obj);
    }
 
-   public boolean equals(final Color color)
+   @Override
+   public int hashCode()
    {
-      return this == color || (mRed == color.mRed && mGreen == color.mGreen && mBlue == color.mBlue);
+      return (mRed << 12) | (mGreen << 6) | mBlue;
    }
 
    public static Color scale(final Color color, final float scale)
    {
-      return new Color((byte) (color.mRed * scale),
-         (byte) (color.mGreen * scale),
-         (byte) (color.mBlue * scale));
+      return of((int) (color.mRed * scale),
+         (int) (color.mGreen * scale),
+         (int) (color.mBlue * scale));
    }
 
    public boolean isBlack()
@@ -163,4 +202,8 @@ final class Color
    final byte mRed;
    final byte mGreen;
    final byte mBlue;
+
+   /* Shared led states of this color, see LedState.of() */
+   LedState mLedState;
+   LedState[] mPulsedLedStates;
 }
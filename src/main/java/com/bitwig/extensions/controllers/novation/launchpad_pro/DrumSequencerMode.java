@@ -10,13 +10,11 @@ import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.DrumPad;
 import com.bitwig.extension.controller.api.DrumPadBank;
 import com.bitwig.extension.controller.api.Arpeggiator;
-import com.bitwig.extension.controller.api.PinnableCursorClip;
 import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 import com.bitwig.extension.controller.api.RemoteControl;
 import com.bitwig.extension.controller.api.SettableIntegerValue;
 import com.bitwig.extension.controller.api.NoteStep;
 import com.bitwig.extension.controller.api.Track;
-import com.bitwig.extensions.util.NoteInputUtils;
 
 final class DrumSequencerMode extends AbstractSequencerMode
 {
@@ -24,8 +22,6 @@ final class DrumSequencerMode extends AbstractSequencerMode
    {
       super(driver, "drum-sequencer");
 
-      final PinnableCursorClip cursorClip = driver.mCursorClip;
-
       mShiftLayer = new LaunchpadLayer(driver, "drum-sequencer-shift");
       mDrumPadsLayer = new LaunchpadLayer(driver, "drum-pads");
       mMainActionsLayer = new LaunchpadLayer(driver, "drum-main-actions");
@@ -53,7 +49,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
                bt.onButtonReleased();
                onStepReleased(clipStepIndex, wasHeld);
             });
-            bindLightState(() -> computeStepSeqLedState(X, 3 - Y), bt);
+            bindLightState(() -> getStepLedState(X, 3 - Y), bt);
          }
 
          final Button sceneButton = driver.mSceneButtons[y + 4];
@@ -61,7 +57,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
          final int Y = y;
          bindPressed(sceneButton, () -> {
             mPage = page;
-            cursorClip.scrollToStep(32 * page);
+            mDriver.mStepGrid.scrollToStep(32 * page);
          });
          bindLightState(() -> computePatternOffsetLedState(3 - Y), sceneButton);
 
@@ -136,25 +132,25 @@ final class DrumSequencerMode extends AbstractSequencerMode
          }
       }
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadSelectOn() ? Color.TRACK : Color.TRACK_LOW), mDriver.getPadButton(4, 0));
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadMuteOn() || mDriver.isDeleteOn() ? Color.MUTE : Color.MUTE_LOW), mDriver.getPadButton(5, 0));
-      mMainActionsLayer.bindLightState(() -> new LedState(isDrumPadSoloOn() || mDriver.isDeleteOn() ? Color.SOLO : Color.SOLO_LOW), mDriver.getPadButton(6, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadSelectOn() ? Color.TRACK : Color.TRACK_LOW), mDriver.getPadButton(4, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadMuteOn() || mDriver.isDeleteOn() ? Color.MUTE : Color.MUTE_LOW), mDriver.getPadButton(5, 0));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isDrumPadSoloOn() || mDriver.isDeleteOn() ? Color.SOLO : Color.SOLO_LOW), mDriver.getPadButton(6, 0));
       mMainActionsLayer.bindLightState(LedState.OFF, mDriver.getPadButton(7, 0));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 1) ? Color.BLUE : Color.BLUE_LOW), mDriver.getPadButton(4, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 1) ? Color.RED : Color.RED_LOW), mDriver.getPadButton(5, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 1) ? Color.GREEN : Color.GREEN_LOW), mDriver.getPadButton(6, 1));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 1) ? Color.WHITE : Color.WHITE_LOW), mDriver.getPadButton(7, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 1) ? Color.BLUE : Color.BLUE_LOW), mDriver.getPadButton(4, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 1) ? Color.RED : Color.RED_LOW), mDriver.getPadButton(5, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 1) ? Color.GREEN : Color.GREEN_LOW), mDriver.getPadButton(6, 1));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 1) ? Color.WHITE : Color.WHITE_LOW), mDriver.getPadButton(7, 1));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 2) ? Color.PURPLE : Color.PURPLE_LOW), mDriver.getPadButton(4, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(5, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(6, 2));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(7, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 2) ? Color.PURPLE : Color.PURPLE_LOW), mDriver.getPadButton(4, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(5, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(6, 2));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 2) ? Color.ORANGE : Color.ORANGE_LOW), mDriver.getPadButton(7, 2));
 
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(4, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(4, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(5, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(5, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(6, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(6, 3));
-      mMainActionsLayer.bindLightState(() -> new LedState(isActionOn(7, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(7, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(4, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(4, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(5, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(5, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(6, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(6, 3));
+      mMainActionsLayer.bindLightState(() -> LedState.of(isActionOn(7, 3) ? Color.YELLOW : Color.YELLOW_LOW), mDriver.getPadButton(7, 3));
    }
 
    @Override
@@ -322,7 +318,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       if (mDriver.isShiftOn() || (mDataMode != DataMode.Main && mDataMode != DataMode.MainAlt))
          return;
@@ -413,7 +409,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
             mDriver.mDrumPadBank.clearMutedPads();
          if (mDriver.isDeleteOn() && x == 2 && y == 0)
             mDriver.mDrumPadBank.clearSoloedPads();
-         mDriver.mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+         mDriver.mNoteTranslation.setNoNotes();
       }
       else if (y == 1)
       {
@@ -576,8 +572,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
          cursorClip.clearStep(absoluteStep, mCurrentPitch);
       else
       {
-         final NoteStep noteStep = cursorClip.getStep(0, absoluteStep, mCurrentPitch);
-         if (noteStep.state() != NoteStep.State.NoteOn)
+         if (mDriver.mStepGrid.getState(absoluteStep, mCurrentPitch) != StepGrid.STATE_NOTE_ON)
          {
             cursorClip.setStep(absoluteStep, mCurrentPitch, velocity, 1.0 / 4.0);
             mStepsBeingAdded.add(absoluteStep);
@@ -592,8 +587,8 @@ final class DrumSequencerMode extends AbstractSequencerMode
       if (mDriver.isShiftOn() || mDriver.isDeleteOn())
          return;
 
-      final NoteStep noteStep = cursorClip.getStep(0, absoluteStep, mCurrentPitch);
-      if (noteStep.state() == NoteStep.State.NoteOn && !wasHeld && !mStepsBeingAdded.contains(absoluteStep))
+      final int state = mDriver.mStepGrid.getState(absoluteStep, mCurrentPitch);
+      if (state == StepGrid.STATE_NOTE_ON && !wasHeld && !mStepsBeingAdded.contains(absoluteStep))
          cursorClip.clearStep(absoluteStep, mCurrentPitch);
 
       mStepsBeingAdded.remove(absoluteStep);
@@ -622,10 +617,21 @@ final class DrumSequencerMode extends AbstractSequencerMode
          final DrumPadBank drumPadBank = mDriver.mDrumPadBank;
          final DrumPad drumPad = drumPadBank.getItemAt(x + 4 * y);
          drumPad.selectInEditor();
-         mCurrentPitch = key;
+         setCurrentPitch(key);
       }
       else
-         mCurrentPitch = key;
+         setCurrentPitch(key);
+   }
+
+   private void setCurrentPitch(final int pitch)
+   {
+      if (pitch == mCurrentPitch)
+         return;
+
+      mCurrentPitch = pitch;
+
+      // The step pads show the steps of the current pitch
+      mDriver.mStepGrid.invalidate();
    }
 
    private boolean isActionOn(final int x, final int y)
@@ -653,9 +659,9 @@ final class DrumSequencerMode extends AbstractSequencerMode
    }
 
    @Override
-   protected NoteStep findStepInfo(final int clipStepIndex)
+   protected int findStepKey(final int clipStepIndex)
    {
-      return mDriver.mCursorClip.getStep(0, clipStepIndex, mCurrentPitch);
+      return mCurrentPitch;
    }
 
    private LedState computePerfAndScenesLedState(final int x, final int y)
@@ -667,36 +673,35 @@ final class DrumSequencerMode extends AbstractSequencerMode
       {
          final RemoteControl perfParam = drumPerfsRemoteControls.getParameter(x + (3 - y) * 4);
          if (perfParam.exists().get())
-            return new LedState(Color.scale(Color.CYAN, (float) (0.95 * perfParam.get() + 0.05)));
+            return LedState.of(Color.scale(Color.CYAN, (float) (0.95 * perfParam.get() + 0.05)));
       }
       else
       {
          final RemoteControl sceneParam = drumScenesRemoteControls.getParameter(x + (1 - y) * 4);
          if (sceneParam.exists().get())
-            return new LedState(Color.scale(Color.YELLOW, (float) (0.9 * sceneParam.get() + 0.1)));
+            return LedState.of(Color.scale(Color.YELLOW, (float) (0.9 * sceneParam.get() + 0.1)));
       }
       return LedState.OFF;
    }
 
-   private LedState computeStepSeqLedState(final int x, final int y)
+   @Override
+   protected LedState computeStepLedState(final int clipStepIndex, final boolean isHeld)
    {
-      final Clip clip = mDriver.mCursorClip;
-      final int playingStep = clip.playingStep().get();
-
-      final NoteStep noteStep = clip.getStep(0, calculateClipStepIndex(x, y), mCurrentPitch);
+      final StepGrid stepGrid = mDriver.mStepGrid;
+      final int state = stepGrid.getState(clipStepIndex, mCurrentPitch);
 
-      if (playingStep == mPage * 32 + 8 * y + x)
-         return new LedState(noteStep.state() == NoteStep.State.NoteOn ? Color.STEP_PLAY : Color.STEP_PLAY_HEAD);
-      if (mDriver.getPadButton(x, 7- y).getButtonState() == Button.State.HOLD)
-         return new LedState(Color.STEP_HOLD);
-      switch (noteStep.state())
+      if (stepGrid.isPlayingStep(clipStepIndex))
+         return LedState.of(state == StepGrid.STATE_NOTE_ON ? Color.STEP_PLAY : Color.STEP_PLAY_HEAD);
+      if (isHeld)
+         return LedState.of(Color.STEP_HOLD);
+      switch (state)
       {
-         case NoteOn:
-            return new LedState(Color.STEP_ON);
-         case NoteSustain:
-            return new LedState(Color.STEP_SUSTAIN);
-         case Empty:
-            return new LedState(Color.STEP_OFF);
+         case StepGrid.STATE_NOTE_ON:
+            return LedState.of(Color.STEP_ON);
+         case StepGrid.STATE_NOTE_SUSTAIN:
+            return LedState.of(Color.STEP_SUSTAIN);
+         case StepGrid.STATE_EMPTY:
+            return LedState.of(Color.STEP_OFF);
       }
 
       throw new IllegalStateException();
@@ -716,20 +721,20 @@ final class DrumSequencerMode extends AbstractSequencerMode
       final boolean drumPadExists = hasDrumPads & drumPad.exists().get();
       final boolean drumPadIsSolo = drumPadExists & drumPad.solo().get();
       final boolean drumPadIsMuted = drumPadExists & !drumPadIsSolo & (drumPad.mute().get() | drumPad.isMutedBySolo().get());
-      final Color color = new Color(drumPad.color());
+      final Color color = Color.fromColorValue(drumPad.color());
 
       if (isPlaying)
-         return new LedState(drumPadIsMuted ? Color.GREEN_LOW : Color.GREEN);
+         return LedState.of(drumPadIsMuted ? Color.GREEN_LOW : Color.GREEN);
       if (mCurrentPitch == pitch)
-         return new LedState(drumPadIsMuted ? Color.TRACK_LOW : Color.TRACK);
+         return LedState.of(drumPadIsMuted ? Color.TRACK_LOW : Color.TRACK);
       if (hasDrumPads)
       {
          if (drumPadExists)
-            return new LedState(drumPadIsSolo ? Color.YELLOW : drumPadIsMuted ? Color.scale(color, .1f) : color);
+            return LedState.of(drumPadIsSolo ? Color.YELLOW : drumPadIsMuted ? Color.scale(color, .1f) : color);
          else
-            return new LedState(Color.WHITE_LOW);
+            return LedState.of(Color.WHITE_LOW);
       }
-      return new LedState(clip.color());
+      return LedState.of(clip.color());
    }
 
    @Override
@@ -752,7 +757,7 @@ final class DrumSequencerMode extends AbstractSequencerMode
 
    private void invalidateDrumPosition(final int newPosition)
    {
-      mCurrentPitch = newPosition;
+      setCurrentPitch(newPosition);
       updateDrumPadsBankPosition();
    }
 
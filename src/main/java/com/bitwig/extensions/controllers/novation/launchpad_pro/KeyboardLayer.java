@@ -4,6 +4,7 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.bitwig.extensions.framework.MusicalScale;
+import com.bitwig.extensions.framework.NoteTranslation;
 
 final class KeyboardLayer extends LaunchpadLayer
 {
@@ -17,6 +18,9 @@ final class KeyboardLayer extends LaunchpadLayer
 
    private final static int MAX_OCTAVE = 10;
 
+   /** Number of key translation tables kept, enough to go back and forth between a few scales and octaves. */
+   private final static int KEY_TABLE_CACHE_SIZE = 32;
+
    static private boolean isBlackKey(int pitch)
    {
       pitch = pitch % 12;
@@ -144,9 +148,9 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(midiNote))
          return LedState.STEP_PLAY;
       if (mDriver.mHighlightRootKeySetting.get() && midiNoteBase == mDriver.getMusicalKey())
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else if (!mDriver.mHighlightScaleSetting.get() || scale.isMidiNoteInScale(mDriver.getMusicalKey(), midiNoteBase))
-         return new LedState(isBlackKey(midiNote) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
+         return LedState.of(isBlackKey(midiNote) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
       return LedState.OFF;
    }
 
@@ -162,15 +166,15 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(pitch))
          return LedState.STEP_PLAY;
       if ((noteIndex % 12) == mDriver.getMusicalKey())
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else if (scale.isMidiNoteInScale(mDriver.getMusicalKey(), noteIndex))
       {
          /* note in scale */
-         return new LedState(isBlackKey(pitch) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
+         return LedState.of(isBlackKey(pitch) ? USED_BLACK_KEY_COLOR : USED_WHITE_KEY_COLOR);
       }
 
       /* note not in scale */
-      return new LedState(UNUSED_KEY_COLOR);
+      return LedState.of(UNUSED_KEY_COLOR);
    }
 
    private LedState computeLineLedState(final int X, final int x, final int y, final Color trackColor)
@@ -186,15 +190,26 @@ final class KeyboardLayer extends LaunchpadLayer
       if (mIsPlaying.apply(midiNode))
          return LedState.STEP_PLAY;
       if (noteIndex % scaleSize == 0)
-         return new LedState(trackColor);
+         return LedState.of(trackColor);
       else
-         return new LedState(USED_WHITE_KEY_COLOR);
+         return LedState.of(USED_WHITE_KEY_COLOR);
    }
 
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       assert table.length == 128;
 
+      // Safe pitches only changes which keys are filtered, it is folded into the layout part of the key
+      final int layout = mDriver.getKeyboardLayout().ordinal() | (mDriver.mSafePitchesSetting.get() ? 0x100 : 0);
+      final long cacheKey = NoteTranslation.cacheKey(mDriver.getMusicalScale().getIndexInLibrary(),
+         mDriver.getMusicalKey(), layout, mOctave);
+
+      final int[] keys = mKeyTableCache.get(cacheKey, this::computeKeyTranslationTable);
+      System.arraycopy(keys, 0, table, 0, 128);
+   }
+
+   private void computeKeyTranslationTable(final int[] table)
+   {
       for (int i = 0; i < 128; ++i)
       {
          if (i < 11 || (i % 10 == 0) || (i % 10 == 9) || i > 89)
@@ -277,6 +292,7 @@ final class KeyboardLayer extends LaunchpadLayer
    private final int mWidth;
    private final int mHeight;
    private int mOctave = 3;
+   private final NoteTranslation.TableCache mKeyTableCache = new NoteTranslation.TableCache(KEY_TABLE_CACHE_SIZE);
    private final Supplier<Color> mTrackColorSupplier;
    private final Function<Integer, Boolean> mIsPlaying;
 }
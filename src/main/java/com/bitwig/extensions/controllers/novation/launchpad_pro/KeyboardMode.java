@@ -6,7 +6,6 @@ import com.bitwig.extension.controller.api.NoteInput;
 import com.bitwig.extension.controller.api.NoteLatch;
 import com.bitwig.extension.controller.api.PlayingNoteArrayValue;
 import com.bitwig.extension.controller.api.SettableIntegerValue;
-import com.bitwig.extensions.util.NoteInputUtils;
 
 final class KeyboardMode extends Mode
 {
@@ -16,7 +15,7 @@ final class KeyboardMode extends Mode
 
       final CursorTrack cursorTrack = driver.mCursorTrack;
       final PlayingNoteArrayValue playingNotes = cursorTrack.playingNotes();
-      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> new Color(cursorTrack.color()),
+      mKeyboardLayer = new KeyboardLayer(driver, "keyboard", 0, 0, 8, 8, () -> Color.fromColorValue(cursorTrack.color()),
          playingNotes::isNotePlaying, null);
 
       bindPressed(driver.mRightButton, cursorTrack.selectNextAction());
@@ -81,7 +80,7 @@ final class KeyboardMode extends Mode
    {
       mConfigLayer.deactivate();
       mKeyboardLayer.deactivate();
-      mDriver.mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+      mDriver.mNoteTranslation.setNoNotes();
 
       final CursorTrack cursorTrack = mDriver.mCursorTrack;
       cursorTrack.playingNotes().unsubscribe();
@@ -92,7 +91,7 @@ final class KeyboardMode extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       mKeyboardLayer.updateKeyTranslationTable(table);
       if (mConfigLayer.isActive())
@@ -43,7 +43,7 @@ import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
 import com.bitwig.extensions.framework.MusicalScale;
 import com.bitwig.extensions.framework.MusicalScaleLibrary;
-import com.bitwig.extensions.util.NoteInputUtils;
+import com.bitwig.extensions.framework.NoteTranslation;
 
 final class LaunchpadProControllerExtension extends ControllerExtension
 {
@@ -337,6 +337,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       mCursorClip.getLoopLength().markInterested();
       mCursorClip.playingStep().markInterested();
       mCursorClip.getTrack().playingNotes().markInterested();
+      mStepGrid = new StepGrid(mCursorClip);
       final ClipLauncherSlot cursorClipSlot = mCursorClip.clipLauncherSlot();
       cursorClipSlot.sceneIndex().markInterested();
 
@@ -417,9 +418,11 @@ final class LaunchpadProControllerExtension extends ControllerExtension
       final ControllerHost host = getHost();
       mMidiIn = host.getMidiInPort(0);
       mMidiOut = host.getMidiOutPort(0);
+      mLedSysexEncoder = new LedSysexEncoder(mMidiOut);
 
       mNoteInput = mMidiIn.createNoteInput("Input", "8?????", "9?????", "A?????", "D?????", "E?????");
-      mNoteInput.setKeyTranslationTable(NoteInputUtils.NO_NOTES);
+      mNoteTranslation = new NoteTranslation(mNoteInput);
+      mNoteTranslation.setNoNotes();
       mNoteInput.includeInAllInputs().markInterested();
 
       mNoteLatch = mNoteInput.noteLatch();
@@ -564,14 +567,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    public void updateButtonLed(final Button button)
    {
-      button.appendLedUpdate(mLedClearSysexBuffer, mLedColorUpdateSysexBuffer, mLedPulseUpdateSysexBuffer);
-
-      // Lets not send sysex that are too big
-      if (mLedColorUpdateSysexBuffer.length() >= 4 * 3 * 48)
-      {
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
-         mLedColorUpdateSysexBuffer.setLength(0); // clears it
-      }
+      button.appendLedUpdate(mLedSysexEncoder);
    }
 
    public int getFlushIteration()
@@ -583,20 +579,10 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    public void flush()
    {
       ++mFlushIteration;
-      mLedClearSysexBuffer.setLength(0);
-      mLedColorUpdateSysexBuffer.setLength(0);
-      mLedPulseUpdateSysexBuffer.setLength(0);
 
       mHardwareSurface.updateHardware();
 
-      if (mLedClearSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 0A" + mLedClearSysexBuffer + " F7");
-
-      if (mLedColorUpdateSysexBuffer.length() > 0)
-         sendLedUpdateSysex(mLedColorUpdateSysexBuffer.toString());
-
-      if (mLedPulseUpdateSysexBuffer.length() > 0)
-         mMidiOut.sendSysex("F0 00 20 29 02 10 28" + mLedPulseUpdateSysexBuffer + " F7");
+      mLedSysexEncoder.flush();
    }
 
    private boolean isRecording()
@@ -650,11 +636,11 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    void updateKeyTranslationTable()
    {
-      final Integer[] table = NoteInputUtils.NO_NOTES.clone();
+      final int[] table = mNoteTranslation.beginKeyTable();
       mCurrentMode.updateKeyTranslationTable(table);
       if (mBottomOverlay != null)
          mBottomOverlay.updateKeyTranslationTable(table);
-      mNoteInput.setKeyTranslationTable(table);
+      mNoteTranslation.applyKeyTable();
    }
 
    /**
@@ -715,12 +701,12 @@ final class LaunchpadProControllerExtension extends ControllerExtension
 
    Color getTrackColor(final int i)
    {
-      return new Color(mTrackBank.getItemAt(i).color());
+      return Color.fromColorValue(mTrackBank.getItemAt(i).color());
    }
 
    Color getCursorTrackColor()
    {
-      return new Color(mCursorTrack.color());
+      return Color.fromColorValue(mCursorTrack.color());
    }
 
    private void setKeyboardLayout(final KeyboardLayout keyboardLayout)
@@ -746,6 +732,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    MidiIn mMidiIn;
    MidiOut mMidiOut;
    NoteInput mNoteInput;
+   NoteTranslation mNoteTranslation;
    MasterTrack mMasterTrack;
    TrackBank mTrackBank;
    SceneBank mSceneBank;
@@ -754,6 +741,7 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    UserControlBank mUserControls;
    DocumentState mDocumentState;
    PinnableCursorClip mCursorClip;
+   StepGrid mStepGrid;
    CursorRemoteControlsPage mDrumScenesRemoteControls;
    CursorRemoteControlsPage mDrumPerfsRemoteControls;
    Arpeggiator mArpeggiator;
@@ -834,8 +822,6 @@ final class LaunchpadProControllerExtension extends ControllerExtension
    /* Used to cache complex computed values during the flush required for painting */
    private int mFlushIteration = 0;
 
-   /* Sysex buffer for flushing */
-   private final StringBuilder mLedClearSysexBuffer = new StringBuilder();
-   private final StringBuilder mLedColorUpdateSysexBuffer = new StringBuilder();
-   private final StringBuilder mLedPulseUpdateSysexBuffer = new StringBuilder();
+   /* Sysex frames for flushing */
+   private LedSysexEncoder mLedSysexEncoder;
 }
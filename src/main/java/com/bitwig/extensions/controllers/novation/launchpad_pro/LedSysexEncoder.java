@@ -0,0 +1,77 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.SysexFrameWriter;
+
+/**
+ * Encodes the LED updates of a flush directly into preallocated sysex frames: one frame for clearing LEDs
+ * (0x0A), one for setting RGB colors (0x0B) and one for pulsing LEDs (0x28). A frame is sent as soon as it
+ * reaches the maximum message length, the remaining updates are sent by {@link #flush()}.
+ */
+final class LedSysexEncoder
+{
+   private static final String HEADER = "F0 00 20 29 02 10";
+
+   private static final int CLEAR_COMMAND = 0x0A;
+   private static final int RGB_COMMAND = 0x0B;
+   private static final int PULSE_COMMAND = 0x28;
+
+   /** Let's not send sysex that are too big, this is the payload size of 48 RGB updates. */
+   private static final int MAX_PAYLOAD_SIZE = 4 * 48;
+
+   LedSysexEncoder(final MidiOut midiOut)
+   {
+      mMidiOut = midiOut;
+      mClearFrame = createFrame(CLEAR_COMMAND);
+      mRgbFrame = createFrame(RGB_COMMAND);
+      mPulseFrame = createFrame(PULSE_COMMAND);
+   }
+
+   private static SysexFrameWriter createFrame(final int command)
+   {
+      return SysexFrameWriter.fromHex(HEADER + String.format(" %02X", command), MAX_PAYLOAD_SIZE);
+   }
+
+   void appendClear(final int index)
+   {
+      reserve(mClearFrame, 2).addByte(index).addByte(0);
+   }
+
+   void appendColor(final int index, final int red, final int green, final int blue)
+   {
+      reserve(mRgbFrame, 4).addByte(index).addByte(red).addByte(green).addByte(blue);
+   }
+
+   void appendPulse(final int index, final int pulse)
+   {
+      reserve(mPulseFrame, 2).addByte(index).addByte(pulse);
+   }
+
+   /** Sends the pending clear, color and pulse frames, in that order. */
+   void flush()
+   {
+      send(mClearFrame);
+      send(mRgbFrame);
+      send(mPulseFrame);
+   }
+
+   /** Sends the frame first if the entry doesn't fit anymore. */
+   private SysexFrameWriter reserve(final SysexFrameWriter frame, final int entrySize)
+   {
+      if (frame.getPayloadSize() + entrySize > MAX_PAYLOAD_SIZE)
+         frame.send(mMidiOut);
+
+      return frame;
+   }
+
+   private void send(final SysexFrameWriter frame)
+   {
+      if (!frame.isEmpty())
+         frame.send(mMidiOut);
+   }
+
+   private final MidiOut mMidiOut;
+   private final SysexFrameWriter mClearFrame;
+   private final SysexFrameWriter mRgbFrame;
+   private final SysexFrameWriter mPulseFrame;
+}
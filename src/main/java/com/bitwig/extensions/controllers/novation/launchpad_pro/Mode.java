@@ -38,7 +38,7 @@ abstract class Mode extends LaunchpadLayer
       /* for subclasses */
    }
 
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
    }
 
@@ -80,7 +80,7 @@ class MultiplexerMode extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       mModes[mSelectedIndex].updateKeyTranslationTable(table);
    }
@@ -144,7 +144,7 @@ final class NoteLatchAndArpeggiatorConfigLayer extends LaunchpadLayer
       mDriver.updateKeyTranslationTable();
    }
 
-   public void updateKeyTranslationTable(final Integer[] table)
+   public void updateKeyTranslationTable(final int[] table)
    {
       for (int x = 0; x < 8; ++x)
          for (int y = 0; y < 2; ++y)
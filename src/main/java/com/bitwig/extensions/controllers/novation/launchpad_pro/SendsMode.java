@@ -28,7 +28,7 @@ final class SendsMode extends Mode
                if (!track.exists().get())
                   return LedState.OFF;
                if (value >= padValue)
-                  return new LedState(track.color());
+                  return LedState.of(track.color());
                return LedState.OFF;
             }, button.mLight);
          }
@@ -44,12 +44,12 @@ final class SendsMode extends Mode
             if (!send.exists().get())
                return LedState.OFF;
 
-            Color sendColor = new Color(send.sendChannelColor());
+            Color sendColor = Color.fromColorValue(send.sendChannelColor());
 
             if (sendColor.equals(Color.OFF))
                sendColor = Color.WHITE;
-            final Color sendColorLow = new Color(sendColor, 0.1f);
-            return new LedState(Y == mSendIndex ? sendColor : sendColorLow);
+            final Color sendColorLow = Color.scale(sendColor, 0.1f);
+            return LedState.of(Y == mSendIndex ? sendColor : sendColorLow);
          }, sceneButton);
          bindPressed(sceneButton, () -> setSendIndex(Y));
       }
@@ -73,21 +73,21 @@ final class SessionMode extends Mode
       Color color;
       if (scene.exists().get())
       {
-         color = new Color(scene.color());
+         color = Color.fromColorValue(scene.color());
          if (color.isBlack())
             color = Color.SCENE;
       }
       else
          color = Color.OFF;
 
-      return new LedState(color);
+      return LedState.of(color);
    }
 
    private InternalHardwareLightState computeGridLedState(final ClipLauncherSlot slot)
    {
       assert slot.isSubscribed();
 
-      final Color color = new Color(slot.color());
+      final Color color = Color.fromColorValue(slot.color());
       final int pulse;
 
       if (slot.isStopQueued().get())
@@ -103,7 +103,7 @@ final class SessionMode extends Mode
       else
          pulse = Button.NO_PULSE;
 
-      return new LedState(color, pulse);
+      return LedState.of(color, pulse);
    }
 
    @Override
@@ -0,0 +1,224 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import com.bitwig.extension.controller.api.NoteStep;
+import com.bitwig.extension.controller.api.PinnableCursorClip;
+
+/**
+ * Local copy of the steps visible in the cursor clip window, fed by the note step observer.
+ *
+ * The sequencer modes read the note state and data from here instead of querying the clip for every pad on every
+ * flush. Each step has a dirty bit which is set when one of its notes changes or when the play head enters or
+ * leaves it, so a play head advance only makes two pads compute a new state.
+ */
+final class StepGrid
+{
+   static final int STEP_COUNT = 32;
+   static final int KEY_COUNT = 128;
+
+   static final int STATE_EMPTY = 0;
+   static final int STATE_NOTE_SUSTAIN = 1;
+   static final int STATE_NOTE_ON = 2;
+
+   private static final int ALL_STEPS_DIRTY = -1;
+
+   StepGrid(final PinnableCursorClip clip)
+   {
+      super();
+
+      mClip = clip;
+      clip.addNoteStepObserver(this::onNoteStepChanged);
+      clip.playingStep().addValueObserver(this::onPlayingStepChanged, -1);
+   }
+
+   /** Scrolls the clip window, the steps are then relative to firstStep. */
+   void scrollToStep(final int firstStep)
+   {
+      if (firstStep == mFirstStep)
+         return;
+
+      mClip.scrollToStep(firstStep);
+      mFirstStep = firstStep;
+      invalidate();
+   }
+
+   boolean isPlayingStep(final int step)
+   {
+      return mPlayingStep == mFirstStep + step;
+   }
+
+   int getState(final int step, final int key)
+   {
+      return mStates[index(step, key)];
+   }
+
+   /** The state of the step across all keys: note on if any key has a note starting, otherwise sustain if any. */
+   int getVerticalState(final int step)
+   {
+      if (hasNoteOn(step))
+         return STATE_NOTE_ON;
+      if ((mSustainKeys[2 * step] | mSustainKeys[2 * step + 1]) != 0)
+         return STATE_NOTE_SUSTAIN;
+      return STATE_EMPTY;
+   }
+
+   boolean hasNoteOn(final int step)
+   {
+      return (mNoteOnKeys[2 * step] | mNoteOnKeys[2 * step + 1]) != 0;
+   }
+
+   /**
+    * @return the lowest key from fromKey on which has a note starting at the step, -1 if there is none
+    */
+   int nextNoteOnKey(final int step, final int fromKey)
+   {
+      for (int word = fromKey >> 6; word < 2; ++word)
+      {
+         long keys = mNoteOnKeys[2 * step + word];
+         if (word == fromKey >> 6)
+            keys &= -1L << (fromKey & 63);
+
+         if (keys != 0)
+            return 64 * word + Long.numberOfTrailingZeros(keys);
+      }
+
+      return -1;
+   }
+
+   double getVelocity(final int step, final int key)
+   {
+      return mVelocities[index(step, key)];
+   }
+
+   double getDuration(final int step, final int key)
+   {
+      return mDurations[index(step, key)];
+   }
+
+   double getPan(final int step, final int key)
+   {
+      return mPans[index(step, key)];
+   }
+
+   double getGain(final int step, final int key)
+   {
+      return mGains[index(step, key)];
+   }
+
+   double getTranspose(final int step, final int key)
+   {
+      return mTransposes[index(step, key)];
+   }
+
+   double getTimbre(final int step, final int key)
+   {
+      return mTimbres[index(step, key)];
+   }
+
+   double getPressure(final int step, final int key)
+   {
+      return mPressures[index(step, key)];
+   }
+
+   boolean isDirty(final int step)
+   {
+      return (mDirtySteps & (1 << step)) != 0;
+   }
+
+   void clearDirty(final int step)
+   {
+      mDirtySteps &= ~(1 << step);
+   }
+
+   /** Marks every step dirty, for changes that affect how all steps are shown. */
+   void invalidate()
+   {
+      mDirtySteps = ALL_STEPS_DIRTY;
+   }
+
+   private void onNoteStepChanged(final NoteStep noteStep)
+   {
+      final int step = noteStep.x();
+      final int key = noteStep.y();
+
+      if (noteStep.channel() != 0 || step < 0 || step >= STEP_COUNT || key < 0 || key >= KEY_COUNT)
+         return;
+
+      final int index = index(step, key);
+      final int state = toState(noteStep.state());
+
+      mStates[index] = (byte)state;
+      mVelocities[index] = noteStep.velocity();
+      mDurations[index] = noteStep.duration();
+      mPans[index] = noteStep.pan();
+      mGains[index] = noteStep.gain();
+      mTransposes[index] = noteStep.transpose();
+      mTimbres[index] = noteStep.timbre();
+      mPressures[index] = noteStep.pressure();
+
+      final int word = 2 * step + (key >> 6);
+      final long bit = 1L << (key & 63);
+
+      if (state == STATE_NOTE_ON)
+         mNoteOnKeys[word] |= bit;
+      else
+         mNoteOnKeys[word] &= ~bit;
+
+      if (state == STATE_NOTE_SUSTAIN)
+         mSustainKeys[word] |= bit;
+      else
+         mSustainKeys[word] &= ~bit;
+
+      mDirtySteps |= 1 << step;
+   }
+
+   private void onPlayingStepChanged(final int playingStep)
+   {
+      markDirty(mPlayingStep - mFirstStep);
+      mPlayingStep = playingStep;
+      markDirty(mPlayingStep - mFirstStep);
+   }
+
+   private void markDirty(final int step)
+   {
+      if (step >= 0 && step < STEP_COUNT)
+         mDirtySteps |= 1 << step;
+   }
+
+   private static int index(final int step, final int key)
+   {
+      return step * KEY_COUNT + key;
+   }
+
+   private static int toState(final NoteStep.State state)
+   {
+      switch (state)
+      {
+         case NoteOn:
+            return STATE_NOTE_ON;
+         case NoteSustain:
+            return STATE_NOTE_SUSTAIN;
+         case Empty:
+         default:
+            return STATE_EMPTY;
+      }
+   }
+
+   private final PinnableCursorClip mClip;
+   private final byte[] mStates = new byte[STEP_COUNT * KEY_COUNT];
+   private final double[] mVelocities = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mDurations = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mPans = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mGains = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mTransposes = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mTimbres = new double[STEP_COUNT * KEY_COUNT];
+   private final double[] mPressures = new double[STEP_COUNT * KEY_COUNT];
+
+   /** Two words per step, bit key is set if the key has a note starting or sustaining at the step. */
+   private final long[] mNoteOnKeys = new long[2 * STEP_COUNT];
+   private final long[] mSustainKeys = new long[2 * STEP_COUNT];
+
+   /** Bit step is set if the state of the step changed since it was last shown. */
+   private int mDirtySteps = ALL_STEPS_DIRTY;
+   private int mFirstStep = 0;
+   private int mPlayingStep = -1;
+}
@@ -5,7 +5,6 @@ import java.util.List;
 import com.bitwig.extension.controller.api.Clip;
 import com.bitwig.extension.controller.api.CursorTrack;
 import com.bitwig.extension.controller.api.NoteStep;
-import com.bitwig.extension.controller.api.PinnableCursorClip;
 import com.bitwig.extension.controller.api.SettableColorValue;
 import com.bitwig.extension.controller.api.Track;
 
@@ -15,10 +14,8 @@ final class StepSequencerMode extends AbstractSequencerMode
    {
       super(driver, "step-sequencer");
 
-      final PinnableCursorClip cursorClip = driver.mCursorClip;
-
       mKeyboardLayer = new KeyboardLayer(driver, "step-sequencer-keyboard", 0, 0, 8, 4,
-         () -> new Color(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
+         () -> Color.fromColorValue(mDriver.mCursorClip.color()), this::isKeyOn, this::onKeyDataPressed);
       mMixDataLayer = new LaunchpadLayer(driver, "drum-seq-mix-data");
       mSoundDataLayer = new LaunchpadLayer(driver, "drum-seq-sound-data");
 
@@ -42,7 +39,7 @@ final class StepSequencerMode extends AbstractSequencerMode
                bt.onButtonReleased();
                onStepReleased(clipStepIndex, wasHeld);
             });
-            bindLightState(() -> computeStepSeqLedState(X, 3 - Y), bt);
+            bindLightState(() -> getStepLedState(X, 3 - Y), bt);
          }
 
          final Button sceneButton = driver.mSceneButtons[y + 4];
@@ -50,7 +47,7 @@ final class StepSequencerMode extends AbstractSequencerMode
          final int Y = y;
          bindPressed(sceneButton, () -> {
             mPage = page;
-            cursorClip.scrollToStep(page * 32);
+            mDriver.mStepGrid.scrollToStep(page * 32);
          });
          bindLightState(() -> computePatternOffsetLedState(3 - Y), sceneButton);
 
@@ -143,25 +140,17 @@ final class StepSequencerMode extends AbstractSequencerMode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       if (mDataMode == DataMode.Main && mStepPressedCount == 0)
          mKeyboardLayer.updateKeyTranslationTable(table);
-
-      mDriver.mNoteInput.setKeyTranslationTable(table);
    }
 
    @Override
-   protected NoteStep findStepInfo(final int clipStepIndex)
+   protected int findStepKey(final int clipStepIndex)
    {
-      final Clip cursorClip = mDriver.mCursorClip;
-      for (int key = 0; key < 128; ++key)
-      {
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         if (noteStep.state() == NoteStep.State.NoteOn)
-            return noteStep;
-      }
-      return cursorClip.getStep(0, clipStepIndex, 0);
+      final int key = mDriver.mStepGrid.nextNoteOnKey(clipStepIndex, 0);
+      return key != -1 ? key : 0;
    }
 
    private boolean isKeyOn(final int key)
@@ -171,66 +160,37 @@ final class StepSequencerMode extends AbstractSequencerMode
       if (mDriver.mCursorClip.getTrack().playingNotes().isNotePlaying(key))
          return true;
 
-      final Clip cursorClip = mDriver.mCursorClip;
       final List<Button> stepsInHoldState = getStepsInHoldState();
       for (final Button button : stepsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(button.mX - 1, 8 - button.mY);
 
-         final NoteStep noteStep = cursorClip.getStep(0, clipStepIndex, key);
-         return noteStep.state() == NoteStep.State.NoteOn;
+         return mDriver.mStepGrid.getState(clipStepIndex, key) == StepGrid.STATE_NOTE_ON;
       }
 
       return false;
    }
 
-   private LedState computeStepSeqLedState(final int x, final int y)
+   @Override
+   protected LedState computeStepLedState(final int clipStepIndex, final boolean isHeld)
    {
-      final Clip clip = mDriver.mCursorClip;
-      final int playingStep = clip.playingStep().get();
-
-      final int clipStepIndex = calculateClipStepIndex(x, y);
-      final NoteStep noteStep = computeVerticalStepState(clipStepIndex);
-
-      if (playingStep == mPage * 32 + 8 * y + x)
+      if (mDriver.mStepGrid.isPlayingStep(clipStepIndex))
          return LedState.STEP_PLAY_HEAD;
-      if (mDriver.getPadButton(x, 7- y).getButtonState() == Button.State.HOLD)
+      if (isHeld)
          return LedState.STEP_HOLD;
-      switch (noteStep.state())
+      switch (mDriver.mStepGrid.getVerticalState(clipStepIndex))
       {
-         case NoteOn:
+         case StepGrid.STATE_NOTE_ON:
             return LedState.STEP_ON;
-         case NoteSustain:
+         case StepGrid.STATE_NOTE_SUSTAIN:
             return LedState.STEP_SUSTAIN;
-         case Empty:
+         case StepGrid.STATE_EMPTY:
             return LedState.STEP_OFF;
          default:
             throw new IllegalStateException();
       }
    }
 
-   private NoteStep computeVerticalStepState(final int absoluteStepIndex)
-   {
-      final Clip clip = mDriver.mCursorClip;
-      NoteStep value = clip.getStep(0, absoluteStepIndex, 0);
-
-      for (int i = 0; i < 128; ++i)
-      {
-         final NoteStep noteStep = clip.getStep(0, absoluteStepIndex, i);
-         switch (noteStep.state())
-         {
-            case NoteOn:
-               return noteStep;
-            case NoteSustain:
-               value = noteStep;
-               break;
-            case Empty:
-               /* Nothing to do */
-         }
-      }
-      return value;
-   }
-
    void invalidate()
    {
       if (!isActive())
@@ -242,17 +202,17 @@ final class StepSequencerMode extends AbstractSequencerMode
    private void onMixDataPressed(final int x, final int y)
    {
       final Clip clip = mDriver.mCursorClip;
+      final StepGrid stepGrid = mDriver.mStepGrid;
       final List<Button> padsInHoldState = mDriver.findPadsInHoldState();
 
       for (final Button buttonState : padsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
+         for (int key = stepGrid.nextNoteOnKey(clipStepIndex, 0); key != -1;
+              key = stepGrid.nextNoteOnKey(clipStepIndex, key + 1))
          {
             final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
 
             switch (y)
             {
@@ -279,17 +239,17 @@ final class StepSequencerMode extends AbstractSequencerMode
    private void onSoundDataPressed(final int x, final int y)
    {
       final Clip clip = mDriver.mCursorClip;
+      final StepGrid stepGrid = mDriver.mStepGrid;
       final List<Button> padsInHoldState = mDriver.findPadsInHoldState();
 
       for (final Button buttonState : padsInHoldState)
       {
          final int clipStepIndex = calculateClipStepIndex(buttonState.mX - 1, 8 - buttonState.mY);
 
-         for (int key = 0; key < 128; ++key)
+         for (int key = stepGrid.nextNoteOnKey(clipStepIndex, 0); key != -1;
+              key = stepGrid.nextNoteOnKey(clipStepIndex, key + 1))
          {
             final NoteStep noteStep = clip.getStep(0, clipStepIndex, key);
-            if (noteStep.state() != NoteStep.State.NoteOn)
-               continue;
 
             switch (y)
             {
@@ -346,8 +306,7 @@ final class StepSequencerMode extends AbstractSequencerMode
       if (mDriver.isShiftOn() || mDriver.isDeleteOn())
          return;
 
-      final NoteStep noteStep = computeVerticalStepState(absoluteStep);
-      if (noteStep.state() == NoteStep.State.NoteOn && !wasHeld)
+      if (mDriver.mStepGrid.hasNoteOn(absoluteStep) && !wasHeld)
          cursorClip.clearStepsAtX(0, absoluteStep);
    }
 
@@ -27,7 +27,7 @@ final class VolumeMode extends Mode
                if (!track.exists().get())
                   return LedState.OFF;
                if (value >= padValue)
-                  return new LedState(track.color());
+                  return LedState.of(track.color());
                return LedState.OFF;
             }, button.mLight);
          }
@@ -86,7 +86,7 @@ final class VolumeMode extends Mode
    }
 
    @Override
-   void updateKeyTranslationTable(final Integer[] table)
+   void updateKeyTranslationTable(final int[] table)
    {
       for (int i = 0; i < 128; ++i)
          table[i] = -1;
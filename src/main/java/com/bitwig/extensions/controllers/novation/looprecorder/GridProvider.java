@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.novation.looprecorder;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.SysexRouter;
 import com.bitwig.extension.controller.api.MidiOut;
 
 public abstract class GridProvider
@@ -48,7 +49,10 @@ public abstract class GridProvider
     */
    public abstract boolean handleMidiIn(int status, int data1, int data2);
 
-   public abstract boolean handleSysexIn(final String sysex);
+   /**
+    * Registers the handlers of the sysex messages sent by the controller.
+    */
+   public abstract void registerSysexHandlers(final SysexRouter router);
 
    /**
     * Flushes the leds
@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.novation.looprecorder;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.SysexRouter;
 import com.bitwig.extension.controller.api.MidiOut;
 
 public class LaunchpadMiniGridProvider extends GridProvider
@@ -117,9 +118,8 @@ public class LaunchpadMiniGridProvider extends GridProvider
    }
 
    @Override
-   public boolean handleSysexIn(String sysex)
+   public void registerSysexHandlers(final SysexRouter router)
    {
-      return false;
    }
 
    @Override
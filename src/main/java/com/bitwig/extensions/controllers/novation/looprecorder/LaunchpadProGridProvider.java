@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.novation.looprecorder;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.SysexRouter;
 import com.bitwig.extension.controller.api.MidiOut;
 
 /**
@@ -101,10 +102,10 @@ public class LaunchpadProGridProvider extends GridProvider
    }
 
    @Override
-   public boolean handleSysexIn(String sysex)
+   public void registerSysexHandlers(final SysexRouter router)
    {
-      mReady = true;
-      return true;
+      // Any sysex from the device means it is ready
+      router.register("F0 ...", message -> mReady = true);
    }
 
    @Override
@@ -1,6 +1,7 @@
 package com.bitwig.extensions.controllers.novation.looprecorder;
 
 import com.bitwig.extensions.controllers.novation.common.SimpleLed;
+import com.bitwig.extensions.framework.SysexRouter;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.Application;
 import com.bitwig.extension.controller.api.ClipLauncherSlot;
@@ -41,6 +42,7 @@ public class LoopRecorderExtension extends ControllerExtension
 
    /* Abstraction to the launchpad variants */
    private GridProvider mGrid = null;
+   private SysexRouter mSysexRouter = null;
 
    /* Host objects */
    private ControllerHost mHost = null;
@@ -144,6 +146,8 @@ public class LoopRecorderExtension extends ControllerExtension
             break;
       }
 
+      mSysexRouter = new SysexRouter();
+      mGrid.registerSysexHandlers(mSysexRouter);
       mGrid.init();
    }
 
@@ -337,7 +341,7 @@ public class LoopRecorderExtension extends ControllerExtension
    private void onSysexIn(final String sysex)
    {
       //mHost.println("onSysexIn: '" + sysex + "', " + sysex.length());
-      mGrid.handleSysexIn(sysex);
+      mSysexRouter.dispatch(sysex);
    }
 
    private void onMidiIn(final int status, final int data1, final int data2)
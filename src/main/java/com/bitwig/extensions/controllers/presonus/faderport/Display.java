@@ -1,17 +1,20 @@
 package com.bitwig.extensions.controllers.presonus.faderport;
 
-import com.bitwig.extension.api.util.midi.SysexBuilder;
 import com.bitwig.extension.controller.api.HardwareTextDisplay;
 import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.SysexFrameWriter;
 
 class Display
 {
    private static int TEXT_LINES = 7;
 
-   public Display(final int channel, final String sysexHeader, final PresonusFaderPort extension)
+   /** Longest payload after the header: command, channel, line, flags and 7 characters. */
+   static final int MAX_SYSEX_PAYLOAD = 11;
+
+   public Display(final int channel, final SysexFrameWriter sysexFrame, final PresonusFaderPort extension)
    {
       mChannel = channel;
-      mSysexHeader = sysexHeader;
+      mSysexFrame = sysexFrame;
       mExtension = extension;
       mTextDisplay = extension.mHardwareSurface.createHardwareTextDisplay("display" + (channel + 1),
          TEXT_LINES);
@@ -67,12 +70,8 @@ class Display
 
       if (mode != mLastMode)
       {
-         final SysexBuilder sb = SysexBuilder.fromHex(mSysexHeader);
-         sb.addHex("13");
-         sb.addByte(mChannel);
          final int m = mode.ordinal() & 0xF;
-         sb.addByte(m);
-         midiOutPort.sendSysex(sb.terminate());
+         mSysexFrame.begin().addByte(0x13).addByte(mChannel).addByte(m).send(midiOutPort);
       }
 
       for (int line = 0; line < TEXT_LINES; line++)
@@ -93,14 +92,8 @@ class Display
             mLastText[line] = text;
             mLastFlags[line] = flags;
 
-            final SysexBuilder sb = SysexBuilder.fromHex(mSysexHeader);
-            sb.addHex("12");
-            sb.addByte(mChannel);
-            sb.addByte(line);
-            sb.addByte(flags);
-            sb.addString(text, Math.min(7, text.length()));
-
-            midiOutPort.sendSysex(sb.terminate());
+            mSysexFrame.begin().addByte(0x12).addByte(mChannel).addByte(line).addByte(flags)
+               .addString(text, Math.min(7, text.length())).send(midiOutPort);
          }
       }
 
@@ -117,7 +110,7 @@ class Display
 
    private ValueBarMode mLastValueBarMode;
 
-   private final String mSysexHeader;
+   private final SysexFrameWriter mSysexFrame;
 
    private final String[] mLastText = new String[TEXT_LINES];
 
@@ -5,7 +5,6 @@ import java.util.function.Supplier;
 
 import com.bitwig.extension.api.Color;
 import com.bitwig.extension.api.util.midi.ShortMidiMessage;
-import com.bitwig.extension.callback.DoubleValueChangedCallback;
 import com.bitwig.extension.callback.ShortMidiMessageReceivedCallback;
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.Action;
@@ -37,6 +36,9 @@ import com.bitwig.extension.controller.api.TrackBank;
 import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.LayerGroup;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.MotorFaderOutput;
+import com.bitwig.extensions.framework.SysexFrameWriter;
+import com.bitwig.extensions.framework.TickScheduler;
 import com.bitwig.extensions.util.ValueUtils;
 
 public abstract class PresonusFaderPort extends ControllerExtension
@@ -53,6 +55,9 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private static final Color ARM_HIGH = Color.fromRGB(1.0f, 0.0f, 0.0f);
 
+   /** Keeps dense volume automation from saturating the MIDI link. */
+   private static final int MOTOR_FADER_MIN_UPDATE_INTERVAL_MS = 20;
+
    static int[] SELECT_IDS = { 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d, 0x1e, 0x1f, 0x7, 0x21, 0x22, 0x23, 0x24,
          0x25, 0x26, 0x27 };
 
@@ -137,7 +142,8 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
       mChannelCount = definition.channelCount();
       mChannels = new Channel[mChannelCount];
-      mSysexHeader = "F0 00 01 06 " + definition.sysexDeviceID();
+      mDisplaySysexFrame = SysexFrameWriter.fromHex("F0 00 01 06 " + definition.sysexDeviceID(),
+         Display.MAX_SYSEX_PAYLOAD);
    }
 
    @Override
@@ -154,6 +160,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
       mMidiIn.setMidiCallback((ShortMidiMessageReceivedCallback)this::onMidi);
 
       mMidiOut = host.getMidiOutPort(0);
+      mMotorFaderOutput = new MotorFaderOutput(host, mMidiOut, MOTOR_FADER_MIN_UPDATE_INTERVAL_MS);
 
       mCursorTrack = host.createCursorTrack(0, 0);
 
@@ -185,6 +192,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
       initLayers();
 
       runningStatusTimer();
+      TickScheduler.forHost(getHost()).subscribe(1000, this::runningStatusTimer);
 
       initDeviceMode();
    }
@@ -345,31 +353,13 @@ public abstract class PresonusFaderPort extends ControllerExtension
       fader.isUpdatingTargetValue().markInterested();
       fader.hasTargetValue().markInterested();
 
-      final DoubleValueChangedCallback moveFader = new DoubleValueChangedCallback()
-      {
-         @Override
-         public void valueChanged(final double value)
-         {
-            // getHost().println("Moving fader to " + value + ", " + fader.isUpdatingTargetValue().get() + ",
-            // "
-            // + fader.hasTargetValue().get());
-
-            if (!fader.isUpdatingTargetValue().get())
-            {
-               final int faderValue = Math.max(0, Math.min(16383, (int)(value * 16384.0)));
-
-               if (mLastSentValue != value)
-               {
-                  mMidiOut.sendMidi(0xE0 | channel, faderValue & 0x7f, faderValue >> 7);
-                  mLastSentValue = faderValue;
-               }
-            }
-         }
-
-         private int mLastSentValue = -1;
-      };
+      final MotorFaderOutput.Fader motor = mMotorFaderOutput.createFader(channel);
+      fader.isBeingTouched().addValueObserver(motor::setTouched);
 
-      fader.targetValue().addValueObserver(moveFader);
+      fader.targetValue().addValueObserver(value -> {
+         if (!fader.isUpdatingTargetValue().get())
+            motor.setPosition(Math.max(0, Math.min(16383, (int)(value * 16384.0))));
+      });
 
       return fader;
    }
@@ -858,7 +848,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
          select = createRGBButton("select" + channelNumber, SELECT_IDS[index]);
          select.setIndexInGroup(index);
          motorFader = createMotorFader(index);
-         display = new Display(index, mSysexHeader, PresonusFaderPort.this);
+         display = new Display(index, mDisplaySysexFrame, PresonusFaderPort.this);
       }
 
       final HardwareButton solo;
@@ -959,13 +949,13 @@ public abstract class PresonusFaderPort extends ControllerExtension
    private void runningStatusTimer()
    {
       getMidiOutPort(0).sendMidi(0xA0, 0, 0);
-
-      getHost().scheduleTask(this::runningStatusTimer, 1000);
    }
 
    @Override
    public void exit()
    {
+      mMotorFaderOutput.flush();
+      TickScheduler.release(getHost());
    }
 
    /* API Objects */
@@ -979,6 +969,8 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private MidiOut mMidiOut;
 
+   private MotorFaderOutput mMotorFaderOutput;
+
    private Application mApplication;
 
    private Project mProject;
@@ -991,7 +983,7 @@ public abstract class PresonusFaderPort extends ControllerExtension
 
    private boolean mArm;
 
-   private final String mSysexHeader;
+   private final SysexFrameWriter mDisplaySysexFrame;
 
    private Layer mDefaultLayer;
 
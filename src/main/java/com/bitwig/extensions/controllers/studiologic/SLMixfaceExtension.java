@@ -33,6 +33,9 @@ import com.bitwig.extension.controller.api.Transport;
 import com.bitwig.extensions.framework.DebugUtilities;
 import com.bitwig.extensions.framework.Layer;
 import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.framework.SysexRouter;
+import com.bitwig.extensions.framework.TickScheduler;
+import com.bitwig.extensions.framework.animation.Animation;
 import com.bitwig.extensions.framework.animation.BlinkAnimation;
 
 public class SLMixfaceExtension extends ControllerExtension
@@ -48,6 +51,7 @@ public class SLMixfaceExtension extends ControllerExtension
       final ControllerHost host = getHost();
 
       mTransport = host.createTransport();
+      mSysexRouter = new SysexRouter().registerMmcTransport(mTransport);
       mTransport.isPlaying().markInterested();
       mTrackBank = host.createTrackBank(8, 0, 0);
       mMasterTrack = host.createMasterTrack(0);
@@ -488,6 +492,8 @@ public class SLMixfaceExtension extends ControllerExtension
    @Override
    public void exit()
    {
+      Animation.release(getHost());
+      TickScheduler.release(getHost());
    }
 
    @Override
@@ -506,20 +512,13 @@ public class SLMixfaceExtension extends ControllerExtension
    private void onSysex0(final String data)
    {
       // MMC Transport Controls:
-      if (data.equals("f07f7f0605f7"))
-         mTransport.rewind();
-      else if (data.equals("f07f7f0604f7"))
-         mTransport.fastForward();
-      else if (data.equals("f07f7f0601f7"))
-         mTransport.stop();
-      else if (data.equals("f07f7f0602f7"))
-         mTransport.play();
-      else if (data.equals("f07f7f0606f7"))
-         mTransport.record();
+      mSysexRouter.dispatch(data);
    }
 
    private Transport mTransport;
 
+   private SysexRouter mSysexRouter;
+
    private TrackBank mTrackBank;
 
    private Track mMasterTrack;
@@ -85,4 +85,7 @@ public abstract class Binding<SourceType, TargetType>
    private boolean mIsActive;
 
    private Layer mLayer;
+
+   /** Position of this binding inside its layer, used to keep the resolved bindings in layer order. */
+   int mIndexInLayer;
 }
@@ -0,0 +1,180 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+
+/**
+ * Fixed capacity int to int map that evicts the least recently used entry when it is full. Entries live in
+ * preallocated arrays, so lookups and insertions never box or allocate.
+ */
+public final class IntIntLruCache
+{
+   private static final int NONE = -1;
+
+   public IntIntLruCache(final int capacity)
+   {
+      assert capacity > 0;
+
+      mKeys = new int[capacity];
+      mValues = new int[capacity];
+      mChainNext = new int[capacity];
+      mNewer = new int[capacity];
+      mOlder = new int[capacity];
+
+      int bucketCount = 1;
+      while (bucketCount < capacity * 2)
+         bucketCount <<= 1;
+
+      mBuckets = new int[bucketCount];
+      Arrays.fill(mBuckets, NONE);
+   }
+
+   public int capacity()
+   {
+      return mKeys.length;
+   }
+
+   public int size()
+   {
+      return mSize;
+   }
+
+   /** Returns the value for the key, or missingValue if there is none. A hit makes the entry most recent. */
+   public int get(final int key, final int missingValue)
+   {
+      final int entry = find(key);
+
+      if (entry == NONE)
+         return missingValue;
+
+      moveToFront(entry);
+      return mValues[entry];
+   }
+
+   public boolean containsKey(final int key)
+   {
+      return find(key) != NONE;
+   }
+
+   public void put(final int key, final int value)
+   {
+      int entry = find(key);
+
+      if (entry != NONE)
+      {
+         mValues[entry] = value;
+         moveToFront(entry);
+         return;
+      }
+
+      if (mSize < mKeys.length)
+      {
+         entry = mSize++;
+      }
+      else
+      {
+         entry = mOldest;
+         unlinkFromList(entry);
+         unlinkFromBucket(entry);
+      }
+
+      mKeys[entry] = key;
+      mValues[entry] = value;
+
+      final int bucket = bucket(key);
+      mChainNext[entry] = mBuckets[bucket];
+      mBuckets[bucket] = entry;
+
+      linkAtFront(entry);
+   }
+
+   public void clear()
+   {
+      Arrays.fill(mBuckets, NONE);
+      mSize = 0;
+      mNewest = NONE;
+      mOldest = NONE;
+   }
+
+   private int find(final int key)
+   {
+      for (int entry = mBuckets[bucket(key)]; entry != NONE; entry = mChainNext[entry])
+      {
+         if (mKeys[entry] == key)
+            return entry;
+      }
+
+      return NONE;
+   }
+
+   private int bucket(final int key)
+   {
+      final int h = key * 0x9E3779B1;
+      return (h ^ (h >>> 16)) & (mBuckets.length - 1);
+   }
+
+   private void moveToFront(final int entry)
+   {
+      if (entry == mNewest)
+         return;
+
+      unlinkFromList(entry);
+      linkAtFront(entry);
+   }
+
+   private void linkAtFront(final int entry)
+   {
+      mNewer[entry] = NONE;
+      mOlder[entry] = mNewest;
+
+      if (mNewest != NONE)
+         mNewer[mNewest] = entry;
+
+      mNewest = entry;
+
+      if (mOldest == NONE)
+         mOldest = entry;
+   }
+
+   private void unlinkFromList(final int entry)
+   {
+      final int newer = mNewer[entry];
+      final int older = mOlder[entry];
+
+      if (newer != NONE)
+         mOlder[newer] = older;
+      else
+         mNewest = older;
+
+      if (older != NONE)
+         mNewer[older] = newer;
+      else
+         mOldest = newer;
+   }
+
+   private void unlinkFromBucket(final int entry)
+   {
+      final int bucket = bucket(mKeys[entry]);
+      int current = mBuckets[bucket];
+
+      if (current == entry)
+      {
+         mBuckets[bucket] = mChainNext[entry];
+         return;
+      }
+
+      while (mChainNext[current] != entry)
+         current = mChainNext[current];
+
+      mChainNext[current] = mChainNext[entry];
+   }
+
+   private final int[] mKeys;
+   private final int[] mValues;
+   private final int[] mChainNext;
+   private final int[] mNewer;
+   private final int[] mOlder;
+   private final int[] mBuckets;
+   private int mSize;
+   private int mNewest = NONE;
+   private int mOldest = NONE;
+}
@@ -48,7 +48,7 @@ public class Layer
       mActivateAction = host.createAction(this::activate, () -> "Activate " + name);
       mDeactivateAction = host.createAction(this::deactivate, () -> "Deactivate " + name);
 
-      layers.addLayer(this);
+      mIndex = layers.addLayer(this);
    }
 
    public String getName()
@@ -87,6 +87,7 @@ public class Layer
       assert !mBindings.contains(binding);
       assert !isActive();
 
+      binding.mIndexInLayer = mBindings.size();
       mBindings.add(binding);
 
       binding.setLayer(this);
@@ -400,6 +401,8 @@ public class Layer
       {
          mIsActive = isActive;
 
+         mLayers.layerChanged(this);
+
          isActiveChanged();
 
          if (isActive)
@@ -456,13 +459,30 @@ public class Layer
 
    public void setShouldReplaceBindingsInLayersBelow(final boolean value)
    {
-      mShouldReplaceBindingsInLayersBelow = value;
+      if (value != mShouldReplaceBindingsInLayersBelow)
+      {
+         mShouldReplaceBindingsInLayersBelow = value;
+
+         if (mIsActive)
+            mLayers.layerChanged(this);
+      }
+   }
+
+   /** Position of this layer in its {@link Layers}; layers added later are on top. */
+   int getIndex()
+   {
+      return mIndex;
    }
 
    private boolean mIsActive;
 
    private final Layers mLayers;
 
+   private final int mIndex;
+
+   /** Set while this layer is queued for the next incremental update of the active bindings. */
+   boolean mIsUpdatePending;
+
    final List<Binding> mBindings = new ArrayList<>();
 
    private final String mName;
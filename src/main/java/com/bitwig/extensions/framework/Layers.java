@@ -2,9 +2,10 @@ package com.bitwig.extensions.framework;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 import com.bitwig.extension.controller.ControllerExtension;
 
@@ -21,9 +22,11 @@ public class Layers
       return mControllerExtension;
    }
 
-   void addLayer(final Layer layer)
+   int addLayer(final Layer layer)
    {
       mLayers.add(layer);
+
+      return mLayers.size() - 1;
    }
 
    public Layer addLayer(final String name)
@@ -36,50 +39,87 @@ public class Layers
       return Collections.unmodifiableList(mLayers);
    }
 
+   /**
+    * Queues a layer whose activity (or replacement behaviour) changed so that only the bindings it owns are
+    * resolved again on the next update.
+    */
+   void layerChanged(final Layer layer)
+   {
+      if (!layer.mIsUpdatePending)
+      {
+         layer.mIsUpdatePending = true;
+         mPendingLayers.add(layer);
+      }
+   }
+
+   /**
+    * Resolves the bindings of the layers that changed since the last update. Each exclusivity object keeps a
+    * stack of the bindings contributed by active layers, so only the stacks touched by the changed layers
+    * are resolved again.
+    */
    @SuppressWarnings("rawtypes")
    private void updateActiveBindings()
    {
-      mActiveBindings.clear();
+      if (mPendingLayers.isEmpty())
+         return;
 
-      for (final Layer layer : mLayers)
+      for (final Layer layer : mPendingLayers)
       {
-         if (layer.isActive())
+         layer.mIsUpdatePending = false;
+
+         final boolean isActive = layer.isActive();
+
+         for (final Binding binding : layer.mBindings)
          {
-            for (final Binding binding : layer.mBindings)
+            final Object exclusivityObject = binding.getExclusivityObject();
+            ExclusivityStack stack = mStacks.get(exclusivityObject);
+
+            if (stack == null)
             {
-               if (layer.shouldReplaceBindingsInLayersBelow())
+               if (!isActive)
                {
-                  final Object exclusivityObject = binding.getExclusivityObject();
-
-                  for (final Iterator<Binding> i = mActiveBindings.iterator(); i.hasNext();)
-                  {
-                     final Binding activeBinding = i.next();
-
-                     if (Objects.equals(activeBinding.getExclusivityObject(), exclusivityObject)
-                        && activeBinding.getLayer() != layer)
-                     {
-                        i.remove();
-                        activeBinding.setIsActive(false);
-                     }
-                  }
+                  binding.setIsActive(false);
+                  continue;
                }
 
-               mActiveBindings.add(binding);
+               stack = new ExclusivityStack();
+               mStacks.put(exclusivityObject, stack);
             }
-         }
-         else
-         {
-            for (final Binding binding : layer.mBindings)
-            {
+
+            if (isActive)
+               stack.add(binding);
+            else if (stack.remove(binding))
                binding.setIsActive(false);
+
+            if (!stack.mIsDirty)
+            {
+               stack.mIsDirty = true;
+               mDirtyStacks.add(stack);
             }
          }
       }
 
-      for (final Binding binding : mActiveBindings)
+      mPendingLayers.clear();
+
+      // All deactivations happen before any activation so that a binding taking over a target from a lower
+      // layer is never undone by the lower binding being removed afterwards.
+      for (final ExclusivityStack stack : mDirtyStacks)
+      {
+         stack.mIsDirty = false;
+         stack.resolve(mBindingsToActivate);
+      }
+
+      mDirtyStacks.clear();
+
+      mBindingsToActivate.sort(BINDING_ORDER);
+
+      for (final Binding binding : mBindingsToActivate)
       {
          binding.setIsActive(true);
       }
+
+      mBindingsToActivate.clear();
+      mActiveBindings = null;
    }
 
    protected void activeLayersChanged()
@@ -87,9 +127,29 @@ public class Layers
       updateActiveBindings();
    }
 
+   @SuppressWarnings("rawtypes")
    public List<Binding> getActiveBindings()
    {
-      return Collections.unmodifiableList(mActiveBindings);
+      if (mActiveBindings == null)
+      {
+         final List<Binding> activeBindings = new ArrayList<>();
+
+         for (final Layer layer : mLayers)
+         {
+            if (layer.isActive())
+            {
+               for (final Binding binding : layer.mBindings)
+               {
+                  if (binding.isActive())
+                     activeBindings.add(binding);
+               }
+            }
+         }
+
+         mActiveBindings = Collections.unmodifiableList(activeBindings);
+      }
+
+      return mActiveBindings;
    }
 
    public double getGlobalSensitivity()
@@ -114,10 +174,87 @@ public class Layers
       }
    }
 
+   /**
+    * Bindings of the active layers that share an exclusivity object, ordered from the lowest to the highest
+    * layer. The bindings of the topmost layer that replaces bindings below are active, together with the
+    * bindings of any non-replacing layers above it.
+    */
+   @SuppressWarnings("rawtypes")
+   private static class ExclusivityStack
+   {
+      void add(final Binding binding)
+      {
+         if (mBindings.contains(binding))
+            return;
+
+         int i = mBindings.size();
+
+         while (i > 0 && BINDING_ORDER.compare(mBindings.get(i - 1), binding) > 0)
+            --i;
+
+         mBindings.add(i, binding);
+      }
+
+      boolean remove(final Binding binding)
+      {
+         return mBindings.remove(binding);
+      }
+
+      void resolve(final List<Binding> bindingsToActivate)
+      {
+         int firstActiveIndex = 0;
+
+         for (int i = mBindings.size() - 1; i >= 0; --i)
+         {
+            final Layer layer = mBindings.get(i).getLayer();
+
+            if (layer.shouldReplaceBindingsInLayersBelow())
+            {
+               firstActiveIndex = i;
+
+               while (firstActiveIndex > 0 && mBindings.get(firstActiveIndex - 1).getLayer() == layer)
+                  --firstActiveIndex;
+
+               break;
+            }
+         }
+
+         for (int i = 0; i < mBindings.size(); ++i)
+         {
+            final Binding binding = mBindings.get(i);
+
+            if (i < firstActiveIndex)
+               binding.setIsActive(false);
+            else if (!binding.isActive())
+               bindingsToActivate.add(binding);
+         }
+      }
+
+      private final List<Binding> mBindings = new ArrayList<>(2);
+
+      private boolean mIsDirty;
+   }
+
+   @SuppressWarnings("rawtypes")
+   private static final Comparator<Binding> BINDING_ORDER = (a, b) -> {
+      final int layerOrder = Integer.compare(a.getLayer().getIndex(), b.getLayer().getIndex());
+
+      return layerOrder != 0 ? layerOrder : Integer.compare(a.mIndexInLayer, b.mIndexInLayer);
+   };
+
    private final List<Layer> mLayers = new ArrayList<>(4);
 
+   private final List<Layer> mPendingLayers = new ArrayList<>();
+
+   private final Map<Object, ExclusivityStack> mStacks = new HashMap<>();
+
+   private final List<ExclusivityStack> mDirtyStacks = new ArrayList<>();
+
+   @SuppressWarnings("rawtypes")
+   private final List<Binding> mBindingsToActivate = new ArrayList<>();
+
    @SuppressWarnings("rawtypes")
-   private final List<Binding> mActiveBindings = new ArrayList<>();
+   private List<Binding> mActiveBindings;
 
    private final ControllerExtension mControllerExtension;
 
@@ -0,0 +1,418 @@
+package com.bitwig.extensions.framework;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Paced output queue in front of a MidiOut, for devices that drop messages when they receive long bursts.
+ *
+ * Messages are queued by priority and sent on {@link #flush()} in priority order, first in first out within a
+ * priority. At most the byte budget of the device is sent: the budget refills at a fixed rate per millisecond up to
+ * a burst size, and whatever doesn't fit is sent from a single scheduler wakeup once the budget allows it. A
+ * priority can be left unpaced, its messages are then sent on every flush and only take their share of the budget
+ * from the paced ones. A message sent to an address replaces the queued message for the same address, so a value
+ * that changes several times before it could be sent only goes out once.
+ *
+ * Queued messages are taken from a pool and looked up by address without boxing, so a queue that reached its
+ * working size doesn't allocate anymore (except for sysex messages of a new length).
+ */
+public final class MidiOutQueue
+{
+   /** Flush order of the queued messages. */
+   public enum Priority
+   {
+      /** Device setup, the other messages may depend on it. */
+      CONFIGURATION,
+      MOTOR,
+      LED,
+      DISPLAY
+   }
+
+   /** Address of messages that never replace each other. */
+   public static final int NO_ADDRESS = -1;
+
+   /**
+    * Address of short messages with the same status and first data byte, for example the LED of a note or the value
+    * of a CC. These addresses don't collide with small custom addresses, such as an index, on the same queue.
+    */
+   public static int addressOf(final int status, final int data1)
+   {
+      return 1 << 24 | (status & 0xFF) << 8 | (data1 & 0x7F);
+   }
+
+   private static final int SHORT_MESSAGE_SIZE = 3;
+
+   private static final int INITIAL_BUCKET_COUNT = 64;
+
+   /**
+    * @param bytesPerMs the number of bytes the device accepts per millisecond, 3.125 for DIN MIDI speed
+    * @param burstSize the number of bytes that may be sent at once after the device was idle
+    */
+   @SuppressWarnings("unchecked")
+   public MidiOutQueue(
+      final ControllerHost host,
+      final MidiOut midiOut,
+      final double bytesPerMs,
+      final int burstSize)
+   {
+      super();
+      assert bytesPerMs > 0 && burstSize > 0;
+
+      mScheduler = TickScheduler.forHost(host);
+      mMidiOut = midiOut;
+      mBytesPerMs = bytesPerMs;
+      mBurstSize = burstSize;
+      mBudget = burstSize;
+      mBudgetTime = mScheduler.getTime();
+
+      final int priorityCount = Priority.values().length;
+      mQueues = new ArrayDeque[priorityCount];
+      for (int i = 0; i < priorityCount; ++i)
+         mQueues[i] = new ArrayDeque<>();
+
+      mIsPaced = new boolean[priorityCount];
+      Arrays.fill(mIsPaced, true);
+   }
+
+   /**
+    * Messages of an unpaced priority are sent on every flush whatever the budget, for example the motor faders of a
+    * device that only chokes on long sysex messages. They still use up the budget of the paced priorities. All
+    * priorities are paced by default.
+    */
+   public void setPaced(final Priority priority, final boolean isPaced)
+   {
+      mIsPaced[priority.ordinal()] = isPaced;
+   }
+
+   public void sendMidi(final Priority priority, final int status, final int data1, final int data2)
+   {
+      sendMidi(priority, NO_ADDRESS, status, data1, data2);
+   }
+
+   public void sendMidi(
+      final Priority priority,
+      final int address,
+      final int status,
+      final int data1,
+      final int data2)
+   {
+      final Message message = enqueue(priority, address);
+      message.mIsSysex = false;
+      message.mTask = null;
+      message.mShortMessage = (status & 0xFF) << 16 | (data1 & 0x7F) << 8 | (data2 & 0x7F);
+   }
+
+   /** Queues the sysex message, the data is copied so the caller may reuse its buffer. */
+   public void sendSysex(final Priority priority, final byte[] data)
+   {
+      sendSysex(priority, NO_ADDRESS, data);
+   }
+
+   /** Queues the sysex message, the data is copied so the caller may reuse its buffer. */
+   public void sendSysex(final Priority priority, final int address, final byte[] data)
+   {
+      sendSysex(priority, address, data, data.length);
+   }
+
+   /** Queues the first length bytes of data, they are copied so the caller may reuse its buffer. */
+   public void sendSysex(final Priority priority, final int address, final byte[] data, final int length)
+   {
+      final Message message = enqueue(priority, address);
+
+      // MidiOut only takes whole arrays, the buffer of a pooled message is reused when the length matches
+      if (message.mSysex == null || message.mSysex.length != length)
+         message.mSysex = new byte[length];
+
+      System.arraycopy(data, 0, message.mSysex, 0, length);
+      message.mIsSysex = true;
+      message.mTask = null;
+   }
+
+   /**
+    * Runs the task from the flush that sends the messages queued before it with the same priority, for example to
+    * record what the device received. The task takes no budget, it doesn't run if the queue is cleared before.
+    */
+   public void runWhenSent(final Priority priority, final Runnable task)
+   {
+      final Message message = enqueue(priority, NO_ADDRESS);
+      message.mIsSysex = false;
+      message.mTask = task;
+   }
+
+   /** Sends as many queued messages as the budget allows, the rest is sent as soon as possible. */
+   public void flush()
+   {
+      refillBudget();
+
+      // Budget the first paced message that didn't fit requires, -1 if everything was sent
+      int blockedBudget = -1;
+
+      for (int i = 0; i < mQueues.length; ++i)
+      {
+         final ArrayDeque<Message> queue = mQueues[i];
+         final boolean isPaced = mIsPaced[i];
+
+         // Paced priorities keep their order, once one of them waits the others wait as well
+         if (isPaced && blockedBudget >= 0)
+            continue;
+
+         while (!queue.isEmpty())
+         {
+            final Message message = queue.peekFirst();
+            final int size = message.size();
+
+            // A message larger than the burst size is sent once the budget is full
+            final int requiredBudget = Math.min(size, mBurstSize);
+
+            if (isPaced && mBudget < requiredBudget)
+            {
+               blockedBudget = requiredBudget;
+               break;
+            }
+
+            queue.pollFirst();
+            mBudget -= size;
+            message.send(mMidiOut);
+            recycle(message);
+         }
+      }
+
+      // Unpaced messages sent after the blocked one used up budget as well
+      if (blockedBudget >= 0)
+         schedulePacing((long)Math.ceil((blockedBudget - mBudget) / mBytesPerMs));
+      else
+         cancelPacing();
+   }
+
+   /** Sends all queued messages right away regardless of the budget, for example on exit. */
+   public void flushAll()
+   {
+      for (final ArrayDeque<Message> queue : mQueues)
+      {
+         for (final Message message : queue)
+            message.send(mMidiOut);
+      }
+
+      clear();
+   }
+
+   /** Drops all queued messages, for example when the device is reset. */
+   public void clear()
+   {
+      for (final ArrayDeque<Message> queue : mQueues)
+      {
+         while (!queue.isEmpty())
+            recycle(queue.pollFirst());
+      }
+
+      cancelPacing();
+   }
+
+   public boolean isEmpty()
+   {
+      for (final ArrayDeque<Message> queue : mQueues)
+      {
+         if (!queue.isEmpty())
+            return false;
+      }
+
+      return true;
+   }
+
+   private Message enqueue(final Priority priority, final int address)
+   {
+      if (address != NO_ADDRESS)
+      {
+         // The queued message keeps its place, only its content is replaced
+         final Message queued = findQueued(address);
+         if (queued != null)
+            return queued;
+      }
+
+      final Message pooled = mFreeMessages.pollFirst();
+      final Message message = pooled != null ? pooled : new Message();
+      message.mAddress = address;
+      mQueues[priority.ordinal()].addLast(message);
+
+      if (address != NO_ADDRESS)
+         addQueued(message);
+
+      return message;
+   }
+
+   private void recycle(final Message message)
+   {
+      if (message.mAddress != NO_ADDRESS)
+         removeQueued(message);
+
+      message.mTask = null;
+      mFreeMessages.addFirst(message);
+   }
+
+   private Message findQueued(final int address)
+   {
+      for (Message message = mBuckets[bucket(address)]; message != null; message = message.mNextInBucket)
+      {
+         if (message.mAddress == address)
+            return message;
+      }
+
+      return null;
+   }
+
+   private void addQueued(final Message message)
+   {
+      if (mAddressedCount >= mBuckets.length / 4 * 3)
+         growBuckets();
+
+      final int bucket = bucket(message.mAddress);
+      message.mNextInBucket = mBuckets[bucket];
+      mBuckets[bucket] = message;
+      ++mAddressedCount;
+   }
+
+   private void removeQueued(final Message message)
+   {
+      final int bucket = bucket(message.mAddress);
+
+      if (mBuckets[bucket] == message)
+      {
+         mBuckets[bucket] = message.mNextInBucket;
+      }
+      else
+      {
+         Message previous = mBuckets[bucket];
+         while (previous.mNextInBucket != message)
+            previous = previous.mNextInBucket;
+
+         previous.mNextInBucket = message.mNextInBucket;
+      }
+
+      message.mNextInBucket = null;
+      --mAddressedCount;
+   }
+
+   private void growBuckets()
+   {
+      final Message[] oldBuckets = mBuckets;
+      mBuckets = new Message[oldBuckets.length * 2];
+
+      for (Message message : oldBuckets)
+      {
+         while (message != null)
+         {
+            final Message next = message.mNextInBucket;
+            final int bucket = bucket(message.mAddress);
+            message.mNextInBucket = mBuckets[bucket];
+            mBuckets[bucket] = message;
+            message = next;
+         }
+      }
+   }
+
+   private int bucket(final int address)
+   {
+      final int h = address * 0x9E3779B1;
+      return (h ^ (h >>> 16)) & (mBuckets.length - 1);
+   }
+
+   private void refillBudget()
+   {
+      final long now = mScheduler.getTime();
+      mBudget = Math.min(mBurstSize, mBudget + (now - mBudgetTime) * mBytesPerMs);
+      mBudgetTime = now;
+   }
+
+   /** Wakes up once, when the budget will have refilled by the missing amount. */
+   private void schedulePacing(final long delayInMs)
+   {
+      final long wakeupTime = mScheduler.getTime() + Math.max(1, delayInMs);
+
+      if (mPacingSubscription != null)
+      {
+         if (mPacingSubscription.isActive() && mPacingTime <= wakeupTime)
+            return;
+
+         mPacingSubscription.cancel();
+      }
+
+      mPacingTime = wakeupTime;
+      mPacingSubscription = mScheduler.schedule((int)(wakeupTime - mScheduler.getTime()), mPacingTask);
+   }
+
+   private void cancelPacing()
+   {
+      if (mPacingSubscription != null)
+      {
+         mPacingSubscription.cancel();
+         mPacingSubscription = null;
+      }
+   }
+
+   private static final class Message
+   {
+      int size()
+      {
+         if (mTask != null)
+            return 0;
+
+         return mIsSysex ? mSysex.length : SHORT_MESSAGE_SIZE;
+      }
+
+      void send(final MidiOut midiOut)
+      {
+         if (mTask != null)
+            mTask.run();
+         else if (mIsSysex)
+            midiOut.sendSysex(mSysex);
+         else
+            midiOut.sendMidi(mShortMessage >> 16, (mShortMessage >> 8) & 0x7F, mShortMessage & 0x7F);
+      }
+
+      int mAddress;
+
+      boolean mIsSysex;
+
+      byte[] mSysex;
+
+      int mShortMessage;
+
+      /** Run instead of sending a message, see {@link MidiOutQueue#runWhenSent(Priority, Runnable)}. */
+      Runnable mTask;
+
+      /** Next queued message with an address in the same bucket. */
+      Message mNextInBucket;
+   }
+
+   private final TickScheduler mScheduler;
+
+   private final MidiOut mMidiOut;
+
+   private final double mBytesPerMs;
+
+   private final int mBurstSize;
+
+   private final ArrayDeque<Message>[] mQueues;
+
+   private final boolean[] mIsPaced;
+
+   private final ArrayDeque<Message> mFreeMessages = new ArrayDeque<>();
+
+   /** Queued messages with an address, chained by bucket. */
+   private Message[] mBuckets = new Message[INITIAL_BUCKET_COUNT];
+
+   private int mAddressedCount;
+
+   private final Runnable mPacingTask = this::flush;
+
+   private double mBudget;
+
+   private long mBudgetTime;
+
+   private TickScheduler.Subscription mPacingSubscription;
+
+   private long mPacingTime;
+}
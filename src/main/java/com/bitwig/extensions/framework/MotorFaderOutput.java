@@ -0,0 +1,247 @@
+package com.bitwig.extensions.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.MidiOut;
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+
+/**
+ * Output stage for motor faders positioned with 14-bit pitch bend messages.
+ *
+ * A fader only sends when its 14-bit position actually changes. Each fader sends at most once per minimum
+ * interval: the first change after a quiet period goes out immediately, changes within the interval are coalesced
+ * and only the latest position is sent when the interval has passed. While a fader is touched nothing is sent, so
+ * the motor does not fight the hand.
+ *
+ * Positions are either sent directly or queued on the MidiOutQueue of the port, so they share its pacing with the
+ * other output of the device.
+ */
+public final class MotorFaderOutput
+{
+   private static final int NONE = -1;
+
+   /**
+    * @param minIntervalInMs minimum time between two messages of the same fader, 0 to only dedupe
+    */
+   public MotorFaderOutput(final ControllerHost host, final MidiOut midiOut, final int minIntervalInMs)
+   {
+      this(host, midiOut, null, minIntervalInMs);
+   }
+
+   /**
+    * Queues the positions with motor priority. Positions sent from the scheduler flush the queue, the others are
+    * sent when the owner of the queue flushes it.
+    *
+    * @param minIntervalInMs minimum time between two messages of the same fader, 0 to only dedupe
+    */
+   public MotorFaderOutput(final ControllerHost host, final MidiOutQueue outputQueue, final int minIntervalInMs)
+   {
+      this(host, null, outputQueue, minIntervalInMs);
+   }
+
+   private MotorFaderOutput(
+      final ControllerHost host,
+      final MidiOut midiOut,
+      final MidiOutQueue outputQueue,
+      final int minIntervalInMs)
+   {
+      super();
+      mScheduler = TickScheduler.forHost(host);
+      mMidiOut = midiOut;
+      mOutputQueue = outputQueue;
+      mMinInterval = minIntervalInMs;
+   }
+
+   /** Creates a fader that is positioned with pitch bend messages on the given MIDI channel. */
+   public Fader createFader(final int channel)
+   {
+      final Fader fader = new Fader(channel);
+      mFaders.add(fader);
+      return fader;
+   }
+
+   /**
+    * Sends the pending positions right away, regardless of the minimum interval. Called from exit() so the last
+    * positions reach the device before the scheduler is released.
+    */
+   public void flush()
+   {
+      final long now = mScheduler.getTime();
+
+      for (final Fader fader : mFaders)
+      {
+         if (fader.mPendingPosition != NONE)
+            fader.send(fader.mPendingPosition, now);
+      }
+
+      if (mOutputQueue != null)
+         mOutputQueue.flush();
+
+      if (mPendingSubscription != null)
+      {
+         mPendingSubscription.cancel();
+         mPendingSubscription = null;
+      }
+   }
+
+   private void sendPending()
+   {
+      final long now = mScheduler.getTime();
+      boolean hasPending = false;
+
+      for (final Fader fader : mFaders)
+      {
+         if (fader.mPendingPosition == NONE)
+            continue;
+
+         if (now - fader.mLastSendTime >= mMinInterval)
+            fader.send(fader.mPendingPosition, now);
+         else
+            hasPending = true;
+      }
+
+      if (mOutputQueue != null)
+         mOutputQueue.flush();
+
+      if (!hasPending && mPendingSubscription != null)
+      {
+         mPendingSubscription.cancel();
+         mPendingSubscription = null;
+      }
+   }
+
+   private void schedulePending()
+   {
+      if (mPendingSubscription == null)
+         mPendingSubscription = mScheduler.subscribe(mMinInterval, this::sendPending);
+   }
+
+   public final class Fader
+   {
+      private Fader(final int channel)
+      {
+         super();
+         mStatus = 0xE0 | channel;
+         // A newer position replaces a queued one, whatever its low bits are
+         mAddress = MidiOutQueue.addressOf(mStatus, 0);
+      }
+
+      public int getChannel()
+      {
+         return mStatus & 0xF;
+      }
+
+      /** @param value the normalized position, 0 to 1 */
+      public void setValue(final double value)
+      {
+         setPosition((int)(Math.max(0, Math.min(1, value)) * 16383));
+      }
+
+      /** @param position the 14-bit position, 0 to 16383 */
+      public void setPosition(final int position)
+      {
+         mPosition = position;
+
+         // While touched the hand positions the fader, changes are most likely coming from it
+         if (mIsTouched)
+         {
+            mSentPosition = position;
+            return;
+         }
+
+         update();
+      }
+
+      public boolean isTouched()
+      {
+         return mIsTouched;
+      }
+
+      /** While touched the fader is not moved. */
+      public void setTouched(final boolean isTouched)
+      {
+         if (mIsTouched == isTouched)
+            return;
+
+         mIsTouched = isTouched;
+
+         if (isTouched)
+         {
+            mPendingPosition = NONE;
+         }
+         else if (mPosition != NONE)
+         {
+            // Where the hand left the fader is unknown, so the position is sent even if it didn't change
+            mSentPosition = NONE;
+            update();
+         }
+      }
+
+      /** Sends the current position again, for example after the device was reconnected. */
+      public void resend()
+      {
+         if (mPosition != NONE && !mIsTouched)
+            send(mPosition, mScheduler.getTime());
+      }
+
+      private void update()
+      {
+         if (mPosition == mSentPosition)
+         {
+            mPendingPosition = NONE;
+            return;
+         }
+
+         final long now = mScheduler.getTime();
+
+         if (now - mLastSendTime >= mMinInterval)
+         {
+            send(mPosition, now);
+         }
+         else
+         {
+            mPendingPosition = mPosition;
+            schedulePending();
+         }
+      }
+
+      private void send(final int position, final long now)
+      {
+         if (mOutputQueue != null)
+            mOutputQueue.sendMidi(Priority.MOTOR, mAddress, mStatus, position & 0x7F, position >> 7);
+         else
+            mMidiOut.sendMidi(mStatus, position & 0x7F, position >> 7);
+         mSentPosition = position;
+         mPendingPosition = NONE;
+         mLastSendTime = now;
+      }
+
+      private final int mStatus;
+
+      private final int mAddress;
+
+      private int mPosition = NONE;
+
+      private int mSentPosition = NONE;
+
+      private int mPendingPosition = NONE;
+
+      private long mLastSendTime = Long.MIN_VALUE / 2;
+
+      private boolean mIsTouched;
+   }
+
+   private final TickScheduler mScheduler;
+
+   private final MidiOut mMidiOut;
+
+   private final MidiOutQueue mOutputQueue;
+
+   private final int mMinInterval;
+
+   private final List<Fader> mFaders = new ArrayList<>();
+
+   private TickScheduler.Subscription mPendingSubscription;
+}
@@ -1,11 +1,67 @@
 package com.bitwig.extensions.framework;
 
+/**
+ * A scale given by its notes relative to the root (0 to 11).
+ *
+ * For each of the 12 roots the scale is precomputed once: which MIDI notes are in the scale or are a root, and the
+ * MIDI note of every scale degree. All queries are table lookups.
+ */
 public final class MusicalScale
 {
+   /** Degrees are precomputed for the octaves -1 to 11 relative to a root between 0 and 11, covering all MIDI notes. */
+   private static final int FIRST_OCTAVE = -1;
+   private static final int OCTAVE_COUNT = 13;
+
    public MusicalScale(final String name, final int[] notes)
    {
+      assert notes.length > 0 && notes[0] == 0;
+
       mName = name;
       mNotes = notes;
+
+      final int count = notes.length;
+      final int degreeCount = count * OCTAVE_COUNT;
+
+      for (int root = 0; root < 12; ++root)
+      {
+         final long[] inScale = new long[2];
+         final long[] isRoot = new long[2];
+         final int[] degreeToNote = new int[degreeCount];
+         final int[] ceilDegree = new int[128];
+
+         int nextNote = 0;
+
+         for (int degree = 0; degree < degreeCount; ++degree)
+         {
+            final int note = root + 12 * (FIRST_OCTAVE + degree / count) + notes[degree % count];
+
+            if (note < 0 || note > 127)
+            {
+               degreeToNote[degree] = -1;
+
+               if (note < 0)
+                  continue;
+            }
+            else
+            {
+               degreeToNote[degree] = note;
+               inScale[note >> 6] |= 1L << (note & 63);
+               if (degree % count == 0)
+                  isRoot[note >> 6] |= 1L << (note & 63);
+            }
+
+            // Notes up to this one are closest to this degree from below
+            for (; nextNote <= note && nextNote < 128; ++nextNote)
+               ceilDegree[nextNote] = degree;
+         }
+
+         assert nextNote == 128;
+
+         mInScale[root] = inScale;
+         mIsRoot[root] = isRoot;
+         mDegreeToNote[root] = degreeToNote;
+         mCeilDegree[root] = ceilDegree;
+      }
    }
 
    public final int[] getNotes()
@@ -20,25 +76,12 @@ public final class MusicalScale
 
    public final boolean isRootMidiNote(final int midiRootKey, final int midiNote)
    {
-      return (midiNote - midiRootKey) % 12 == 0;
+      return isSet(mIsRoot[Math.floorMod(midiRootKey, 12)], midiNote);
    }
 
-   public final boolean isMidiNoteInScale(int midiRootKey, int midiNote)
+   public final boolean isMidiNoteInScale(final int midiRootKey, final int midiNote)
    {
-      if (midiNote < 0)
-         return false;
-
-      // set midiNote to be an offset between 0 and 11 relative to the root.
-      midiRootKey %= 12;
-      midiNote += 12 - midiRootKey;
-      midiNote %= 12;
-
-      // check if the note is in the scale
-      for (final int note : mNotes)
-         if (midiNote == note)
-            return true;
-
-      return false;
+      return isSet(mInScale[Math.floorMod(midiRootKey, 12)], midiNote);
    }
 
    public void setIndexInLibrary(final int indexInLibrary)
@@ -56,27 +99,55 @@ public final class MusicalScale
       return mNotes.length;
    }
 
-   public int computeNote(final int rootNote, int octave, int offset)
+   /**
+    * The MIDI note of the scale degree offset, counted from the root in the given octave.
+    *
+    * @return the note or -1 if it is not a valid MIDI note
+    */
+   public int computeNote(final int rootNote, final int octave, final int offset)
    {
-      octave += offset / getNotesCount();
-      offset = offset % getNotesCount();
+      final int degree = (octave + Math.floorDiv(rootNote, 12) - FIRST_OCTAVE) * getNotesCount() + offset;
+      return noteOfDegree(Math.floorMod(rootNote, 12), degree);
+   }
 
-      if (offset < 0)
-      {
-         --octave;
-         offset += getNotesCount();
-      }
+   /**
+    * Moves the note by amount steps along the scale. A note outside of the scale first moves up to the next note of
+    * the scale.
+    *
+    * @return the note or -1 if it is not a valid MIDI note
+    */
+   public int getNextNote(final int rootNote, final int midiNote, final int amount)
+   {
+      if (midiNote < 0 || midiNote > 127)
+         return -1;
+
+      final int root = Math.floorMod(rootNote, 12);
+      return noteOfDegree(root, mCeilDegree[root][midiNote] + amount);
+   }
 
-      final int note = rootNote + 12 * octave + mNotes[offset];
+   private int noteOfDegree(final int root, final int degree)
+   {
+      final int[] degreeToNote = mDegreeToNote[root];
 
-      if (note > 127)
-         return -1;
-      if (note < 0)
+      if (degree < 0 || degree >= degreeToNote.length)
          return -1;
-      return note;
+
+      return degreeToNote[degree];
+   }
+
+   private static boolean isSet(final long[] mask, final int midiNote)
+   {
+      if (midiNote < 0 || midiNote > 127)
+         return false;
+
+      return (mask[midiNote >> 6] & (1L << (midiNote & 63))) != 0;
    }
 
    private final int[] mNotes;
    private final String mName;
    private int mIndexInLibrary;
+   private final long[][] mInScale = new long[12][];
+   private final long[][] mIsRoot = new long[12][];
+   private final int[][] mDegreeToNote = new int[12][];
+   private final int[][] mCeilDegree = new int[12][];
 }
@@ -0,0 +1,183 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.bitwig.extension.controller.api.NoteInput;
+
+/**
+ * Key and velocity translation of a NoteInput kept in primitive tables.
+ *
+ * Controllers build their mapping into an int[128] and hand it over; the NoteInput is only updated when the
+ * mapping differs from the one it already has, so mode, overlay or modifier changes that end up with the same
+ * mapping don't send a new table. All changes to the translation of the NoteInput must go through this object,
+ * otherwise the tables it compares against are no longer the ones in use.
+ */
+public final class NoteTranslation
+{
+   public static final int NO_NOTE = -1;
+
+   public static final int TABLE_SIZE = 128;
+
+   public NoteTranslation(final NoteInput noteInput)
+   {
+      super();
+      mNoteInput = noteInput;
+   }
+
+   /**
+    * Returns the table to build the next key mapping into, every key is initially mapped to NO_NOTE. The mapping is
+    * applied with {@link #applyKeyTable()}.
+    */
+   public int[] beginKeyTable()
+   {
+      Arrays.fill(mPendingKeys, NO_NOTE);
+      return mPendingKeys;
+   }
+
+   /** Applies the table returned by {@link #beginKeyTable()}. */
+   public boolean applyKeyTable()
+   {
+      return setKeyTable(mPendingKeys);
+   }
+
+   /**
+    * Maps each key to table[key], NO_NOTE to not play anything.
+    *
+    * @return true if the mapping changed and was sent to the NoteInput
+    */
+   public boolean setKeyTable(final int[] table)
+   {
+      assert table.length == TABLE_SIZE;
+
+      if (mHasKeys && Arrays.equals(table, mKeys))
+         return false;
+
+      System.arraycopy(table, 0, mKeys, 0, TABLE_SIZE);
+      mHasKeys = true;
+      mNoteInput.setKeyTranslationTable(box(table));
+      return true;
+   }
+
+   public boolean setNoNotes()
+   {
+      return setKeyTable(NO_NOTES);
+   }
+
+   public boolean setAllNotes()
+   {
+      return setKeyTable(ALL_NOTES);
+   }
+
+   /** @return true if the mapping changed and was sent to the NoteInput */
+   public boolean setVelocityTable(final int[] table)
+   {
+      assert table.length == TABLE_SIZE;
+
+      if (mHasVelocities && Arrays.equals(table, mVelocities))
+         return false;
+
+      System.arraycopy(table, 0, mVelocities, 0, TABLE_SIZE);
+      mHasVelocities = true;
+      mNoteInput.setVelocityTranslationTable(box(table));
+      return true;
+   }
+
+   /** Makes the next tables be sent even if they didn't change. */
+   public void invalidate()
+   {
+      mHasKeys = false;
+      mHasVelocities = false;
+   }
+
+   /**
+    * Packs the parameters a computed table depends on into a key for {@link TableCache}. Each value must fit into 16
+    * bits.
+    */
+   public static long cacheKey(final int scale, final int root, final int layout, final int octave)
+   {
+      return (long)(scale & 0xFFFF) << 48 | (long)(root & 0xFFFF) << 32 | (long)(layout & 0xFFFF) << 16
+         | (octave & 0xFFFF);
+   }
+
+   private static Integer[] box(final int[] table)
+   {
+      // Values from -1 to 127 come from the Integer cache, only the array is allocated
+      final Integer[] boxed = new Integer[TABLE_SIZE];
+      for (int i = 0; i < TABLE_SIZE; ++i)
+         boxed[i] = table[i];
+      return boxed;
+   }
+
+   private static int[] createIdentityTable()
+   {
+      final int[] table = new int[TABLE_SIZE];
+      for (int i = 0; i < TABLE_SIZE; ++i)
+         table[i] = i;
+      return table;
+   }
+
+   /**
+    * Bounded cache of computed tables, so going back to a previous scale, root, layout or octave doesn't compute the
+    * table again. The returned tables are shared and must not be modified.
+    */
+   public static final class TableCache
+   {
+      public TableCache(final int capacity)
+      {
+         super();
+         mTables = new LinkedHashMap<>(capacity, 0.75f, true)
+         {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, int[]> eldest)
+            {
+               return size() > capacity;
+            }
+         };
+      }
+
+      /**
+       * @param builder fills the table for the key, every entry is initially NO_NOTE
+       */
+      public int[] get(final long key, final Consumer<int[]> builder)
+      {
+         int[] table = mTables.get(key);
+
+         if (table == null)
+         {
+            table = new int[TABLE_SIZE];
+            Arrays.fill(table, NO_NOTE);
+            builder.accept(table);
+            mTables.put(key, table);
+         }
+
+         return table;
+      }
+
+      /** Drops all tables, needed when something the tables depend on but which is not part of the key changed. */
+      public void clear()
+      {
+         mTables.clear();
+      }
+
+      private final LinkedHashMap<Long, int[]> mTables;
+   }
+
+   private static final int[] NO_NOTES = new int[TABLE_SIZE];
+
+   private static final int[] ALL_NOTES = createIdentityTable();
+
+   static
+   {
+      Arrays.fill(NO_NOTES, NO_NOTE);
+   }
+
+   private final NoteInput mNoteInput;
+   private final int[] mPendingKeys = new int[TABLE_SIZE];
+   private final int[] mKeys = new int[TABLE_SIZE];
+   private final int[] mVelocities = new int[TABLE_SIZE];
+   private boolean mHasKeys;
+   private boolean mHasVelocities;
+}
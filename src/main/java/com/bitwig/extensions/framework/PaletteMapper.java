@@ -0,0 +1,186 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import com.bitwig.extension.controller.api.ColorValue;
+
+/**
+ * Maps colors to the values of a hardware palette.
+ *
+ * A controller registers its palette once: palette entries are the colors the hardware can show, fixed colors are
+ * exact mappings (typically the colors of the Bitwig palette) that take precedence over everything else. Any other
+ * color is mapped by the fallback, which defaults to the perceptually nearest palette entry (smallest distance in
+ * CIE L*a*b*). Results are kept in a bounded LRU cache keyed by the packed 0xRRGGBB color.
+ *
+ * A mapper is not thread-safe, its cache and scratch buffer belong to the extension that created it.
+ */
+public final class PaletteMapper
+{
+   private static final int NOT_FOUND = Integer.MIN_VALUE;
+
+   public PaletteMapper(final int cacheCapacity)
+   {
+      this(cacheCapacity, null);
+   }
+
+   /**
+    * @param fallback computes the value of a color that is not a fixed color, null for the nearest palette entry
+    */
+   public PaletteMapper(final int cacheCapacity, final IntUnaryOperator fallback)
+   {
+      super();
+      mCache = new IntIntLruCache(cacheCapacity);
+      mFallback = fallback != null ? fallback : this::findNearestEntry;
+   }
+
+   /** Adds a color the hardware can show, used for nearest matching. */
+   public void addPaletteEntry(final int rgb, final int value)
+   {
+      final int index = mEntryCount++;
+
+      if (index == mEntryValues.length)
+      {
+         mEntryValues = Arrays.copyOf(mEntryValues, index * 2);
+         mEntryLab = Arrays.copyOf(mEntryLab, index * 2 * 3);
+      }
+
+      mEntryValues[index] = value;
+      rgbToLab(rgb, mEntryLab, index * 3);
+      mCache.clear();
+   }
+
+   /** Maps the color to value exactly, regardless of the palette. */
+   public void addFixedColor(final int rgb, final int value)
+   {
+      final int pos = Arrays.binarySearch(mFixedColors, 0, mFixedCount, rgb);
+
+      if (pos >= 0)
+      {
+         mFixedValues[pos] = value;
+         return;
+      }
+
+      if (mFixedCount == mFixedColors.length)
+      {
+         mFixedColors = Arrays.copyOf(mFixedColors, mFixedCount * 2);
+         mFixedValues = Arrays.copyOf(mFixedValues, mFixedCount * 2);
+      }
+
+      final int insertAt = -pos - 1;
+      System.arraycopy(mFixedColors, insertAt, mFixedColors, insertAt + 1, mFixedCount - insertAt);
+      System.arraycopy(mFixedValues, insertAt, mFixedValues, insertAt + 1, mFixedCount - insertAt);
+      mFixedColors[insertAt] = rgb;
+      mFixedValues[insertAt] = value;
+      ++mFixedCount;
+   }
+
+   /** Adds a palette entry that is also mapped exactly. */
+   public void addColor(final int rgb, final int value)
+   {
+      addPaletteEntry(rgb, value);
+      addFixedColor(rgb, value);
+   }
+
+   public int map(final ColorValue color)
+   {
+      return map(color.red(), color.green(), color.blue());
+   }
+
+   public int map(final double red, final double green, final double blue)
+   {
+      return map(toRGB(red, green, blue));
+   }
+
+   /** @param rgb the color as packed 0xRRGGBB */
+   public int map(final int rgb)
+   {
+      final int fixed = Arrays.binarySearch(mFixedColors, 0, mFixedCount, rgb);
+      if (fixed >= 0)
+         return mFixedValues[fixed];
+
+      int value = mCache.get(rgb, NOT_FOUND);
+
+      if (value == NOT_FOUND)
+      {
+         value = mFallback.applyAsInt(rgb);
+         mCache.put(rgb, value);
+      }
+
+      return value;
+   }
+
+   /** Packs color components in the range 0..1 the same way the Bitwig palette colors are given. */
+   public static int toRGB(final double red, final double green, final double blue)
+   {
+      return to255(red) << 16 | to255(green) << 8 | to255(blue);
+   }
+
+   private static int to255(final double value)
+   {
+      return Math.max(0, Math.min(255, (int)(value * 255)));
+   }
+
+   /** The value of the palette entry closest to the color, 0 if there are no palette entries. */
+   public int findNearestEntry(final int rgb)
+   {
+      final float[] lab = mLab;
+      rgbToLab(rgb, lab, 0);
+
+      float minDistance = Float.MAX_VALUE;
+      int value = 0;
+
+      for (int i = 0; i < mEntryCount; ++i)
+      {
+         final float dL = mEntryLab[i * 3] - lab[0];
+         final float dA = mEntryLab[i * 3 + 1] - lab[1];
+         final float dB = mEntryLab[i * 3 + 2] - lab[2];
+         final float distance = dL * dL + dA * dA + dB * dB;
+
+         if (distance < minDistance)
+         {
+            minDistance = distance;
+            value = mEntryValues[i];
+         }
+      }
+
+      return value;
+   }
+
+   private static void rgbToLab(final int rgb, final float[] lab, final int offset)
+   {
+      final double r = srgbToLinear((rgb >> 16) & 0xFF);
+      final double g = srgbToLinear((rgb >> 8) & 0xFF);
+      final double b = srgbToLinear(rgb & 0xFF);
+
+      // D65 white point
+      final double x = labF((0.4124 * r + 0.3576 * g + 0.1805 * b) / 0.95047);
+      final double y = labF(0.2126 * r + 0.7152 * g + 0.0722 * b);
+      final double z = labF((0.0193 * r + 0.1192 * g + 0.9505 * b) / 1.08883);
+
+      lab[offset] = (float)(116 * y - 16);
+      lab[offset + 1] = (float)(500 * (x - y));
+      lab[offset + 2] = (float)(200 * (y - z));
+   }
+
+   private static double srgbToLinear(final int component)
+   {
+      final double c = component / 255.0;
+      return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+   }
+
+   private static double labF(final double t)
+   {
+      return t > 216.0 / 24389.0 ? Math.cbrt(t) : (24389.0 / 27.0 * t + 16) / 116;
+   }
+
+   private final IntIntLruCache mCache;
+   private final IntUnaryOperator mFallback;
+   private final float[] mLab = new float[3];
+   private int[] mEntryValues = new int[16];
+   private float[] mEntryLab = new float[16 * 3];
+   private int mEntryCount;
+   private int[] mFixedColors = new int[16];
+   private int[] mFixedValues = new int[16];
+   private int mFixedCount;
+}
@@ -0,0 +1,147 @@
+package com.bitwig.extensions.framework;
+
+import java.util.Arrays;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Reusable writer for sysex messages that share the same header.
+ *
+ * The header is encoded once when the writer is created and stays in the frame buffer; each message only writes its
+ * payload after it. This replaces parsing the header with SysexBuilder.fromHex() for every message sent from flush.
+ *
+ * <pre>
+ * writer.begin().addByte(0x12).addByte(channel).addString(text, 7).send(midiOut);
+ * </pre>
+ */
+public final class SysexFrameWriter
+{
+   /**
+    * @param header the header bytes, starting with F0
+    * @param maxPayloadSize the maximum number of bytes written between the header and F7
+    */
+   public SysexFrameWriter(final byte[] header, final int maxPayloadSize)
+   {
+      super();
+      mHeaderSize = header.length;
+      mData = new byte[mHeaderSize + maxPayloadSize + 1];
+      System.arraycopy(header, 0, mData, 0, mHeaderSize);
+      mLength = mHeaderSize;
+   }
+
+   /**
+    * @param hexHeader the header as hex string, whitespace between the bytes is allowed (for example "F0 00 01 06 02")
+    */
+   public static SysexFrameWriter fromHex(final String hexHeader, final int maxPayloadSize)
+   {
+      return new SysexFrameWriter(parseHex(hexHeader), maxPayloadSize);
+   }
+
+   /** Starts a new message, discarding the payload of the previous one. */
+   public SysexFrameWriter begin()
+   {
+      mLength = mHeaderSize;
+      return this;
+   }
+
+   /** Number of bytes written after the header since {@link #begin()}. */
+   public int getPayloadSize()
+   {
+      return mLength - mHeaderSize;
+   }
+
+   public boolean isEmpty()
+   {
+      return mLength == mHeaderSize;
+   }
+
+   public int getPayloadByte(final int index)
+   {
+      return mData[mHeaderSize + index];
+   }
+
+   /** Overwrites a byte that was already written, for example to update an entry of the current message. */
+   public void setPayloadByte(final int index, final int value)
+   {
+      assert mHeaderSize + index < mLength;
+
+      mData[mHeaderSize + index] = (byte)value;
+   }
+
+   public SysexFrameWriter addByte(final int value)
+   {
+      mData[mLength++] = (byte)value;
+      return this;
+   }
+
+   public SysexFrameWriter add(final byte[] values)
+   {
+      return add(values, 0, values.length);
+   }
+
+   public SysexFrameWriter add(final byte[] values, final int offset, final int length)
+   {
+      System.arraycopy(values, offset, mData, mLength, length);
+      mLength += length;
+      return this;
+   }
+
+   /**
+    * Writes exactly length characters of the string, padding with spaces. Characters outside of 7-bit ASCII are
+    * written as '?' so they can't break the message.
+    */
+   public SysexFrameWriter addString(final String value, final int length)
+   {
+      final int stringLength = value.length();
+
+      for (int i = 0; i < length; ++i)
+      {
+         final char c = i < stringLength ? value.charAt(i) : ' ';
+         mData[mLength++] = (byte)(c < 0x80 ? c : '?');
+      }
+
+      return this;
+   }
+
+   /** Terminates the message and returns a copy of it. */
+   public byte[] terminate()
+   {
+      mData[mLength] = (byte)0xF7;
+      return Arrays.copyOf(mData, mLength + 1);
+   }
+
+   /** Terminates the message and sends it, starting a new one. */
+   public void send(final MidiOut midiOut)
+   {
+      // sendSysex() sends the whole array, so only the exact message is copied out of the frame.
+      midiOut.sendSysex(terminate());
+      begin();
+   }
+
+   /** Terminates the message and queues it, starting a new one. */
+   public void send(final MidiOutQueue queue, final MidiOutQueue.Priority priority)
+   {
+      mData[mLength] = (byte)0xF7;
+      queue.sendSysex(priority, MidiOutQueue.NO_ADDRESS, mData, mLength + 1);
+      begin();
+   }
+
+   private static byte[] parseHex(final String hex)
+   {
+      final String digits = hex.replaceAll("\\s", "");
+
+      if (digits.length() % 2 != 0)
+         throw new IllegalArgumentException("Odd number of hex digits: " + hex);
+
+      final byte[] bytes = new byte[digits.length() / 2];
+
+      for (int i = 0; i < bytes.length; ++i)
+         bytes[i] = (byte)Integer.parseInt(digits, 2 * i, 2 * i + 2, 16);
+
+      return bytes;
+   }
+
+   private final byte[] mData;
+   private final int mHeaderSize;
+   private int mLength;
+}
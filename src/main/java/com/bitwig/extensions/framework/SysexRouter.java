@@ -0,0 +1,334 @@
+package com.bitwig.extensions.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bitwig.extension.controller.api.Transport;
+
+/**
+ * Dispatches inbound sysex messages to handlers registered for byte patterns.
+ *
+ * A pattern is written as hex bytes, whitespace between the bytes is allowed. "??" matches any byte and captures it,
+ * and a trailing "..." matches any remaining bytes:
+ *
+ * <pre>
+ * router.register("F0 7F 7F 06 ?? F7", message -> onMmc(message.getCapture(0)));
+ * router.register("F0 00 00 66 14 01 58 59 5A ...", message -> onReload());
+ * </pre>
+ *
+ * The patterns are compiled into a trie with the wildcard branches merged into the exact ones, so a message is
+ * matched in a single pass over its hex string, without decoding it into an array first. If several patterns match,
+ * the one with the most exact bytes wins and a full match wins over a "..." match. Handlers get a
+ * {@link Message} which is reused for every message and must not be kept.
+ */
+public final class SysexRouter
+{
+   @FunctionalInterface
+   public interface Handler
+   {
+      void onSysex(Message message);
+   }
+
+   /** The message being dispatched, only valid during the call to the handler. */
+   public static final class Message
+   {
+      private Message()
+      {
+         super();
+      }
+
+      /** The message as received, lowercase hex without spaces. */
+      public String getData()
+      {
+         return mData;
+      }
+
+      /** The number of bytes of the message, including F0 and F7. */
+      public int getLength()
+      {
+         return mData.length() / 2;
+      }
+
+      public int getByte(final int index)
+      {
+         return decodeByte(mData, index);
+      }
+
+      /** The byte matched by the index-th "??" of the pattern. */
+      public int getCapture(final int index)
+      {
+         return getByte(mRoute.mCapturePositions[index]);
+      }
+
+      private String mData;
+      private Route mRoute;
+   }
+
+   public SysexRouter()
+   {
+      super();
+   }
+
+   /**
+    * Registers the handler for the pattern. A handler registered later for a pattern with the same exact bytes
+    * replaces the earlier one.
+    */
+   public SysexRouter register(final String pattern, final Handler handler)
+   {
+      final List<Integer> bytes = new ArrayList<>();
+      final List<Integer> capturePositions = new ArrayList<>();
+      boolean isPrefix = false;
+
+      final String[] tokens = pattern.trim().replaceAll("\\s+", " ").split(" ");
+
+      for (int i = 0; i < tokens.length; ++i)
+      {
+         final String token = tokens[i];
+
+         if (token.equals("..."))
+         {
+            if (i != tokens.length - 1)
+               throw new IllegalArgumentException("... must end the pattern: " + pattern);
+            isPrefix = true;
+         }
+         else if (token.equals("??"))
+         {
+            capturePositions.add(bytes.size());
+            bytes.add(ANY_BYTE);
+         }
+         else if (token.length() == 2)
+            bytes.add(Integer.parseInt(token, 16));
+         else
+            throw new IllegalArgumentException("Invalid token " + token + " in pattern: " + pattern);
+      }
+
+      final int[] positions = new int[capturePositions.size()];
+      for (int i = 0; i < positions.length; ++i)
+         positions[i] = capturePositions.get(i);
+
+      final Route route = new Route(handler, positions, bytes.size() - positions.length, mRouteCount++);
+      final int[] patternBytes = new int[bytes.size()];
+      for (int i = 0; i < patternBytes.length; ++i)
+         patternBytes[i] = bytes.get(i);
+
+      insert(mRoot, patternBytes, 0, route, isPrefix);
+      return this;
+   }
+
+   /**
+    * Registers the MIDI Machine Control transport commands sent to all devices: stop, play, fast forward, rewind
+    * and record.
+    */
+   public SysexRouter registerMmcTransport(final Transport transport)
+   {
+      return register(MMC_COMMAND_PATTERN, message ->
+      {
+         switch (message.getCapture(0))
+         {
+            case MMC_STOP:
+               transport.stop();
+               break;
+            case MMC_PLAY:
+               transport.play();
+               break;
+            case MMC_FAST_FORWARD:
+               transport.fastForward();
+               break;
+            case MMC_REWIND:
+               transport.rewind();
+               break;
+            case MMC_RECORD:
+               transport.record();
+               break;
+         }
+      });
+   }
+
+   /**
+    * Calls the handler of the best matching pattern.
+    *
+    * @param data the message as hex string, as given to the sysex callback of a MidiIn
+    * @return true if a handler was called
+    */
+   public boolean dispatch(final String data)
+   {
+      final int length = data.length() / 2;
+
+      if (data.length() % 2 != 0)
+         return false;
+
+      Node node = mRoot;
+      Route prefixRoute = node.mPrefixRoute;
+
+      for (int i = 0; i < length && node != null; ++i)
+      {
+         final int value = decodeByte(data, i);
+         if (value < 0)
+            return false;
+
+         node = node.mChildren[value];
+
+         if (node != null && node.mPrefixRoute != null)
+            prefixRoute = node.mPrefixRoute;
+      }
+
+      final Route route = node != null && node.mRoute != null ? node.mRoute : prefixRoute;
+      if (route == null)
+         return false;
+
+      mMessage.mData = data;
+      mMessage.mRoute = route;
+
+      try
+      {
+         route.mHandler.onSysex(mMessage);
+      }
+      finally
+      {
+         mMessage.mData = null;
+         mMessage.mRoute = null;
+      }
+
+      return true;
+   }
+
+   private static void insert(
+      final Node node,
+      final int[] pattern,
+      final int position,
+      final Route route,
+      final boolean isPrefix)
+   {
+      if (position == pattern.length)
+      {
+         if (isPrefix)
+            node.mPrefixRoute = preferred(node.mPrefixRoute, route);
+         else
+            node.mRoute = preferred(node.mRoute, route);
+         return;
+      }
+
+      final int value = pattern[position];
+
+      if (value == ANY_BYTE)
+      {
+         if (node.mAny == null)
+            node.mAny = new Node();
+
+         insert(node.mAny, pattern, position + 1, route, isPrefix);
+
+         // Exact bytes must also accept what the wildcard accepts
+         for (int b = 0; b < 256; ++b)
+         {
+            final Node child = node.mChildren[b];
+            if (child != null && child != node.mAny)
+               insert(child, pattern, position + 1, route, isPrefix);
+            else if (child == null)
+               node.mChildren[b] = node.mAny;
+         }
+      }
+      else
+      {
+         Node child = node.mChildren[value];
+
+         if (child == null)
+            child = new Node();
+         else if (child == node.mAny)
+            child = node.mAny.copy();
+
+         node.mChildren[value] = child;
+         insert(child, pattern, position + 1, route, isPrefix);
+      }
+   }
+
+   private static Route preferred(final Route current, final Route candidate)
+   {
+      if (current == null)
+         return candidate;
+      if (candidate.mExactCount != current.mExactCount)
+         return candidate.mExactCount > current.mExactCount ? candidate : current;
+      return candidate.mOrder > current.mOrder ? candidate : current;
+   }
+
+   /** @return the byte at index, or -1 if the hex digits are invalid */
+   private static int decodeByte(final String data, final int index)
+   {
+      final int high = Character.digit(data.charAt(2 * index), 16);
+      final int low = Character.digit(data.charAt(2 * index + 1), 16);
+
+      if (high < 0 || low < 0)
+         return -1;
+
+      return high << 4 | low;
+   }
+
+   private static final class Route
+   {
+      Route(final Handler handler, final int[] capturePositions, final int exactCount, final int order)
+      {
+         super();
+         mHandler = handler;
+         mCapturePositions = capturePositions;
+         mExactCount = exactCount;
+         mOrder = order;
+      }
+
+      final Handler mHandler;
+      final int[] mCapturePositions;
+      final int mExactCount;
+      final int mOrder;
+   }
+
+   private static final class Node
+   {
+      /**
+       * Copies the subtree, so exact bytes added below the copy don't change what the wildcard accepts. Shared
+       * wildcard children are shared in the copy as well.
+       */
+      Node copy()
+      {
+         final Node copy = new Node();
+         copy.mRoute = mRoute;
+         copy.mPrefixRoute = mPrefixRoute;
+
+         if (mAny != null)
+            copy.mAny = mAny.copy();
+
+         for (int b = 0; b < 256; ++b)
+         {
+            final Node child = mChildren[b];
+            if (child == null)
+               continue;
+            copy.mChildren[b] = child == mAny ? copy.mAny : child.copy();
+         }
+
+         return copy;
+      }
+
+      /** Next node for each byte, wildcard bytes point to mAny. */
+      final Node[] mChildren = new Node[256];
+
+      /** Node reached through a wildcard, null if no pattern has a wildcard here. */
+      Node mAny;
+
+      /** Route of the patterns ending here. */
+      Route mRoute;
+
+      /** Route of the "..." patterns ending here. */
+      Route mPrefixRoute;
+   }
+
+   private static final int ANY_BYTE = -1;
+
+   private static final String MMC_COMMAND_PATTERN = "F0 7F 7F 06 ?? F7";
+
+   private static final int MMC_STOP = 0x01;
+   private static final int MMC_PLAY = 0x02;
+   private static final int MMC_FAST_FORWARD = 0x04;
+   private static final int MMC_REWIND = 0x05;
+   private static final int MMC_RECORD = 0x06;
+
+   private final Node mRoot = new Node();
+   private final Message mMessage = new Message();
+   private int mRouteCount;
+}
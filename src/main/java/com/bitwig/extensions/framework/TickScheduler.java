@@ -0,0 +1,288 @@
+package com.bitwig.extensions.framework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+
+/**
+ * Runs periodic tasks (animations, blinking, polling) of an extension from a single chain of host tasks.
+ *
+ * All periods are aligned to the same clock, so subscribers with the same or a multiple period tick together
+ * and blink in phase. The scheduler only wakes up when a subscription is due and stops scheduling host tasks
+ * altogether while there are no subscriptions.
+ *
+ * The scheduler of a host lives until {@link #release(ControllerHost)} is called from the exit() of the extension.
+ */
+public final class TickScheduler
+{
+   /** A task that is run up to this amount of time before it is due is considered due. */
+   private static final int TOLERANCE_MS = 2;
+
+   private static final long NOT_SCHEDULED = -1;
+
+   /** Returns the scheduler shared by everything running on the given host. */
+   public static TickScheduler forHost(final ControllerHost host)
+   {
+      // Extensions run on their own threads, each of them can get here
+      synchronized (HOST_TO_SCHEDULER_MAP)
+      {
+         TickScheduler scheduler = HOST_TO_SCHEDULER_MAP.get(host);
+
+         if (scheduler == null)
+         {
+            scheduler = new TickScheduler(host, TickScheduler::getSystemTime);
+            HOST_TO_SCHEDULER_MAP.put(host, scheduler);
+         }
+
+         return scheduler;
+      }
+   }
+
+   /**
+    * Creates the scheduler of a host that provides its own time, for example a simulated host that runs the
+    * scheduled tasks itself. The clock returns the time in milliseconds and is read instead of the system clock.
+    * This has to be done before anything gets the scheduler of the host, it is released like any other.
+    */
+   public static TickScheduler createForHost(final ControllerHost host, final LongSupplier clock)
+   {
+      synchronized (HOST_TO_SCHEDULER_MAP)
+      {
+         assert !HOST_TO_SCHEDULER_MAP.containsKey(host);
+
+         final TickScheduler scheduler = new TickScheduler(host, clock);
+         HOST_TO_SCHEDULER_MAP.put(host, scheduler);
+         return scheduler;
+      }
+   }
+
+   /**
+    * Cancels all subscriptions of the host's scheduler and forgets it, so the extension can be collected once it
+    * exited. Tasks subscribed to the released scheduler afterwards never run.
+    */
+   public static void release(final ControllerHost host)
+   {
+      final TickScheduler scheduler;
+
+      synchronized (HOST_TO_SCHEDULER_MAP)
+      {
+         scheduler = HOST_TO_SCHEDULER_MAP.remove(host);
+      }
+
+      if (scheduler != null)
+         scheduler.cancelAll();
+   }
+
+   private TickScheduler(final ControllerHost host, final LongSupplier clock)
+   {
+      super();
+      mHost = host;
+      mClock = clock;
+      mEpoch = clock.getAsLong();
+   }
+
+   private static long getSystemTime()
+   {
+      return System.nanoTime() / 1000000;
+   }
+
+   public ControllerHost getHost()
+   {
+      return mHost;
+   }
+
+   /**
+    * Runs the task every periodInMs, at multiples of the period on the scheduler clock, until the returned
+    * subscription is cancelled.
+    */
+   public Subscription subscribe(final int periodInMs, final Runnable task)
+   {
+      assert periodInMs > 0;
+
+      final Subscription subscription = new Subscription(periodInMs, task);
+
+      if (mIsReleased)
+      {
+         subscription.mIsActive = false;
+         return subscription;
+      }
+
+      subscription.mNextDueTime = nextTickAfter(getTime(), periodInMs);
+      mSubscriptions.add(subscription);
+
+      scheduleAt(subscription.mNextDueTime);
+
+      return subscription;
+   }
+
+   /**
+    * Runs the task once, delayInMs from now, unless the returned subscription is cancelled before. The task is not
+    * aligned to a period, it only shares the host task of the subscriptions due at the same time.
+    */
+   public Subscription schedule(final int delayInMs, final Runnable task)
+   {
+      assert delayInMs >= 0;
+
+      final Subscription subscription = new Subscription(0, task);
+
+      if (mIsReleased)
+      {
+         subscription.mIsActive = false;
+         return subscription;
+      }
+
+      subscription.mNextDueTime = getTime() + delayInMs;
+      mSubscriptions.add(subscription);
+
+      scheduleAt(subscription.mNextDueTime);
+
+      return subscription;
+   }
+
+   /**
+    * Phase aligned blink state: alternates between true and false every onOffDurationInMs. Reading it does not
+    * require a subscription, but something has to request a flush for the change to be visible.
+    */
+   public boolean isBlinkOn(final int onOffDurationInMs)
+   {
+      return (getTime() / onOffDurationInMs) % 2 == 0;
+   }
+
+   /** Milliseconds since the scheduler was created. */
+   public long getTime()
+   {
+      return mClock.getAsLong() - mEpoch;
+   }
+
+   private void cancelAll()
+   {
+      for (final Subscription subscription : mSubscriptions)
+         subscription.mIsActive = false;
+
+      mSubscriptions.clear();
+      mIsReleased = true;
+
+      // A host task that is still scheduled is ignored when it runs
+      ++mGeneration;
+      mScheduledTime = NOT_SCHEDULED;
+   }
+
+   private static long nextTickAfter(final long time, final int period)
+   {
+      return (time / period + 1) * period;
+   }
+
+   private void scheduleAt(final long time)
+   {
+      if (mIsReleased)
+         return;
+
+      if (mScheduledTime != NOT_SCHEDULED && mScheduledTime <= time)
+         return;
+
+      // Host tasks can't be cancelled, a task scheduled earlier but now superseded is ignored when it runs.
+      final int generation = ++mGeneration;
+      mScheduledTime = time;
+
+      mHost.scheduleTask(() -> tick(generation), Math.max(0, time - getTime()));
+   }
+
+   private void tick(final int generation)
+   {
+      if (generation != mGeneration)
+         return;
+
+      mScheduledTime = NOT_SCHEDULED;
+
+      final long now = getTime();
+
+      // Tasks may subscribe or cancel while we run them
+      mDueSubscriptions.addAll(mSubscriptions);
+
+      for (final Subscription subscription : mDueSubscriptions)
+      {
+         if (subscription.mIsActive && subscription.mNextDueTime <= now + TOLERANCE_MS)
+         {
+            if (subscription.mPeriod == 0)
+            {
+               subscription.cancel();
+               subscription.mTask.run();
+               continue;
+            }
+
+            subscription.mNextDueTime = nextTickAfter(Math.max(now, subscription.mNextDueTime),
+               subscription.mPeriod);
+            subscription.mTask.run();
+         }
+      }
+
+      mDueSubscriptions.clear();
+
+      long nextDueTime = Long.MAX_VALUE;
+
+      for (final Subscription subscription : mSubscriptions)
+         nextDueTime = Math.min(nextDueTime, subscription.mNextDueTime);
+
+      if (nextDueTime != Long.MAX_VALUE)
+         scheduleAt(nextDueTime);
+   }
+
+   public final class Subscription
+   {
+      private Subscription(final int period, final Runnable task)
+      {
+         super();
+         mPeriod = period;
+         mTask = task;
+      }
+
+      /** The period of the subscription, 0 for a task that runs once. */
+      public int getPeriod()
+      {
+         return mPeriod;
+      }
+
+      public boolean isActive()
+      {
+         return mIsActive;
+      }
+
+      public void cancel()
+      {
+         if (mIsActive)
+         {
+            mIsActive = false;
+            mSubscriptions.remove(this);
+         }
+      }
+
+      private final int mPeriod;
+
+      private final Runnable mTask;
+
+      private long mNextDueTime;
+
+      private boolean mIsActive = true;
+   }
+
+   private final ControllerHost mHost;
+
+   private final LongSupplier mClock;
+
+   private final long mEpoch;
+
+   private final List<Subscription> mSubscriptions = new ArrayList<>();
+
+   private final List<Subscription> mDueSubscriptions = new ArrayList<>();
+
+   private long mScheduledTime = NOT_SCHEDULED;
+
+   private int mGeneration;
+
+   private boolean mIsReleased;
+
+   private static final Map<ControllerHost, TickScheduler> HOST_TO_SCHEDULER_MAP = new HashMap<>();
+}
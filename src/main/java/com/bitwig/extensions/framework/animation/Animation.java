@@ -9,6 +9,7 @@ import java.util.function.Supplier;
 
 import com.bitwig.extension.controller.ControllerExtension;
 import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extensions.framework.TickScheduler;
 
 public abstract class Animation<ValueType> implements Supplier<ValueType>
 {
@@ -66,6 +67,20 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
       }
    }
 
+   /**
+    * Stops pumping flushes for the host and forgets its running animations, so the extension can be collected once
+    * it exited. Called from the exit() of the extension, like {@link TickScheduler#release(ControllerHost)}.
+    */
+   public static void release(final ControllerHost host)
+   {
+      HOST_TO_RUNNING_ANIMATIONS_MAP.remove(host);
+
+      final TickScheduler.Subscription flushPump = HOST_TO_FLUSH_PUMP_MAP.remove(host);
+
+      if (flushPump != null)
+         flushPump.cancel();
+   }
+
    private static void startedAnimation(final Animation animation)
    {
       final ControllerHost host = animation.mControllerExtension.getHost();
@@ -84,7 +99,11 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
       {
          // Start pumping the animations for this host.
 
-         pumpFlush(host, runningAnimations);
+         host.requestFlush();
+
+         assert !HOST_TO_FLUSH_PUMP_MAP.containsKey(host);
+         HOST_TO_FLUSH_PUMP_MAP.put(host,
+            TickScheduler.forHost(host).subscribe(1000 / FRAMES_PER_SEC, host::requestFlush));
       }
    }
 
@@ -94,18 +113,25 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
 
       final List<Animation> runningAnimations = HOST_TO_RUNNING_ANIMATIONS_MAP.get(host);
 
-      assert runningAnimations != null;
+      // The animations of a released host are no longer tracked
+      if (runningAnimations == null)
+         return;
+
       assert runningAnimations.contains(animation);
 
       runningAnimations.remove(animation);
-   }
 
-   private static void pumpFlush(final ControllerHost host, final List<Animation> runningAnimations)
-   {
-      host.requestFlush();
+      if (runningAnimations.isEmpty())
+      {
+         // Request a last flush so that the off value gets painted, then stop pumping.
+
+         host.requestFlush();
 
-      if (!runningAnimations.isEmpty())
-         host.scheduleTask(() -> pumpFlush(host, runningAnimations), 1000 / FRAMES_PER_SEC);
+         final TickScheduler.Subscription flushPump = HOST_TO_FLUSH_PUMP_MAP.remove(host);
+
+         if (flushPump != null)
+            flushPump.cancel();
+      }
    }
 
    protected abstract ValueType getAnimatedValueAtTime(double timeInSec);
@@ -119,4 +145,6 @@ public abstract class Animation<ValueType> implements Supplier<ValueType>
    private final Supplier<ValueType> mOffValueSupplier;
 
    private static final Map<ControllerHost, List<Animation>> HOST_TO_RUNNING_ANIMATIONS_MAP = new HashMap<>();
+
+   private static final Map<ControllerHost, TickScheduler.Subscription> HOST_TO_FLUSH_PUMP_MAP = new HashMap<>();
 }
@@ -0,0 +1,56 @@
+package com.bitwig.extensions.remoteconsole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A log format split once at its {} placeholders.
+ */
+final class LogFormat {
+	private static final String PLACEHOLDER = "{}";
+	private static final int MAX_CACHED_FORMATS = 512;
+	private static final Map<String, LogFormat> CACHE = new ConcurrentHashMap<>();
+
+	private final String[] segments;
+
+	private LogFormat(final String format) {
+		final List<String> parts = new ArrayList<>();
+		int start = 0;
+		int index;
+		while ((index = format.indexOf(PLACEHOLDER, start)) != -1) {
+			parts.add(format.substring(start, index));
+			start = index + PLACEHOLDER.length();
+		}
+		parts.add(format.substring(start));
+		segments = parts.toArray(new String[parts.size()]);
+	}
+
+	static LogFormat of(final String format) {
+		final LogFormat cached = CACHE.get(format);
+		if (cached != null) {
+			return cached;
+		}
+		final LogFormat logFormat = new LogFormat(format);
+		if (CACHE.size() < MAX_CACHED_FORMATS) {
+			CACHE.put(format, logFormat);
+		}
+		return logFormat;
+	}
+
+	/**
+	 * Appends the formatted message, placeholders without a matching parameter are rendered as " -- ".
+	 */
+	void appendTo(final StringBuilder sb, final Object[] params) {
+		sb.append(segments[0]);
+		for (int i = 1; i < segments.length; i++) {
+			if (i - 1 < params.length) {
+				sb.append(params[i - 1]);
+			} else {
+				sb.append(" -- ");
+			}
+			sb.append(segments[i]);
+		}
+	}
+}
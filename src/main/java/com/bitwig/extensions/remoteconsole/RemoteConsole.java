@@ -1,11 +1,53 @@
 package com.bitwig.extensions.remoteconsole;
 
+/**
+ * Debug console sending log lines over UDP to a listener on localhost:6001. The console is disabled unless the
+ * system property {@value #LEVEL_PROPERTY} is set to one of the {@link Level} names, in which case messages of
+ * that level and above are sent. By default messages are handed to a background sender through a bounded queue
+ * (size set with {@value #QUEUE_SIZE_PROPERTY}, 0 sends synchronously), so logging never blocks the caller;
+ * messages are dropped when the queue is full.
+ */
 public interface RemoteConsole {
-	public static final RemoteConsole out = new RemoteConsoleActive();
+	public static final String LEVEL_PROPERTY = "bitwig.extensions.remoteconsole";
+	public static final String QUEUE_SIZE_PROPERTY = "bitwig.extensions.remoteconsole.queue";
+
+	public static final RemoteConsole out = create();
+
+	enum Level {
+		TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+	}
+
+	static RemoteConsole create() {
+		final String levelName = System.getProperty(LEVEL_PROPERTY);
+		if (levelName == null) {
+			return RemoteConsoleInactive.INSTANCE;
+		}
+		final Level level;
+		try {
+			level = Level.valueOf(levelName.trim().toUpperCase());
+		} catch (final IllegalArgumentException e) {
+			return RemoteConsoleInactive.INSTANCE;
+		}
+		if (level == Level.OFF) {
+			return RemoteConsoleInactive.INSTANCE;
+		}
+		return new RemoteConsoleActive(level, Integer.getInteger(QUEUE_SIZE_PROPERTY, 256));
+	}
+
+	/**
+	 * Callers on hot paths should check this before logging, so that no parameters get boxed when the level is
+	 * disabled.
+	 */
+	boolean isEnabled(Level level);
+
+	/**
+	 * Logs a message, each {} in the format is replaced by the next parameter.
+	 */
+	void log(Level level, String format, Object... params);
 
 	void printSysEx(String prefix, byte[] data);
 
 	void println(String format, Object... params);
 
 	String getStackTrace(final int max);
-}
\ No newline at end of file
+}
@@ -7,19 +7,46 @@ import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RemoteConsoleActive implements RemoteConsole {
 	private DatagramSocket socket;
 	private InetAddress address;
-	private byte[] buf;
+	private final Level level;
+	private final BlockingQueue<String> queue;
+	private final AtomicInteger droppedMessages = new AtomicInteger();
 
-	public RemoteConsoleActive() {
+	/**
+	 * @param level     the lowest level that is sent
+	 * @param queueSize size of the queue drained by the background sender, 0 sends on the calling thread
+	 */
+	public RemoteConsoleActive(final Level level, final int queueSize) {
+		this.level = level;
 		try {
 			socket = new DatagramSocket();
 			address = InetAddress.getByName("localhost");
 		} catch (final SocketException | UnknownHostException e) {
 			e.printStackTrace();
 		}
+		if (queueSize > 0) {
+			queue = new ArrayBlockingQueue<>(queueSize);
+			final Thread sender = new Thread(this::drainQueue, "RemoteConsole sender");
+			sender.setDaemon(true);
+			sender.start();
+		} else {
+			queue = null;
+		}
+	}
+
+	public RemoteConsoleActive() {
+		this(Level.TRACE, 0);
+	}
+
+	@Override
+	public boolean isEnabled(final Level level) {
+		return level.compareTo(this.level) >= 0 && level != Level.OFF;
 	}
 
 	@Override
@@ -40,6 +67,9 @@ public class RemoteConsoleActive implements RemoteConsole {
 
 	@Override
 	public void printSysEx(final String prefix, final byte[] data) {
+		if (!isEnabled(Level.DEBUG)) {
+			return;
+		}
 		final StringBuilder b = new StringBuilder(prefix + " ");
 		for (int i = 0; i < data.length; i++) {
 			b.append(pad(Integer.toHexString(data[i])));
@@ -52,23 +82,17 @@ public class RemoteConsoleActive implements RemoteConsole {
 
 	@Override
 	public void println(final String format, final Object... params) {
-		final String[] split = format.split("\\{\\}");
-		if (split.length > 0) {
-			final StringBuilder sb = new StringBuilder(split[0]);
-			int pc = 0;
-			for (int i = 1; i < split.length; i++) {
-				if (pc < params.length) {
-					sb.append(params[pc++].toString());
-				} else {
-					sb.append(" -- ");
-				}
-				sb.append(split[i]);
-			}
-			if (pc < params.length) {
-				sb.append(params[pc++].toString());
-			}
-			println(sb.toString());
+		log(Level.INFO, format, params);
+	}
+
+	@Override
+	public void log(final Level level, final String format, final Object... params) {
+		if (!isEnabled(level)) {
+			return;
 		}
+		final StringBuilder sb = new StringBuilder(format.length() + 16 * params.length);
+		LogFormat.of(format).appendTo(sb, params);
+		println(sb.toString());
 	}
 
 	private static String pad(final String v) {
@@ -84,11 +108,14 @@ public class RemoteConsoleActive implements RemoteConsole {
 		return v.substring(0, 2);
 	}
 
-	private void print(final String msg) {
+	private void send(final String msg) {
+		if (socket == null) {
+			return;
+		}
 		final ByteBuffer bb = ByteBuffer.allocate(msg.length() + 10);
 		bb.putInt(msg.length());
 		bb.put(msg.getBytes());
-		buf = bb.array();
+		final byte[] buf = bb.array();
 		final DatagramPacket packet = new DatagramPacket(buf, buf.length, address, 6001);
 		try {
 			socket.send(packet);
@@ -97,8 +124,28 @@ public class RemoteConsoleActive implements RemoteConsole {
 		}
 	}
 
+	private void drainQueue() {
+		try {
+			while (true) {
+				final String msg = queue.take();
+				final int dropped = droppedMessages.getAndSet(0);
+				if (dropped > 0) {
+					send("... " + dropped + " messages dropped\n");
+				}
+				send(msg);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	private void println(final String msg) {
-		print(msg + "\n");
+		final String line = msg + "\n";
+		if (queue == null) {
+			send(line);
+		} else if (!queue.offer(line)) {
+			droppedMessages.incrementAndGet();
+		}
 	}
 
 }
@@ -0,0 +1,33 @@
+package com.bitwig.extensions.remoteconsole;
+
+/**
+ * Console used when remote logging is disabled, all calls are no-ops.
+ */
+final class RemoteConsoleInactive implements RemoteConsole {
+	static final RemoteConsoleInactive INSTANCE = new RemoteConsoleInactive();
+
+	private RemoteConsoleInactive() {
+	}
+
+	@Override
+	public boolean isEnabled(final Level level) {
+		return false;
+	}
+
+	@Override
+	public void log(final Level level, final String format, final Object... params) {
+	}
+
+	@Override
+	public void printSysEx(final String prefix, final byte[] data) {
+	}
+
+	@Override
+	public void println(final String format, final Object... params) {
+	}
+
+	@Override
+	public String getStackTrace(final int max) {
+		return "";
+	}
+}
@@ -0,0 +1,84 @@
+package com.bitwig.extensions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extensions.controllers.akai.apc40_mkii.APC40MKIIControllerExtensionDefinition;
+import com.bitwig.extensions.controllers.novation.launchpad_pro.LaunchpadProControllerExtensionDefinition;
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+/**
+ * The flush of an extension whose state didn't change, which is what most flushes are: every LED is painted and
+ * compared to what the device shows, and nothing should be sent. Run with -prof gc to see the allocations per flush.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionFlushBenchmark
+{
+   @Param({"LaunchpadPro", "APC40MKII"})
+   public String mExtensionName;
+
+   @Setup
+   public void setUp()
+   {
+      mHost = new FakeControllerHost();
+      mExtension = mHost.createExtension(getDefinitionClass(mExtensionName));
+      mMidiOut = mHost.getMidiOut(0);
+
+      mExtension.init();
+      mExtension.flush();
+   }
+
+   @TearDown
+   public void tearDown()
+   {
+      mExtension.exit();
+      mHost.close();
+   }
+
+   private static Class<? extends ControllerExtensionDefinition> getDefinitionClass(final String name)
+   {
+      switch (name)
+      {
+         case "LaunchpadPro":
+            return LaunchpadProControllerExtensionDefinition.class;
+         case "APC40MKII":
+            return APC40MKIIControllerExtensionDefinition.class;
+         default:
+            throw new IllegalArgumentException(name);
+      }
+   }
+
+   @Benchmark
+   public long flush()
+   {
+      mExtension.flush();
+
+      final long byteCount = mMidiOut.getByteCount();
+      mMidiOut.clear();
+      return byteCount;
+   }
+
+   private FakeControllerHost mHost;
+   private ControllerExtension mExtension;
+   private FakeMidiOut mMidiOut;
+}
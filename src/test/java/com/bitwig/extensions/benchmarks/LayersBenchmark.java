@@ -0,0 +1,95 @@
+package com.bitwig.extensions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extension.controller.api.HardwareButton;
+import com.bitwig.extension.controller.api.HardwareSurface;
+import com.bitwig.extensions.controllers.novation.launchpad_pro.LaunchpadProControllerExtensionDefinition;
+import com.bitwig.extensions.framework.Layer;
+import com.bitwig.extensions.framework.Layers;
+import com.bitwig.extensions.testing.FakeControllerHost;
+
+/**
+ * Switching an overlay layer on and off, which makes Layers update the active bindings. The base layer binds every
+ * button, the overlay a quarter of them, and a number of layers that are never active bind all of them as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayersBenchmark
+{
+   @Param({"64", "256"})
+   public int mButtonCount;
+
+   @Param({"0", "16"})
+   public int mInactiveLayerCount;
+
+   @Setup
+   public void setUp()
+   {
+      mHost = new FakeControllerHost();
+      final HardwareSurface surface = mHost.getHardwareSurface();
+      // The extension only owns the layers, it is never initialized
+      final Layers layers = new Layers(mHost.createExtension(LaunchpadProControllerExtensionDefinition.class));
+
+      final Layer baseLayer = new Layer(layers, "Base");
+      mOverlay = new Layer(layers, "Overlay");
+
+      final Layer[] inactiveLayers = new Layer[mInactiveLayerCount];
+      for (int i = 0; i < mInactiveLayerCount; ++i)
+         inactiveLayers[i] = new Layer(layers, "Inactive " + i);
+
+      for (int i = 0; i < mButtonCount; ++i)
+      {
+         final HardwareButton button = surface.createHardwareButton("Button " + i);
+
+         baseLayer.bindPressed(button, this::onPressed);
+
+         if (i % 4 == 0)
+            mOverlay.bindPressed(button, this::onPressed);
+
+         for (final Layer layer : inactiveLayers)
+            layer.bindPressed(button, this::onPressed);
+      }
+
+      baseLayer.activate();
+   }
+
+   @TearDown
+   public void tearDown()
+   {
+      mHost.close();
+   }
+
+   private void onPressed()
+   {
+      ++mPressCount;
+   }
+
+   @Benchmark
+   public int toggleOverlay()
+   {
+      mOverlay.toggleIsActive();
+      return mPressCount;
+   }
+
+   private FakeControllerHost mHost;
+   private Layer mOverlay;
+   private int mPressCount;
+}
@@ -0,0 +1,116 @@
+package com.bitwig.extensions.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtension;
+import com.bitwig.extensions.controllers.mackie.MackieMcuProExtensionDefinition;
+import com.bitwig.extensions.controllers.mackie.display.LcdDisplay;
+import com.bitwig.extensions.controllers.mackie.display.MeterEngine;
+import com.bitwig.extensions.controllers.mackie.layer.SectionType;
+import com.bitwig.extensions.framework.MidiOutQueue;
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+/**
+ * Rendering the eight segments of both rows of the MCU display, as the display layers do on every value change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class McuDisplayBenchmark
+{
+   private static final String[][] TEXTS = {
+      {"Audio1", "Audio2", "Bass", "Drums", "Keys", "Pad", "Lead", "FX"},
+      {"-6.0dB", "-3.2dB", "0.0dB", "-inf", "+1.5dB", "-12dB", "-8.4dB", "-0.1dB"},
+      {"-6.1dB", "-3.1dB", "0.1dB", "-inf", "+1.4dB", "-11dB", "-8.5dB", "-0.2dB"}};
+
+   @Setup
+   public void setUp()
+   {
+      mHost = new FakeControllerHost();
+      mDriver = (MackieMcuProExtension)mHost.createExtension(MackieMcuProExtensionDefinition.class);
+      mDriver.init();
+
+      // Like a section of the extension, the display shares the output queue of the port with the meters
+      mMidiOut = mHost.getMidiOut(0);
+      mOutputQueue = new MidiOutQueue(mHost.getHost(), mMidiOut.getPort(), 3, 128);
+      final MeterEngine.Strip[] meterStrips = new MeterEngine.Strip[8];
+      for (int i = 0; i < meterStrips.length; ++i)
+         meterStrips[i] = mDriver.getMeterEngine().createStrip(mOutputQueue, i);
+
+      mDisplay = new LcdDisplay(mDriver, mOutputQueue, SectionType.MAIN, meterStrips);
+      render(0, 1);
+      mDisplay.flush();
+      mOutputQueue.flushAll();
+      mMidiOut.clear();
+   }
+
+   @TearDown
+   public void tearDown()
+   {
+      mDriver.exit();
+      mHost.close();
+   }
+
+   private void render(final int upperTexts, final int lowerTexts)
+   {
+      for (int segment = 0; segment < 8; ++segment)
+      {
+         mDisplay.sendToRow(0, segment, TEXTS[upperTexts][segment]);
+         mDisplay.sendToRow(1, segment, TEXTS[lowerTexts][segment]);
+      }
+   }
+
+   /** The texts didn't change, the display must neither render nor send anything. */
+   @Benchmark
+   public void renderAndFlushUnchanged()
+   {
+      render(0, 1);
+      mDisplay.flush();
+      mOutputQueue.flushAll();
+   }
+
+   /** The lower row changes, which only updates the frame, the changes are transmitted by the flush. */
+   @Benchmark
+   public void renderChangedRow()
+   {
+      mToggle = !mToggle;
+      render(0, mToggle ? 2 : 1);
+   }
+
+   /**
+    * The lower row changes and is transmitted: the changed spans are encoded, queued and sent. The queue is drained
+    * without pacing, so this measures the encoding and queueing, not the link speed.
+    */
+   @Benchmark
+   public void renderChangedRowAndFlush()
+   {
+      mToggle = !mToggle;
+      render(0, mToggle ? 2 : 1);
+      mDisplay.flush();
+      mOutputQueue.flushAll();
+      mMidiOut.clear();
+   }
+
+   private FakeControllerHost mHost;
+   private MackieMcuProExtension mDriver;
+   private FakeMidiOut mMidiOut;
+   private MidiOutQueue mOutputQueue;
+   private LcdDisplay mDisplay;
+   private boolean mToggle;
+}
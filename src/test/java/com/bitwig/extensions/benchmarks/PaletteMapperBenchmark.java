@@ -0,0 +1,120 @@
+package com.bitwig.extensions.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bitwig.extensions.framework.IntIntLruCache;
+import com.bitwig.extensions.framework.PaletteMapper;
+
+/**
+ * Mapping colors to a 128 entry hardware palette: colors of the Bitwig palette (fixed colors), a working set of
+ * colors that fits into the cache, and random colors that mostly miss it and are matched against every entry. Run with
+ * -prof gc to check that none of them allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaletteMapperBenchmark
+{
+   private static final int[] BITWIG_PALETTE = {
+      0x000000, 0x545454, 0x7A7A7A, 0xC9C9C9, 0x868686, 0xA3794F, 0xC6A96E, 0x57614C, 0x9D87AC, 0x48859D, 0xC36C6B,
+      0xD92A24, 0xFF5706, 0xD99D10, 0x739814, 0x009D47, 0x00A694, 0x0099D9, 0x5761C6, 0xBC76F0, 0xE26691, 0xEC8C5E,
+      0xFF833E, 0xE4B74E, 0xA0C04C, 0x3EBB62, 0x43D2B9, 0x44C8FF, 0x8B93E0, 0xC5A9F1};
+
+   private static final int PALETTE_SIZE = 128;
+
+   private static final int CACHE_CAPACITY = 256;
+
+   /** Number of colors each benchmark cycles through, a power of 2. */
+   private static final int COLOR_COUNT = 4096;
+
+   @Param({"16", "4096"})
+   public int mWorkingSetSize;
+
+   @Setup
+   public void setUp()
+   {
+      final Random random = new Random(3);
+
+      mMapper = new PaletteMapper(CACHE_CAPACITY);
+
+      for (int i = 0; i < PALETTE_SIZE; ++i)
+         mMapper.addPaletteEntry(random.nextInt(0x1000000), i);
+
+      for (int i = 0; i < BITWIG_PALETTE.length; ++i)
+         mMapper.addFixedColor(BITWIG_PALETTE[i], i);
+
+      mCache = new IntIntLruCache(CACHE_CAPACITY);
+
+      final int[] workingSet = new int[mWorkingSetSize];
+      for (int i = 0; i < workingSet.length; ++i)
+         workingSet[i] = random.nextInt(0x1000000);
+
+      mColors = new int[COLOR_COUNT];
+      for (int i = 0; i < COLOR_COUNT; ++i)
+         mColors[i] = workingSet[random.nextInt(workingSet.length)];
+   }
+
+   private int nextColor()
+   {
+      mPosition = (mPosition + 1) & (COLOR_COUNT - 1);
+      return mColors[mPosition];
+   }
+
+   @Benchmark
+   public int mapBitwigColor()
+   {
+      mPosition = (mPosition + 1) & (COLOR_COUNT - 1);
+      return mMapper.map(BITWIG_PALETTE[mPosition % BITWIG_PALETTE.length]);
+   }
+
+   /** Colors of the working set, they hit the cache when the working set fits into it. */
+   @Benchmark
+   public int mapColor()
+   {
+      return mMapper.map(nextColor());
+   }
+
+   /** The nearest entry search behind a cache miss. */
+   @Benchmark
+   public int findNearestEntry()
+   {
+      return mMapper.findNearestEntry(nextColor());
+   }
+
+   /** The LRU cache alone, every lookup that misses inserts the color. */
+   @Benchmark
+   public int lruGetOrPut()
+   {
+      final int rgb = nextColor();
+      int value = mCache.get(rgb, -1);
+
+      if (value == -1)
+      {
+         value = rgb & 0x7F;
+         mCache.put(rgb, value);
+      }
+
+      return value;
+   }
+
+   private PaletteMapper mMapper;
+   private IntIntLruCache mCache;
+   private int[] mColors;
+   private int mPosition;
+}
@@ -0,0 +1,30 @@
+package com.bitwig.extensions.controllers.mackie;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extensions.testing.FakeControllerHost;
+
+class MackieMcuProExtensionTest {
+	private final FakeControllerHost host = new FakeControllerHost();
+	private final ControllerExtension extension = host.createExtension(MackieMcuProExtensionDefinition.class);
+
+	@AfterEach
+	void exitExtension() {
+		extension.exit();
+		host.close();
+	}
+
+	@Test
+	void initAndFlushSendToTheUnit() {
+		extension.init();
+		extension.flush();
+		// Lets the paced output and the scheduled tasks of the first 50 ms run
+		host.advanceTime(50);
+
+		assertTrue(host.getMidiOut(0).getByteCount() > 0);
+	}
+}
@@ -0,0 +1,70 @@
+package com.bitwig.extensions.controllers.novation.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.PaletteMapper;
+
+class DefaultPaletteTest
+{
+   /** The linear search DefaultPalette did before the mapper memoized it. */
+   private static int findClosestIndexReference(final int[] palette, final int red, final int green, final int blue)
+   {
+      final float[] hsvRef = new float[3];
+      DefaultPalette.RGBtoHSV(red / 255f, green / 255f, blue / 255f, hsvRef);
+
+      float minError = Float.MAX_VALUE;
+      int colorIndex = 0;
+
+      for (int i = 0; i < palette.length / 3; ++i)
+      {
+         final float[] hsv = new float[3];
+         DefaultPalette.RGBtoHSV(palette[i * 3] / 255f, palette[i * 3 + 1] / 255f, palette[i * 3 + 2] / 255f, hsv);
+
+         final float hueError = (hsv[0] - hsvRef[0]) / 30;
+         final float sError = (hsv[1] - hsvRef[1]) * 1.6f;
+         final float vError = (hsv[2] * 255 - hsvRef[2] * 255) / 40;
+         final float error = hueError * hueError + vError * vError + sError * sError;
+
+         if (error < minError)
+         {
+            colorIndex = i;
+            minError = error;
+         }
+      }
+
+      return colorIndex;
+   }
+
+   @Test
+   void findsTheSameEntriesAsTheLinearSearch()
+   {
+      final int[] palette = DefaultPalette.getPalette();
+      final PaletteMapper mapper = DefaultPalette.createMapper();
+      final Random random = new Random(1);
+
+      // More colors than the cache holds, and every color twice to hit the cache as well
+      for (int i = 0; i < 2000; ++i)
+      {
+         final int red = random.nextInt(256);
+         final int green = random.nextInt(256);
+         final int blue = random.nextInt(256);
+         final int expected = findClosestIndexReference(palette, red, green, blue);
+
+         assertEquals(expected, mapper.map(red << 16 | green << 8 | blue));
+      }
+   }
+
+   @Test
+   void paletteEntriesMapToThemselves()
+   {
+      final PaletteMapper mapper = DefaultPalette.createMapper();
+
+      assertEquals(0, mapper.map(0x000000));
+      assertEquals(3, mapper.map(0xFFFBFF));
+      assertEquals(9, mapper.map(0xFFA300));
+   }
+}
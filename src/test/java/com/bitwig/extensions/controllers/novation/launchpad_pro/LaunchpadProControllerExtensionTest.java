@@ -0,0 +1,38 @@
+package com.bitwig.extensions.controllers.novation.launchpad_pro;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+class LaunchpadProControllerExtensionTest
+{
+   @AfterEach
+   void exitExtension()
+   {
+      mExtension.exit();
+      mHost.close();
+   }
+
+   @Test
+   void firstFlushPaintsTheLedsAndSecondOneSendsNothing()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+
+      mExtension.init();
+      mExtension.flush();
+      assertTrue(midiOut.getByteCount() > 0);
+
+      midiOut.clear();
+      mExtension.flush();
+      assertEquals(0, midiOut.getByteCount(), () -> String.join("\n", midiOut.getMessagesAsHex()));
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+   private final ControllerExtension mExtension = mHost.createExtension(LaunchpadProControllerExtensionDefinition.class);
+}
@@ -0,0 +1,102 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.testing.Allocations;
+
+class IntIntLruCacheTest
+{
+   @Test
+   void returnsMissingValueForUnknownKeys()
+   {
+      final IntIntLruCache cache = new IntIntLruCache(4);
+
+      assertEquals(-1, cache.get(42, -1));
+      assertFalse(cache.containsKey(42));
+      assertEquals(0, cache.size());
+   }
+
+   @Test
+   void putReplacesTheValueOfAKey()
+   {
+      final IntIntLruCache cache = new IntIntLruCache(4);
+      cache.put(1, 10);
+      cache.put(1, 11);
+
+      assertEquals(11, cache.get(1, -1));
+      assertEquals(1, cache.size());
+   }
+
+   @Test
+   void evictsTheLeastRecentlyUsedEntry()
+   {
+      final IntIntLruCache cache = new IntIntLruCache(3);
+      cache.put(1, 10);
+      cache.put(2, 20);
+      cache.put(3, 30);
+
+      // 1 becomes the most recent, so 2 is evicted
+      cache.get(1, -1);
+      cache.put(4, 40);
+
+      assertEquals(3, cache.size());
+      assertEquals(10, cache.get(1, -1));
+      assertFalse(cache.containsKey(2));
+      assertEquals(30, cache.get(3, -1));
+      assertEquals(40, cache.get(4, -1));
+   }
+
+   @Test
+   void keepsWorkingAfterManyEvictions()
+   {
+      final IntIntLruCache cache = new IntIntLruCache(16);
+
+      for (int key = 0; key < 10000; ++key)
+      {
+         cache.put(key * 7919, key);
+         assertEquals(key, cache.get(key * 7919, -1));
+      }
+
+      assertEquals(16, cache.size());
+
+      for (int key = 10000 - 16; key < 10000; ++key)
+         assertTrue(cache.containsKey(key * 7919));
+   }
+
+   @Test
+   void clearRemovesAllEntries()
+   {
+      final IntIntLruCache cache = new IntIntLruCache(4);
+      cache.put(1, 10);
+      cache.put(2, 20);
+      cache.clear();
+
+      assertEquals(0, cache.size());
+      assertFalse(cache.containsKey(1));
+
+      cache.put(3, 30);
+      assertEquals(30, cache.get(3, -1));
+   }
+
+   @Test
+   void lookupsAndInsertionsDontAllocate()
+   {
+      if (!Allocations.isSupported())
+         return;
+
+      final IntIntLruCache cache = new IntIntLruCache(64);
+      final int[] key = {0};
+
+      final long allocated = Allocations.measureSteadyState(() -> {
+         cache.put(key[0], key[0]);
+         cache.get(key[0] - 32, -1);
+         key[0]++;
+      });
+
+      assertEquals(0, allocated);
+   }
+}
@@ -0,0 +1,205 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.framework.MidiOutQueue.Priority;
+import com.bitwig.extensions.testing.Allocations;
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+class MidiOutQueueTest
+{
+   @AfterEach
+   void closeHost()
+   {
+      mHost.close();
+   }
+
+   @Test
+   void sendsByPriority()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 1024);
+
+      queue.sendMidi(Priority.DISPLAY, 0x90, 1, 1);
+      queue.sendMidi(Priority.LED, 0x90, 2, 2);
+      queue.sendMidi(Priority.CONFIGURATION, 0x90, 3, 3);
+      queue.flush();
+
+      assertEquals(List.of("90 03 03", "90 02 02", "90 01 01"), midiOut.getMessagesAsHex());
+      assertTrue(queue.isEmpty());
+   }
+
+   @Test
+   void replacesQueuedMessagesOfTheSameAddress()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 1024);
+
+      queue.sendMidi(Priority.LED, 7, 0xB0, 7, 1);
+      queue.sendMidi(Priority.LED, 0xB0, 8, 1);
+      queue.sendMidi(Priority.LED, 7, 0xB0, 7, 2);
+      queue.flush();
+
+      // The replacement keeps the position of the replaced message
+      assertEquals(List.of("B0 07 02", "B0 08 01"), midiOut.getMessagesAsHex());
+   }
+
+   @Test
+   void copiesSysexData()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 1024);
+
+      final byte[] buffer = {(byte)0xF0, 1, (byte)0xF7, 0};
+      queue.sendSysex(Priority.DISPLAY, MidiOutQueue.NO_ADDRESS, buffer, 3);
+      buffer[1] = 2;
+      queue.flush();
+
+      assertEquals(List.of("F0 01 F7"), midiOut.getMessagesAsHex());
+   }
+
+   @Test
+   void pacesBurstsAndSendsTheRestLater()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 30);
+
+      for (int i = 0; i < 40; ++i)
+         queue.sendMidi(Priority.LED, 0x90, i, 127);
+
+      queue.flush();
+      assertEquals(10, midiOut.getMessageCount());
+
+      // The budget refills by one message per millisecond
+      mHost.advanceTime(1);
+      assertEquals(11, midiOut.getMessageCount());
+
+      mHost.advanceTime(29);
+      assertEquals(40, midiOut.getMessageCount());
+      assertTrue(queue.isEmpty());
+   }
+
+   @Test
+   void wakesUpOnceWhenTheBudgetAllowsTheNextMessage()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 30);
+
+      queue.sendSysex(Priority.DISPLAY, new byte[30]);
+      queue.sendSysex(Priority.DISPLAY, new byte[30]);
+      queue.flush();
+      assertEquals(1, midiOut.getMessageCount());
+      assertEquals(1, mHost.getPendingTaskCount());
+
+      // The second message needs the whole burst, which takes 10 ms to refill
+      mHost.advanceTime(9);
+      assertEquals(1, midiOut.getMessageCount());
+      assertEquals(1, mHost.getPendingTaskCount());
+
+      mHost.advanceTime(1);
+      assertEquals(2, midiOut.getMessageCount());
+      assertEquals(0, mHost.getPendingTaskCount());
+   }
+
+   @Test
+   void unpacedPrioritiesDontWaitForTheBudget()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 30);
+      queue.setPaced(Priority.MOTOR, false);
+
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.sendMidi(Priority.MOTOR, 0xE0, 1, 2);
+      queue.sendMidi(Priority.DISPLAY, 0x90, 1, 1);
+      queue.flush();
+
+      // The motor message overtakes the waiting configuration, the paced display still waits behind it
+      assertEquals(2, midiOut.getMessageCount());
+      assertEquals("E0 01 02", FakeMidiOut.toHex(midiOut.getMessages().get(1)));
+
+      // The motor message took its share of the budget
+      mHost.advanceTime(10);
+      assertEquals(2, midiOut.getMessageCount());
+      assertEquals(1, mHost.getPendingTaskCount());
+
+      mHost.advanceTime(1);
+      assertEquals(3, midiOut.getMessageCount());
+
+      mHost.advanceTime(1);
+      assertEquals(4, midiOut.getMessageCount());
+      assertTrue(queue.isEmpty());
+   }
+
+   @Test
+   void runsTasksOnceTheMessagesBeforeThemWereSent()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 30);
+      final List<Integer> sentCounts = new ArrayList<>();
+
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.runWhenSent(Priority.CONFIGURATION, () -> sentCounts.add(midiOut.getMessageCount()));
+      queue.flush();
+      assertEquals(List.of(), sentCounts);
+
+      mHost.advanceTime(10);
+      assertEquals(List.of(2), sentCounts);
+
+      // Dropped messages are not sent, neither is the task run
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.sendSysex(Priority.CONFIGURATION, new byte[30]);
+      queue.runWhenSent(Priority.CONFIGURATION, () -> sentCounts.add(midiOut.getMessageCount()));
+      queue.flush();
+      queue.clear();
+      mHost.advanceTime(100);
+      assertEquals(List.of(2), sentCounts);
+   }
+
+   @Test
+   void queuingDoesntAllocateOnceThePoolIsFilled()
+   {
+      if (!Allocations.isSupported())
+         return;
+
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 1024);
+      final byte[] sysex = new byte[12];
+
+      // Sending would be measured as well, so the queued messages are dropped instead
+      final long allocated = Allocations.measureSteadyState(() -> {
+         for (int i = 0; i < 100; ++i)
+            queue.sendMidi(Priority.LED, MidiOutQueue.addressOf(0x90, i), 0x90, i, 127);
+
+         queue.sendMidi(Priority.LED, MidiOutQueue.addressOf(0x90, 0), 0x90, 0, 0);
+         queue.sendSysex(Priority.DISPLAY, 1, sysex);
+         queue.clear();
+      });
+
+      assertEquals(0, allocated);
+   }
+
+   @Test
+   void flushAllIgnoresTheBudget()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 30);
+
+      for (int i = 0; i < 40; ++i)
+         queue.sendMidi(Priority.LED, 0x90, i, 127);
+
+      queue.flushAll();
+      assertEquals(40, midiOut.getMessageCount());
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+}
@@ -0,0 +1,98 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+class MotorFaderOutputTest
+{
+   @AfterEach
+   void closeHost()
+   {
+      mHost.close();
+   }
+
+   @Test
+   void sendsOnlyChangedPositions()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MotorFaderOutput.Fader fader = new MotorFaderOutput(mHost.getHost(), midiOut.getPort(), 0).createFader(1);
+
+      fader.setPosition(0x1234);
+      fader.setPosition(0x1234);
+
+      assertEquals(List.of("E1 34 24"), midiOut.getMessagesAsHex());
+   }
+
+   @Test
+   void resendsThePositionWhenReleased()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MotorFaderOutput.Fader fader = new MotorFaderOutput(mHost.getHost(), midiOut.getPort(), 0).createFader(0);
+
+      fader.setPosition(100);
+      midiOut.clear();
+
+      // The hand moves the fader without changing the value, it must be pulled back on release
+      fader.setTouched(true);
+      fader.setTouched(false);
+
+      assertEquals(List.of("E0 64 00"), midiOut.getMessagesAsHex());
+   }
+
+   @Test
+   void queuedPositionIsReplacedByANewerOne()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MidiOutQueue queue = new MidiOutQueue(mHost.getHost(), midiOut.getPort(), 3, 1024);
+      final MotorFaderOutput.Fader fader = new MotorFaderOutput(mHost.getHost(), queue, 0).createFader(2);
+
+      fader.setPosition(1);
+      fader.setPosition(200);
+      assertEquals(0, midiOut.getMessageCount());
+
+      queue.flush();
+
+      assertEquals(List.of("E2 48 01"), midiOut.getMessagesAsHex());
+   }
+
+   @Test
+   void flushSendsThePendingPositions()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MotorFaderOutput output = new MotorFaderOutput(mHost.getHost(), midiOut.getPort(), 20);
+      final MotorFaderOutput.Fader fader = output.createFader(0);
+
+      fader.setPosition(1);
+      fader.setPosition(2);
+      assertEquals(List.of("E0 01 00"), midiOut.getMessagesAsHex());
+
+      output.flush();
+
+      assertEquals(List.of("E0 01 00", "E0 02 00"), midiOut.getMessagesAsHex());
+
+      // Nothing is left for the scheduler to send
+      mHost.advanceTime(20);
+      assertEquals(2, midiOut.getMessageCount());
+   }
+
+   @Test
+   void normalizedValuesAreTruncated()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final MotorFaderOutput.Fader fader = new MotorFaderOutput(mHost.getHost(), midiOut.getPort(), 0).createFader(0);
+
+      fader.setValue(0.99999);
+      fader.setValue(2);
+
+      assertEquals(List.of("E0 7E 7F", "E0 7F 7F"), midiOut.getMessagesAsHex());
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+}
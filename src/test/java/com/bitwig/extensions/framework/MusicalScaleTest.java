@@ -0,0 +1,77 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class MusicalScaleTest
+{
+   /** The computation MusicalScale.computeNote() used before its lookups were precomputed. */
+   private static int computeNoteReference(
+      final MusicalScale scale,
+      final int rootNote,
+      final int octave,
+      final int offset)
+   {
+      final int count = scale.getNotesCount();
+      int o = octave + offset / count;
+      int i = offset % count;
+
+      if (i < 0)
+      {
+         --o;
+         i += count;
+      }
+
+      final int note = rootNote + 12 * o + scale.getNotes()[i];
+      return note < 0 || note > 127 ? -1 : note;
+   }
+
+   @Test
+   void computeNoteMatchesTheReference()
+   {
+      final MusicalScaleLibrary library = MusicalScaleLibrary.getInstance();
+
+      for (int s = 0; s < library.getMusicalScalesCount(); ++s)
+      {
+         final MusicalScale scale = library.getMusicalScale(s);
+
+         for (int root = 0; root < 12; ++root)
+            for (int octave = -2; octave <= 11; ++octave)
+               for (int offset = -30; offset <= 30; ++offset)
+               {
+                  assertEquals(computeNoteReference(scale, root, octave, offset),
+                     scale.computeNote(root, octave, offset),
+                     scale.getName() + " root " + root + " octave " + octave + " offset " + offset);
+               }
+      }
+   }
+
+   @Test
+   void isMidiNoteInScale()
+   {
+      final MusicalScale major = MusicalScaleLibrary.getInstance().getMusicalScale("Ionan (Major)");
+
+      for (int note = 0; note < 128; ++note)
+      {
+         final int degree = Math.floorMod(note - 2, 12);
+         final boolean isInScale = degree == 0 || degree == 2 || degree == 4 || degree == 5 || degree == 7
+            || degree == 9 || degree == 11;
+
+         assertEquals(isInScale, major.isMidiNoteInScale(2, note), "note " + note);
+         assertEquals(degree == 0, major.isRootMidiNote(2, note), "note " + note);
+      }
+   }
+
+   @Test
+   void getNextNoteMovesAlongTheScale()
+   {
+      final MusicalScale major = MusicalScaleLibrary.getInstance().getMusicalScale("Ionan (Major)");
+
+      assertEquals(62, major.getNextNote(0, 60, 1));
+      assertEquals(59, major.getNextNote(0, 60, -1));
+      // C# is not in C major, it first moves up to D
+      assertEquals(62, major.getNextNote(0, 61, 0));
+      assertEquals(-1, major.getNextNote(0, 127, 1));
+   }
+}
@@ -0,0 +1,89 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.NoteInput;
+import com.bitwig.extensions.testing.FakeApi;
+import com.bitwig.extensions.testing.FakeControllerHost;
+
+class NoteTranslationTest
+{
+   @AfterEach
+   void closeHost()
+   {
+      mHost.close();
+   }
+
+   @Test
+   void onlySendsChangedKeyTables()
+   {
+      final NoteInput noteInput = FakeApi.create(mHost, NoteInput.class);
+      final AtomicInteger sent = new AtomicInteger();
+      FakeApi.of(noteInput).override("setKeyTranslationTable", args -> {
+         sent.incrementAndGet();
+         return null;
+      });
+
+      final NoteTranslation translation = new NoteTranslation(noteInput);
+
+      assertTrue(translation.setAllNotes());
+      assertFalse(translation.setAllNotes());
+
+      final int[] table = translation.beginKeyTable();
+      table[36] = 60;
+      assertTrue(translation.applyKeyTable());
+      translation.beginKeyTable()[36] = 60;
+      assertFalse(translation.applyKeyTable());
+
+      translation.invalidate();
+      assertTrue(translation.setNoNotes());
+
+      assertEquals(3, sent.get());
+   }
+
+   @Test
+   void sendsTheTableToTheNoteInput()
+   {
+      final NoteInput noteInput = FakeApi.create(mHost, NoteInput.class);
+      final Object[][] table = new Object[1][];
+      FakeApi.of(noteInput).override("setKeyTranslationTable", args -> {
+         table[0] = (Object[])args[0];
+         return null;
+      });
+
+      final NoteTranslation translation = new NoteTranslation(noteInput);
+      translation.beginKeyTable()[1] = 64;
+      translation.applyKeyTable();
+
+      final Integer[] expected = new Integer[NoteTranslation.TABLE_SIZE];
+      Arrays.fill(expected, NoteTranslation.NO_NOTE);
+      expected[1] = 64;
+      assertArrayEquals(expected, table[0]);
+   }
+
+   @Test
+   void tableCacheBuildsEachTableOnce()
+   {
+      final NoteTranslation.TableCache cache = new NoteTranslation.TableCache(4);
+      final AtomicInteger built = new AtomicInteger();
+
+      final long key = NoteTranslation.cacheKey(1, 2, 3, 4);
+      final int[] first = cache.get(key, t -> built.incrementAndGet());
+      final int[] second = cache.get(key, t -> built.incrementAndGet());
+
+      assertSame(first, second);
+      assertEquals(1, built.get());
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+}
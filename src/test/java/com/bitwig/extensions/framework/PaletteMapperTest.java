@@ -0,0 +1,100 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.testing.Allocations;
+
+class PaletteMapperTest
+{
+   @Test
+   void fixedColorsMapExactly()
+   {
+      final PaletteMapper mapper = new PaletteMapper(16);
+      mapper.addPaletteEntry(0xFF0000, 5);
+      mapper.addFixedColor(0xFE0000, 7);
+
+      assertEquals(7, mapper.map(0xFE0000));
+      assertEquals(5, mapper.map(0xFD0000));
+   }
+
+   @Test
+   void otherColorsMapToTheNearestEntry()
+   {
+      final PaletteMapper mapper = new PaletteMapper(16);
+      mapper.addColor(0x000000, 0);
+      mapper.addColor(0xFF0000, 1);
+      mapper.addColor(0x00FF00, 2);
+      mapper.addColor(0x0000FF, 3);
+
+      assertEquals(1, mapper.map(0xE01010));
+      assertEquals(2, mapper.map(0x20D020));
+      assertEquals(3, mapper.map(0x1010C0));
+      assertEquals(0, mapper.map(0x080808));
+   }
+
+   @Test
+   void fallbackResultsAreCached()
+   {
+      final int[] calls = new int[1];
+      final PaletteMapper mapper = new PaletteMapper(4, rgb -> {
+         calls[0]++;
+         return rgb & 0x7F;
+      });
+
+      assertEquals(0x12, mapper.map(0x123412));
+      assertEquals(0x12, mapper.map(0x123412));
+      assertEquals(1, calls[0]);
+
+      // Evicted colors are computed again, with the same result
+      for (int rgb = 0; rgb < 8; ++rgb)
+         mapper.map(rgb);
+
+      assertEquals(0x12, mapper.map(0x123412));
+      assertEquals(10, calls[0]);
+   }
+
+   @Test
+   void cachedLookupsMatchUncachedOnes()
+   {
+      final PaletteMapper cached = new PaletteMapper(32);
+      final PaletteMapper reference = new PaletteMapper(32);
+      final Random random = new Random(2);
+
+      for (int i = 0; i < 64; ++i)
+      {
+         final int rgb = random.nextInt(0x1000000);
+         cached.addPaletteEntry(rgb, i);
+         reference.addPaletteEntry(rgb, i);
+      }
+
+      for (int i = 0; i < 5000; ++i)
+      {
+         final int rgb = random.nextInt(64) * 0x030507;
+         assertEquals(reference.findNearestEntry(rgb), cached.map(rgb));
+      }
+   }
+
+   @Test
+   void cachedLookupsDontAllocate()
+   {
+      if (!Allocations.isSupported())
+         return;
+
+      final PaletteMapper mapper = new PaletteMapper(64);
+      mapper.addPaletteEntry(0xFF0000, 1);
+      mapper.addPaletteEntry(0x00FF00, 2);
+
+      final int[] color = {0};
+
+      final long allocated = Allocations.measureSteadyState(() -> {
+         mapper.map(color[0] * 0x010203);
+         color[0] = (color[0] + 1) % 32;
+      });
+
+      assertEquals(0, allocated);
+   }
+}
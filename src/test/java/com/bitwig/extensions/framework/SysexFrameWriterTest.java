@@ -0,0 +1,67 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extensions.testing.FakeControllerHost;
+import com.bitwig.extensions.testing.FakeMidiOut;
+
+class SysexFrameWriterTest
+{
+   @AfterEach
+   void closeHost()
+   {
+      mHost.close();
+   }
+
+   @Test
+   void writesHeaderPayloadAndTerminator()
+   {
+      final SysexFrameWriter frame = SysexFrameWriter.fromHex("F0 00 20 29", 8);
+      frame.addByte(0x0B).add(new byte[] {1, 2, 3}).addString("ab", 3);
+
+      assertEquals("F0 00 20 29 0B 01 02 03 61 62 20 F7", FakeMidiOut.toHex(frame.terminate()));
+      assertEquals(7, frame.getPayloadSize());
+   }
+
+   @Test
+   void replacesCharactersOutsideOfAscii()
+   {
+      final SysexFrameWriter frame = SysexFrameWriter.fromHex("F0", 4);
+      frame.addString("\u00E9", 1);
+
+      assertEquals("F0 3F F7", FakeMidiOut.toHex(frame.terminate()));
+   }
+
+   @Test
+   void sendStartsANewMessage()
+   {
+      final FakeMidiOut midiOut = mHost.getMidiOut(0);
+      final SysexFrameWriter frame = SysexFrameWriter.fromHex("F0 01", 4);
+
+      frame.addByte(2).send(midiOut.getPort());
+      assertTrue(frame.isEmpty());
+
+      frame.addByte(3).send(midiOut.getPort());
+
+      assertEquals(2, midiOut.getMessageCount());
+      assertEquals("F0 01 02 F7", midiOut.getMessagesAsHex().get(0));
+      assertEquals("F0 01 03 F7", midiOut.getMessagesAsHex().get(1));
+   }
+
+   @Test
+   void setPayloadByteUpdatesAWrittenByte()
+   {
+      final SysexFrameWriter frame = SysexFrameWriter.fromHex("F0", 4);
+      frame.addByte(1).addByte(2);
+      frame.setPayloadByte(1, 5);
+
+      assertEquals(5, frame.getPayloadByte(1));
+      assertEquals("F0 01 05 F7", FakeMidiOut.toHex(frame.terminate()));
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+}
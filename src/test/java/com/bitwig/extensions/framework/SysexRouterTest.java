@@ -0,0 +1,79 @@
+package com.bitwig.extensions.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SysexRouterTest
+{
+   @Test
+   void dispatchesExactMatches()
+   {
+      final List<String> received = new ArrayList<>();
+      final SysexRouter router = new SysexRouter()
+         .register("F0 7E 00 06 02 F7", message -> received.add("identity"))
+         .register("F0 7E 00 06 03 F7", message -> received.add("other"));
+
+      assertTrue(router.dispatch("f07e000602f7"));
+      assertFalse(router.dispatch("f07e000604f7"));
+      assertEquals(List.of("identity"), received);
+   }
+
+   @Test
+   void capturesWildcardBytes()
+   {
+      final List<Integer> captures = new ArrayList<>();
+      final SysexRouter router = new SysexRouter()
+         .register("F0 7F ?? 06 ?? F7", message -> {
+            captures.add(message.getCapture(0));
+            captures.add(message.getCapture(1));
+         });
+
+      assertTrue(router.dispatch("f07f7f0602f7"));
+      assertEquals(List.of(0x7F, 0x02), captures);
+   }
+
+   @Test
+   void prefersExactBytesOverWildcards()
+   {
+      final List<String> received = new ArrayList<>();
+      final SysexRouter router = new SysexRouter()
+         .register("F0 00 ?? F7", message -> received.add("wildcard"))
+         .register("F0 00 01 F7", message -> received.add("exact"));
+
+      router.dispatch("f00001f7");
+      router.dispatch("f00002f7");
+
+      assertEquals(List.of("exact", "wildcard"), received);
+   }
+
+   @Test
+   void prefersFullMatchesOverPrefixes()
+   {
+      final List<String> received = new ArrayList<>();
+      final SysexRouter router = new SysexRouter()
+         .register("F0 00 66 ...", message -> received.add("prefix"))
+         .register("F0 00 66 14 F7", message -> received.add("full"));
+
+      router.dispatch("f0006614f7");
+      router.dispatch("f000661501f7");
+
+      assertEquals(List.of("full", "prefix"), received);
+   }
+
+   @Test
+   void reportsTheMessageLength()
+   {
+      final int[] length = new int[1];
+      final SysexRouter router = new SysexRouter().register("F0 ...", message -> length[0] = message.getLength());
+
+      router.dispatch("f0010203f7");
+
+      assertEquals(5, length[0]);
+   }
+}
@@ -0,0 +1,67 @@
+package com.bitwig.extensions.testing;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap memory allocated by the current thread, to check that code running on every flush doesn't
+ * allocate.
+ */
+public final class Allocations
+{
+   private Allocations()
+   {
+   }
+
+   /** Whether the JVM can measure allocations, tests should be skipped if it can't. */
+   public static boolean isSupported()
+   {
+      return THREAD_BEAN != null && THREAD_BEAN.isThreadAllocatedMemorySupported()
+         && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+   }
+
+   /** Returns the number of bytes allocated by the current thread while running the action. */
+   public static long measure(final Runnable action)
+   {
+      if (!isSupported())
+         throw new UnsupportedOperationException("The JVM doesn't measure thread allocations");
+
+      final long threadId = Thread.currentThread().getId();
+
+      // The first call to the bean allocates on its own
+      THREAD_BEAN.getThreadAllocatedBytes(threadId);
+
+      final long before = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+      action.run();
+      final long after = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+
+      return after - before;
+   }
+
+   /**
+    * Runs the action a few times to warm it up, then returns the smallest number of bytes it allocated in one of the
+    * measured runs. Lazily created objects and the measurement itself don't count this way.
+    */
+   public static long measureSteadyState(final Runnable action)
+   {
+      for (int i = 0; i < WARM_UP_RUNS; ++i)
+         action.run();
+
+      long allocated = Long.MAX_VALUE;
+
+      for (int i = 0; i < MEASURED_RUNS; ++i)
+         allocated = Math.min(allocated, measure(action));
+
+      return allocated;
+   }
+
+   private static com.sun.management.ThreadMXBean findThreadBean()
+   {
+      final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean)bean : null;
+   }
+
+   private static final int WARM_UP_RUNS = 1000;
+   private static final int MEASURED_RUNS = 10;
+
+   private static final com.sun.management.ThreadMXBean THREAD_BEAN = findThreadBean();
+}
@@ -0,0 +1,600 @@
+package com.bitwig.extensions.testing;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory implementation of the controller API interfaces. It is built on dynamic proxies, so it follows whatever
+ * version of the API the tree is compiled against.
+ *
+ * Every API object is a proxy with a small state:
+ * <ul>
+ * <li>a method returning an API interface returns a child object, the same one for the same method and arguments, so
+ * getItemAt(0) or volume() always return the same object;</li>
+ * <li>set(value) and the other value setters store the value, get() returns it and the observers registered with an
+ * add...Observer() method are called with it, toggle() flips a boolean;</li>
+ * <li>setX(value) also makes x() and getX() return the value, for example setBackgroundLight() and
+ * backgroundLight();</li>
+ * <li>the get...Setting() methods of the preferences and the document state start with their initial value;</li>
+ * <li>markInterested(), subscribe() and unsubscribe() are tracked, see {@link #isSubscribed()};</li>
+ * <li>onUpdateHardware() callbacks are collected by the host and run by HardwareSurface.updateHardware();</li>
+ * <li>default methods run their implementation, anything else returns 0, false, "", an empty array or the first
+ * constant of an enum.</li>
+ * </ul>
+ *
+ * Single methods can be replaced with {@link #override(String, Function)}, which is how the host and the MIDI ports
+ * get their behaviour.
+ */
+public final class FakeApi implements InvocationHandler
+{
+   /** Creates a fake implementing the API interface. */
+   public static <T> T create(final FakeControllerHost host, final Class<T> type)
+   {
+      return type.cast(createProxy(host, type, type));
+   }
+
+   /** Returns the state of a fake created by this class. */
+   public static FakeApi of(final Object fake)
+   {
+      return (FakeApi)Proxy.getInvocationHandler(fake);
+   }
+
+   /**
+    * Calls the method of a callback, for example the midiReceived(int, int, int) of a MIDI callback. The method is
+    * looked up on the interfaces of the callback, so lambdas and default methods work.
+    *
+    * @return false if the callback has no matching method
+    */
+   public static boolean call(final Object callback, final String name, final Object... args)
+   {
+      final Method method = findInterfaceMethod(callback.getClass(), name, args.length);
+
+      if (method == null)
+         return false;
+
+      invokeMethod(callback, method, convertArguments(method, args));
+      return true;
+   }
+
+   private static Object createProxy(final FakeControllerHost host, final Class<?> type, final Type genericType)
+   {
+      final FakeApi handler = new FakeApi(host, type, genericType);
+      final Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+      handler.mProxy = proxy;
+      return proxy;
+   }
+
+   private FakeApi(final FakeControllerHost host, final Class<?> type, final Type genericType)
+   {
+      super();
+      mHost = host;
+      mType = type;
+      mGenericType = genericType;
+   }
+
+   public Class<?> getType()
+   {
+      return mType;
+   }
+
+   /** Replaces every method of this object with the given name. */
+   public FakeApi override(final String methodName, final Function<Object[], Object> implementation)
+   {
+      mOverrides.put(methodName, implementation);
+      return this;
+   }
+
+   public Object getValue()
+   {
+      return mValue;
+   }
+
+   /** Sets the value as the host would, observers are called. */
+   public void setValue(final Object value)
+   {
+      mValue = value;
+
+      for (final Object observer : new ArrayList<>(mObservers))
+         notifyObserver(observer, value);
+   }
+
+   public int getObserverCount()
+   {
+      return mObservers.size();
+   }
+
+   /** Whether the object was marked interested or subscribed, and not unsubscribed since. */
+   public boolean isSubscribed()
+   {
+      return mIsSubscribed;
+   }
+
+   /** The value set with setX(value), null if it was never set. */
+   public Object getProperty(final String name)
+   {
+      return mProperties.get(name);
+   }
+
+   @Override
+   public Object invoke(final Object proxy, final Method method, final Object[] arguments) throws Throwable
+   {
+      final Object[] args = arguments != null ? arguments : NO_ARGUMENTS;
+      final String name = method.getName();
+
+      if (method.getDeclaringClass() == Object.class)
+         return invokeObjectMethod(proxy, name, args);
+
+      final Function<Object[], Object> override = mOverrides.get(name);
+      if (override != null)
+         return override.apply(args);
+
+      if (method.isDefault())
+         return invokeDefault(proxy, method, args);
+
+      final Class<?> returnType = method.getReturnType();
+
+      switch (name)
+      {
+         case "markInterested":
+         case "subscribe":
+            if (args.length == 0)
+            {
+               mIsSubscribed = true;
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "unsubscribe":
+            if (args.length == 0)
+            {
+               mIsSubscribed = false;
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "setIsSubscribed":
+            if (args.length == 1 && args[0] instanceof Boolean)
+            {
+               mIsSubscribed = (Boolean)args[0];
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "isSubscribed":
+            if (args.length == 0 && returnType == boolean.class)
+               return mIsSubscribed;
+            break;
+
+         case "onUpdateHardware":
+            if (args.length == 1 && args[0] instanceof Runnable)
+            {
+               mHost.addHardwareUpdater((Runnable)args[0]);
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "toggle":
+            if (args.length == 0)
+            {
+               setValue(!(mValue instanceof Boolean && (Boolean)mValue));
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "set":
+         case "setImmediately":
+         case "setRaw":
+         case "setValue":
+            if (args.length == 1)
+            {
+               setValue(args[0]);
+               return defaultValue(method, args);
+            }
+            break;
+
+         case "get":
+         case "getRaw":
+         case "getAsBoolean":
+         case "getAsInt":
+         case "getAsDouble":
+         case "getAsLong":
+         case "currentValue":
+            if (args.length == 0 && mValue != null)
+               return convert(mValue, returnType, method, args);
+            break;
+      }
+
+      if (name.startsWith("add") && name.endsWith("Observer") && args.length > 0)
+      {
+         mObservers.add(args[args.length - 1]);
+         return defaultValue(method, args);
+      }
+
+      if (name.length() > 3 && name.startsWith("set") && args.length == 1)
+      {
+         mProperties.put(propertyName(name.substring(3)), args[0]);
+         return defaultValue(method, args);
+      }
+
+      if (args.length == 0)
+      {
+         final Object property = findProperty(name);
+         if (property != null && wrap(returnType).isInstance(property))
+            return property;
+      }
+
+      if (name.startsWith("get") && name.endsWith("Setting") && args.length > 0)
+      {
+         final Object setting = defaultValue(method, args);
+         if (setting != null && Proxy.isProxyClass(setting.getClass()))
+         {
+            final FakeApi state = of(setting);
+            if (state.mValue == null)
+               state.mValue = args[args.length - 1];
+         }
+         return setting;
+      }
+
+      return defaultValue(method, args);
+   }
+
+   private Object invokeObjectMethod(final Object proxy, final String name, final Object[] args)
+   {
+      switch (name)
+      {
+         case "equals":
+            return proxy == args[0];
+         case "hashCode":
+            return System.identityHashCode(proxy);
+         default:
+            return "Fake" + mType.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+      }
+   }
+
+   private static Object invokeDefault(final Object proxy, final Method method, final Object[] args)
+      throws Throwable
+   {
+      final Class<?> declaringClass = method.getDeclaringClass();
+
+      return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+         .unreflectSpecial(method, declaringClass)
+         .bindTo(proxy)
+         .invokeWithArguments(args);
+   }
+
+   private Object findProperty(final String methodName)
+   {
+      Object property = mProperties.get(methodName);
+
+      if (property == null && methodName.length() > 3 && methodName.startsWith("get"))
+         property = mProperties.get(propertyName(methodName.substring(3)));
+
+      if (property == null && methodName.length() > 2 && methodName.startsWith("is"))
+         property = mProperties.get(propertyName(methodName.substring(2)));
+
+      return property;
+   }
+
+   private static String propertyName(final String capitalized)
+   {
+      return Character.toLowerCase(capitalized.charAt(0)) + capitalized.substring(1);
+   }
+
+   /** The value returned by a method without special behaviour, API objects are created once per arguments. */
+   private Object defaultValue(final Method method, final Object[] args)
+   {
+      final Type resolvedType = resolve(method.getGenericReturnType(), mGenericType);
+      final Class<?> returnType = rawClass(resolvedType);
+
+      if (returnType == void.class)
+         return null;
+
+      if (returnType.isPrimitive())
+         return zero(returnType);
+
+      if (returnType == String.class)
+         return "";
+
+      if (returnType.isArray())
+         return Array.newInstance(returnType.getComponentType(), 0);
+
+      if (returnType.isEnum())
+      {
+         final Object[] constants = returnType.getEnumConstants();
+         return constants.length > 0 ? constants[0] : null;
+      }
+
+      if (returnType.isInterface())
+      {
+         // A method returning its own type is a builder style setter
+         if (returnType.isInstance(mProxy) && !method.getName().startsWith("create")
+            && !method.getName().startsWith("get"))
+            return mProxy;
+
+         final List<Object> key = new ArrayList<>(args.length + 1);
+         key.add(method.getName());
+         key.addAll(Arrays.asList(args));
+
+         Object child = mChildren.get(key);
+         if (child == null)
+         {
+            child = createProxy(mHost, returnType, resolvedType);
+            mChildren.put(key, child);
+         }
+         return child;
+      }
+
+      return createWithFactory(returnType);
+   }
+
+   /** Creates an API value class such as Color through one of its static no-argument factories. */
+   private static Object createWithFactory(final Class<?> type)
+   {
+      for (final Method factory : type.getMethods())
+      {
+         if (Modifier.isStatic(factory.getModifiers()) && factory.getParameterCount() == 0
+            && factory.getReturnType() == type)
+         {
+            return invokeMethod(null, factory, NO_ARGUMENTS);
+         }
+      }
+
+      return null;
+   }
+
+   private Object convert(final Object value, final Class<?> type, final Method method, final Object[] args)
+   {
+      final Object converted = convert(value, type);
+      return converted != null ? converted : defaultValue(method, args);
+   }
+
+   /** @return the value as the given type, null if it can't be converted */
+   private static Object convert(final Object value, final Class<?> type)
+   {
+      final Class<?> wrapped = wrap(type);
+
+      if (value == null || wrapped.isInstance(value))
+         return value;
+
+      if (value instanceof Number)
+      {
+         final Number number = (Number)value;
+
+         if (wrapped == Integer.class)
+            return number.intValue();
+         if (wrapped == Double.class)
+            return number.doubleValue();
+         if (wrapped == Float.class)
+            return number.floatValue();
+         if (wrapped == Long.class)
+            return number.longValue();
+      }
+
+      if (wrapped == String.class)
+         return String.valueOf(value);
+
+      return null;
+   }
+
+   private static Object zero(final Class<?> type)
+   {
+      if (type == boolean.class)
+         return false;
+      if (type == char.class)
+         return (char)0;
+
+      return convert(0, type);
+   }
+
+   private static Class<?> wrap(final Class<?> type)
+   {
+      if (!type.isPrimitive())
+         return type;
+
+      switch (type.getName())
+      {
+         case "boolean":
+            return Boolean.class;
+         case "int":
+            return Integer.class;
+         case "double":
+            return Double.class;
+         case "float":
+            return Float.class;
+         case "long":
+            return Long.class;
+         case "char":
+            return Character.class;
+         case "byte":
+            return Byte.class;
+         case "short":
+            return Short.class;
+         default:
+            return Void.class;
+      }
+   }
+
+   private static void notifyObserver(final Object observer, final Object value)
+   {
+      for (final Method method : abstractMethods(observer.getClass()))
+      {
+         if (method.getParameterCount() != 1)
+            continue;
+
+         final Object argument = method.getParameterTypes()[0].isPrimitive() && value == null
+            ? zero(method.getParameterTypes()[0])
+            : convert(value, method.getParameterTypes()[0]);
+
+         if (argument != null || !method.getParameterTypes()[0].isPrimitive())
+         {
+            invokeMethod(observer, method, new Object[] {argument});
+            return;
+         }
+      }
+   }
+
+   private static List<Method> abstractMethods(final Class<?> type)
+   {
+      final List<Method> methods = new ArrayList<>();
+
+      for (final Class<?> iface : allInterfaces(type))
+      {
+         for (final Method method : iface.getMethods())
+         {
+            if (Modifier.isAbstract(method.getModifiers()))
+               methods.add(method);
+         }
+      }
+
+      return methods;
+   }
+
+   private static Method findInterfaceMethod(final Class<?> type, final String name, final int parameterCount)
+   {
+      for (final Class<?> iface : allInterfaces(type))
+      {
+         for (final Method method : iface.getMethods())
+         {
+            if (method.getName().equals(name) && method.getParameterCount() == parameterCount)
+               return method;
+         }
+      }
+
+      return null;
+   }
+
+   private static List<Class<?>> allInterfaces(final Class<?> type)
+   {
+      final List<Class<?>> interfaces = new ArrayList<>();
+
+      for (Class<?> c = type; c != null; c = c.getSuperclass())
+         interfaces.addAll(Arrays.asList(c.getInterfaces()));
+
+      return interfaces;
+   }
+
+   private static Object[] convertArguments(final Method method, final Object[] args)
+   {
+      final Object[] converted = new Object[args.length];
+      final Class<?>[] types = method.getParameterTypes();
+
+      for (int i = 0; i < args.length; ++i)
+         converted[i] = convert(args[i], types[i]);
+
+      return converted;
+   }
+
+   private static Object invokeMethod(final Object target, final Method method, final Object[] args)
+   {
+      try
+      {
+         return method.invoke(target, args);
+      }
+      catch (final InvocationTargetException e)
+      {
+         final Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException)
+            throw (RuntimeException)cause;
+         if (cause instanceof Error)
+            throw (Error)cause;
+         throw new IllegalStateException(cause);
+      }
+      catch (final IllegalAccessException e)
+      {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   /** Resolves the type variables of a return type, for example the item type of TrackBank.getItemAt(). */
+   private static Type resolve(final Type type, final Type context)
+   {
+      if (type instanceof TypeVariable)
+      {
+         final Map<TypeVariable<?>, Type> bindings = new HashMap<>();
+         collectBindings(context, bindings);
+
+         Type resolved = type;
+         while (resolved instanceof TypeVariable && bindings.containsKey(resolved))
+            resolved = bindings.get(resolved);
+
+         if (resolved instanceof TypeVariable)
+            return ((TypeVariable<?>)resolved).getBounds()[0];
+
+         return resolved;
+      }
+
+      if (type instanceof WildcardType)
+         return ((WildcardType)type).getUpperBounds()[0];
+
+      return type;
+   }
+
+   private static void collectBindings(final Type type, final Map<TypeVariable<?>, Type> bindings)
+   {
+      final Class<?> raw = rawClass(type);
+
+      if (type instanceof ParameterizedType)
+      {
+         final Type[] arguments = ((ParameterizedType)type).getActualTypeArguments();
+         final TypeVariable<?>[] variables = raw.getTypeParameters();
+
+         for (int i = 0; i < variables.length; ++i)
+         {
+            if (!bindings.containsKey(variables[i]))
+               bindings.put(variables[i], arguments[i]);
+         }
+      }
+
+      for (final Type superInterface : raw.getGenericInterfaces())
+         collectBindings(superInterface, bindings);
+   }
+
+   private static Class<?> rawClass(final Type type)
+   {
+      if (type instanceof Class)
+         return (Class<?>)type;
+
+      if (type instanceof ParameterizedType)
+         return (Class<?>)((ParameterizedType)type).getRawType();
+
+      if (type instanceof GenericArrayType)
+         return Array.newInstance(rawClass(((GenericArrayType)type).getGenericComponentType()), 0).getClass();
+
+      if (type instanceof TypeVariable)
+         return rawClass(((TypeVariable<?>)type).getBounds()[0]);
+
+      if (type instanceof WildcardType)
+         return rawClass(((WildcardType)type).getUpperBounds()[0]);
+
+      return Object.class;
+   }
+
+   private static final Object[] NO_ARGUMENTS = new Object[0];
+
+   private final FakeControllerHost mHost;
+   private final Class<?> mType;
+   private final Type mGenericType;
+   private final Map<String, Function<Object[], Object>> mOverrides = new HashMap<>();
+   private final Map<List<Object>, Object> mChildren = new HashMap<>();
+   private final Map<String, Object> mProperties = new HashMap<>();
+   private final List<Object> mObservers = new ArrayList<>();
+   private Object mProxy;
+   private Object mValue;
+   private boolean mIsSubscribed;
+}
@@ -0,0 +1,126 @@
+package com.bitwig.extensions.testing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.HardwareButton;
+import com.bitwig.extension.controller.api.OnOffHardwareLight;
+import com.bitwig.extension.controller.api.SettableBooleanValue;
+import com.bitwig.extension.controller.api.Track;
+import com.bitwig.extension.controller.api.TrackBank;
+
+class FakeApiTest
+{
+   @AfterEach
+   void closeHost()
+   {
+      mHost.close();
+   }
+
+   @Test
+   void returnsTheSameChildForTheSameArguments()
+   {
+      final ControllerHost host = mHost.getHost();
+      final TrackBank trackBank = host.createTrackBank(8, 0, 0);
+
+      final Track track = trackBank.getItemAt(0);
+
+      assertSame(track, trackBank.getItemAt(0));
+      assertNotSame(track, trackBank.getItemAt(1));
+      assertSame(track.mute(), track.mute());
+   }
+
+   @Test
+   void valuesNotifyTheirObservers()
+   {
+      final ControllerHost host = mHost.getHost();
+      final SettableBooleanValue mute = host.createTrackBank(8, 0, 0).getItemAt(0).mute();
+      final List<Boolean> observed = new ArrayList<>();
+
+      mute.markInterested();
+      mute.addValueObserver(observed::add);
+      mute.toggle();
+      mute.set(false);
+
+      assertTrue(mute.isSubscribed());
+      assertFalse(mute.get());
+      assertEquals(List.of(true, false), observed);
+   }
+
+   @Test
+   void settingsStartWithTheirInitialValue()
+   {
+      final ControllerHost host = mHost.getHost();
+
+      assertEquals(16.0, host.getPreferences().getNumberSetting("Rate", "Meters", 1, 64, 1, "", 16).getRaw());
+   }
+
+   @Test
+   void settersDefineProperties()
+   {
+      final HardwareButton button = mHost.getHardwareSurface().createHardwareButton("Play");
+      final OnOffHardwareLight light = FakeApi.create(mHost, OnOffHardwareLight.class);
+
+      button.setBackgroundLight(light);
+
+      assertSame(light, button.backgroundLight());
+   }
+
+   @Test
+   void updateHardwareRunsTheUpdaters()
+   {
+      final OnOffHardwareLight light = FakeApi.create(mHost, OnOffHardwareLight.class);
+      final int[] updates = new int[1];
+
+      light.onUpdateHardware(() -> updates[0]++);
+      mHost.getHardwareSurface().updateHardware();
+
+      assertEquals(1, updates[0]);
+   }
+
+   @Test
+   void midiPortsRecordAndDeliverMessages()
+   {
+      final List<String> received = new ArrayList<>();
+
+      mHost.getHost().getMidiInPort(0).setSysexCallback(received::add);
+      mHost.getMidiIn(0).receiveSysex("F0 7E F7");
+
+      mHost.getHost().getMidiOutPort(1).sendMidi(0x90, 60, 127);
+      mHost.getHost().getMidiOutPort(1).sendSysex("F0 01 F7");
+
+      assertEquals(List.of("f07ef7"), received);
+      assertEquals(List.of("90 3C 7F", "F0 01 F7"), mHost.getMidiOut(1).getMessagesAsHex());
+      assertEquals(6, mHost.getMidiOut(1).getByteCount());
+   }
+
+   @Test
+   void runsScheduledTasksWhenTheyAreDue()
+   {
+      final List<String> ran = new ArrayList<>();
+
+      mHost.getHost().scheduleTask(() -> ran.add("later"), 20);
+      mHost.getHost().scheduleTask(() -> ran.add("now"), 0);
+      mHost.runTasks();
+      assertEquals(List.of("now"), ran);
+
+      mHost.advanceTime(19);
+      assertEquals(List.of("now"), ran);
+
+      mHost.advanceTime(1);
+      assertEquals(List.of("now", "later"), ran);
+      assertEquals(20, mHost.getTime());
+   }
+
+   private final FakeControllerHost mHost = new FakeControllerHost();
+}
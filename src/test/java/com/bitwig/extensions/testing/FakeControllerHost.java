@@ -0,0 +1,247 @@
+package com.bitwig.extensions.testing;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.bitwig.extension.controller.ControllerExtension;
+import com.bitwig.extension.controller.ControllerExtensionDefinition;
+import com.bitwig.extension.controller.api.ControllerHost;
+import com.bitwig.extension.controller.api.HardwareSurface;
+import com.bitwig.extensions.framework.TickScheduler;
+import com.bitwig.extensions.framework.animation.Animation;
+
+/**
+ * A controller host that runs extensions without Bitwig Studio: the MIDI ports record what is sent, scheduled tasks
+ * run when {@link #runTasks()} or {@link #advanceTime(long)} is called and everything else is provided by
+ * {@link FakeApi}.
+ *
+ * Time only passes when {@link #advanceTime(long)} is called. The TickScheduler of the host reads the same clock, so
+ * everything paced or scheduled by the framework runs exactly when it is due, however loaded the machine is.
+ *
+ * A host has to be closed when the test is done, after the exit() of its extension, so that nothing of it is kept
+ * in the static state of the framework.
+ *
+ * <pre>
+ * final FakeControllerHost host = new FakeControllerHost();
+ * final ControllerExtension extension = host.createExtension(MyExtensionDefinition.class);
+ * extension.init();
+ * extension.flush();
+ * assertTrue(host.getMidiOut(0).getByteCount() &gt; 0);
+ * extension.exit();
+ * host.close();
+ * </pre>
+ */
+public final class FakeControllerHost implements AutoCloseable
+{
+   public FakeControllerHost()
+   {
+      super();
+
+      mHost = FakeApi.create(this, ControllerHost.class);
+
+      FakeApi.of(mHost)
+         .override("getMidiInPort", args -> getMidiIn((Integer)args[0]).getPort())
+         .override("getMidiOutPort", args -> getMidiOut((Integer)args[0]).getPort())
+         .override("scheduleTask", args -> {
+            scheduleTask((Runnable)args[0], ((Number)args[1]).longValue());
+            return null;
+         })
+         .override("requestFlush", args -> {
+            mIsFlushRequested = true;
+            return null;
+         })
+         .override("println", args -> {
+            mPrinted.add(String.valueOf(args[0]));
+            return null;
+         })
+         .override("errorln", args -> {
+            mErrors.add(String.valueOf(args[0]));
+            return null;
+         })
+         .override("createHardwareSurface", args -> getHardwareSurface());
+
+      TickScheduler.createForHost(mHost, this::getTime);
+   }
+
+   /** Forgets the framework state of the host, for example the scheduler of an extension that didn't exit. */
+   @Override
+   public void close()
+   {
+      Animation.release(mHost);
+      TickScheduler.release(mHost);
+   }
+
+   public ControllerHost getHost()
+   {
+      return mHost;
+   }
+
+   /**
+    * Creates the extension of the given definition for this host. The definition is created through its no-argument
+    * constructor, even if it is private.
+    */
+   public ControllerExtension createExtension(
+      final Class<? extends ControllerExtensionDefinition> definitionClass)
+   {
+      try
+      {
+         final Constructor<? extends ControllerExtensionDefinition> constructor =
+            definitionClass.getDeclaredConstructor();
+         constructor.setAccessible(true);
+         return constructor.newInstance().createInstance(mHost);
+      }
+      catch (final ReflectiveOperationException e)
+      {
+         throw new IllegalArgumentException("Can't create " + definitionClass.getName(), e);
+      }
+   }
+
+   public FakeMidiIn getMidiIn(final int index)
+   {
+      while (mMidiIns.size() <= index)
+         mMidiIns.add(new FakeMidiIn(this));
+
+      return mMidiIns.get(index);
+   }
+
+   public FakeMidiOut getMidiOut(final int index)
+   {
+      while (mMidiOuts.size() <= index)
+         mMidiOuts.add(new FakeMidiOut(this));
+
+      return mMidiOuts.get(index);
+   }
+
+   /** Clears what was recorded on all MIDI outputs. */
+   public void clearMidiOut()
+   {
+      for (final FakeMidiOut midiOut : mMidiOuts)
+         midiOut.clear();
+   }
+
+   /** The hardware surface, the same one for every call to createHardwareSurface(). */
+   public HardwareSurface getHardwareSurface()
+   {
+      if (mHardwareSurface == null)
+      {
+         mHardwareSurface = FakeApi.create(this, HardwareSurface.class);
+         FakeApi.of(mHardwareSurface).override("updateHardware", args -> {
+            updateHardware();
+            return null;
+         });
+      }
+
+      return mHardwareSurface;
+   }
+
+   /**
+    * Runs every callback registered with onUpdateHardware(). Unlike Bitwig Studio, they are called even if the state
+    * of their light or display didn't change.
+    */
+   public void updateHardware()
+   {
+      for (final Runnable updater : new ArrayList<>(mHardwareUpdaters))
+         updater.run();
+   }
+
+   void addHardwareUpdater(final Runnable updater)
+   {
+      mHardwareUpdaters.add(updater);
+   }
+
+   /** Whether requestFlush() was called since the last call to this method. */
+   public boolean consumeFlushRequest()
+   {
+      final boolean isFlushRequested = mIsFlushRequested;
+      mIsFlushRequested = false;
+      return isFlushRequested;
+   }
+
+   public List<String> getPrinted()
+   {
+      return mPrinted;
+   }
+
+   public List<String> getErrors()
+   {
+      return mErrors;
+   }
+
+   public int getPendingTaskCount()
+   {
+      return mTasks.size();
+   }
+
+   /** Milliseconds since the host was created, only advanced by {@link #advanceTime(long)}. */
+   public long getTime()
+   {
+      return mTime;
+   }
+
+   /** Runs the scheduled tasks that are due. Tasks scheduled by them run if they are due as well. */
+   public void runTasks()
+   {
+      advanceTime(0);
+   }
+
+   /**
+    * Lets the given time pass, as it would while the extension is idle. The scheduled tasks run in the order they
+    * are due, each of them at its due time.
+    */
+   public void advanceTime(final long timeMs)
+   {
+      assert timeMs >= 0;
+
+      final long end = mTime + timeMs;
+
+      while (!mTasks.isEmpty() && mTasks.peek().mDueTime <= end)
+      {
+         final ScheduledTask task = mTasks.poll();
+         mTime = Math.max(mTime, task.mDueTime);
+         task.mTask.run();
+      }
+
+      mTime = end;
+   }
+
+   private void scheduleTask(final Runnable task, final long delayMs)
+   {
+      mTasks.add(new ScheduledTask(task, mTime + Math.max(0, delayMs), mTaskCount++));
+   }
+
+   private static final class ScheduledTask implements Comparable<ScheduledTask>
+   {
+      ScheduledTask(final Runnable task, final long dueTime, final long order)
+      {
+         super();
+         mTask = task;
+         mDueTime = dueTime;
+         mOrder = order;
+      }
+
+      @Override
+      public int compareTo(final ScheduledTask other)
+      {
+         final int byTime = Long.compare(mDueTime, other.mDueTime);
+         return byTime != 0 ? byTime : Long.compare(mOrder, other.mOrder);
+      }
+
+      private final Runnable mTask;
+      private final long mDueTime;
+      private final long mOrder;
+   }
+
+   private final ControllerHost mHost;
+   private final List<FakeMidiIn> mMidiIns = new ArrayList<>();
+   private final List<FakeMidiOut> mMidiOuts = new ArrayList<>();
+   private final List<Runnable> mHardwareUpdaters = new ArrayList<>();
+   private final PriorityQueue<ScheduledTask> mTasks = new PriorityQueue<>();
+   private final List<String> mPrinted = new ArrayList<>();
+   private final List<String> mErrors = new ArrayList<>();
+   private HardwareSurface mHardwareSurface;
+   private boolean mIsFlushRequested;
+   private long mTime;
+   private long mTaskCount;
+}
@@ -0,0 +1,50 @@
+package com.bitwig.extensions.testing;
+
+import com.bitwig.extension.controller.api.MidiIn;
+
+/**
+ * A MIDI input whose messages come from the test: {@link #receiveMidi(int, int, int)} and
+ * {@link #receiveSysex(String)} call the callbacks the extension registered on the port.
+ */
+public final class FakeMidiIn
+{
+   FakeMidiIn(final FakeControllerHost host)
+   {
+      super();
+
+      mPort = FakeApi.create(host, MidiIn.class);
+
+      FakeApi.of(mPort)
+         .override("setMidiCallback", args -> {
+            mMidiCallback = args[0];
+            return null;
+         })
+         .override("setSysexCallback", args -> {
+            mSysexCallback = args[0];
+            return null;
+         });
+   }
+
+   public MidiIn getPort()
+   {
+      return mPort;
+   }
+
+   /** Passes a short message to the MIDI callback of the port, if there is one. */
+   public void receiveMidi(final int status, final int data1, final int data2)
+   {
+      if (mMidiCallback != null)
+         FakeApi.call(mMidiCallback, "midiReceived", status, data1, data2);
+   }
+
+   /** Passes a sysex message, as hex string, to the sysex callback of the port, if there is one. */
+   public void receiveSysex(final String data)
+   {
+      if (mSysexCallback != null)
+         FakeApi.call(mSysexCallback, "sysexDataReceived", data.replaceAll("\\s", "").toLowerCase());
+   }
+
+   private final MidiIn mPort;
+   private Object mMidiCallback;
+   private Object mSysexCallback;
+}
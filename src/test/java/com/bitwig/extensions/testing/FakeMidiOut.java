@@ -0,0 +1,104 @@
+package com.bitwig.extensions.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bitwig.extension.controller.api.MidiOut;
+
+/**
+ * Records what an extension sends to a MIDI output: the messages, and how many bytes they make on the wire.
+ */
+public final class FakeMidiOut
+{
+   FakeMidiOut(final FakeControllerHost host)
+   {
+      super();
+
+      mPort = FakeApi.create(host, MidiOut.class);
+
+      FakeApi.of(mPort)
+         .override("sendMidi", args -> {
+            record(new byte[] {
+               ((Number)args[0]).byteValue(), ((Number)args[1]).byteValue(), ((Number)args[2]).byteValue()});
+            return null;
+         })
+         .override("sendSysex", args -> {
+            record(args[0] instanceof String ? parseHex((String)args[0]) : ((byte[])args[0]).clone());
+            return null;
+         });
+   }
+
+   public MidiOut getPort()
+   {
+      return mPort;
+   }
+
+   /** The messages sent since the last {@link #clear()}, short messages are 3 bytes long. */
+   public List<byte[]> getMessages()
+   {
+      return mMessages;
+   }
+
+   public int getMessageCount()
+   {
+      return mMessages.size();
+   }
+
+   /** The number of bytes sent since the last {@link #clear()}. */
+   public long getByteCount()
+   {
+      return mByteCount;
+   }
+
+   /** The messages as hex strings, for readable assertions. */
+   public List<String> getMessagesAsHex()
+   {
+      final List<String> messages = new ArrayList<>(mMessages.size());
+
+      for (final byte[] message : mMessages)
+         messages.add(toHex(message));
+
+      return messages;
+   }
+
+   public void clear()
+   {
+      mMessages.clear();
+      mByteCount = 0;
+   }
+
+   private void record(final byte[] message)
+   {
+      mMessages.add(message);
+      mByteCount += message.length;
+   }
+
+   public static String toHex(final byte[] data)
+   {
+      final StringBuilder sb = new StringBuilder(3 * data.length);
+
+      for (final byte b : data)
+      {
+         if (sb.length() > 0)
+            sb.append(' ');
+         sb.append(String.format("%02X", b & 0xFF));
+      }
+
+      return sb.toString();
+   }
+
+   public static byte[] parseHex(final String hex)
+   {
+      final String digits = hex.replaceAll("\\s", "");
+      final byte[] data = new byte[digits.length() / 2];
+
+      for (int i = 0; i < data.length; ++i)
+         data[i] = (byte)Integer.parseInt(digits.substring(2 * i, 2 * i + 2), 16);
+
+      return data;
+   }
+
+   private final MidiOut mPort;
+   private final List<byte[]> mMessages = new ArrayList<>();
+   private long mByteCount;
+}